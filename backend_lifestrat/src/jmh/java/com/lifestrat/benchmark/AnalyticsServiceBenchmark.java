@@ -0,0 +1,115 @@
+package com.lifestrat.benchmark;
+
+import com.lifestrat.dto.ProjectProgressDto;
+import com.lifestrat.dto.TaskTrendPoint;
+import com.lifestrat.dto.TrendGranularity;
+import com.lifestrat.service.AnalyticsService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка каждого метода AnalyticsService в зависимости от числа задач пользователя.
+ * Методы на материализованных счетчиках и сериях не должны зависеть от rowCount;
+ * агрегирующие запросы растут с числом задач в окне, тренды - с числом дневных агрегатов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rowCount;
+
+    private ConfigurableApplicationContext context;
+    private AnalyticsService analyticsService;
+    private Long userId;
+    private Long lifeSphereId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        analyticsService = context.getBean(AnalyticsService.class);
+        BenchmarkDataset dataset = BenchmarkDataset.seed(context, "bench", rowCount);
+        userId = dataset.userId();
+        lifeSphereId = dataset.sphereIds().get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, Double> lifeSphereBalance() {
+        return analyticsService.getLifeSphereBalance(userId);
+    }
+
+    @Benchmark
+    public Map<String, Double> lifeSphereBalanceYearWindow() {
+        return analyticsService.getLifeSphereBalance(userId, 365);
+    }
+
+    @Benchmark
+    public Map<String, Double> lifeSphereBalanceRange() {
+        LocalDate today = LocalDate.now();
+        return analyticsService.getLifeSphereBalance(userId, today.minusDays(90), today);
+    }
+
+    @Benchmark
+    public List<ProjectProgressDto> mainProjectsProgress() {
+        return analyticsService.getMainProjectsProgress(userId);
+    }
+
+    @Benchmark
+    public Page<ProjectProgressDto> mainProjectsProgressPage() {
+        return analyticsService.getMainProjectsProgress(userId, PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public void forEachProjectProgress(Blackhole blackhole) {
+        analyticsService.forEachProjectProgress(userId, blackhole::consume);
+    }
+
+    @Benchmark
+    public Map<String, Object> productivityStats() {
+        return analyticsService.getProductivityStats(userId);
+    }
+
+    @Benchmark
+    public Map<String, Object> timeStatistics() {
+        return analyticsService.getTimeStatistics(userId);
+    }
+
+    @Benchmark
+    public Map<String, Long> priorityDistribution() {
+        return analyticsService.getPriorityDistribution(userId);
+    }
+
+    @Benchmark
+    public List<TaskTrendPoint> dailyTrendQuarter() {
+        LocalDate today = LocalDate.now();
+        return analyticsService.getTaskTrend(userId, TrendGranularity.DAY, today.minusDays(89), today, null);
+    }
+
+    @Benchmark
+    public List<TaskTrendPoint> weeklyTrendDefault() {
+        return analyticsService.getTaskTrend(userId, TrendGranularity.WEEK, null, null, null);
+    }
+
+    @Benchmark
+    public List<TaskTrendPoint> monthlyTrendYearBySphere() {
+        LocalDate today = LocalDate.now();
+        return analyticsService.getTaskTrend(userId, TrendGranularity.MONTH, today.minusYears(1), today, lifeSphereId);
+    }
+}
@@ -0,0 +1,25 @@
+package com.lifestrat.benchmark;
+
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// Минимальный контекст для бенчмарков: сервисы и репозитории без веб-слоя и безопасности
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan("com.lifestrat.entity")
+@EnableJpaRepositories("com.lifestrat.repository")
+@ComponentScan("com.lifestrat.service")
+public class BenchmarkApplication {
+
+    // Кодировщик из SecurityConfig, который не входит в контекст бенчмарков
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+}
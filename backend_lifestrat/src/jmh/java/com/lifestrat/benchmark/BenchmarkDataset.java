@@ -0,0 +1,104 @@
+package com.lifestrat.benchmark;
+
+import com.lifestrat.entity.*;
+import com.lifestrat.repository.LifeSphereRepository;
+import com.lifestrat.repository.ProjectRepository;
+import com.lifestrat.repository.TaskRepository;
+import com.lifestrat.repository.UserRepository;
+import com.lifestrat.service.StreakService;
+import com.lifestrat.service.TaskRollupService;
+import com.lifestrat.service.TaskStatsService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Набор данных одного пользователя для бенчмарков сервисного слоя: taskCount задач за последний год
+ * (примерно половина выполнена), распределенных по нескольким сферам и проектам.
+ * Задачи вставляются пачками напрямую через репозитории, после чего счетчики, серии и дневные
+ * агрегаты перестраиваются один раз - как после обычной работы через TaskService.
+ */
+public record BenchmarkDataset(Long userId, List<Long> sphereIds, List<Long> projectIds, List<Long> taskIds) {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int SPHERE_COUNT = 8;
+    private static final int TASKS_PER_PROJECT = 50;
+    private static final int MAX_PROJECTS = 200;
+
+    // Заполнить базу контекста данными пользователя username
+    public static BenchmarkDataset seed(ConfigurableApplicationContext context, String username, int taskCount) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        LifeSphereRepository lifeSphereRepository = context.getBean(LifeSphereRepository.class);
+        ProjectRepository projectRepository = context.getBean(ProjectRepository.class);
+        TaskRepository taskRepository = context.getBean(TaskRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        User savedUser = userRepository.save(user);
+
+        List<LifeSphere> spheres = new ArrayList<>(SPHERE_COUNT);
+        for (int i = 0; i < SPHERE_COUNT; i++) {
+            LifeSphere sphere = new LifeSphere();
+            sphere.setName("Sphere " + i);
+            sphere.setColor("#FFFFFF");
+            sphere.setUser(savedUser);
+            spheres.add(sphere);
+        }
+        lifeSphereRepository.saveAll(spheres);
+
+        int projectCount = Math.max(1, Math.min(MAX_PROJECTS, taskCount / TASKS_PER_PROJECT));
+        List<Project> projects = new ArrayList<>(projectCount);
+        for (int i = 0; i < projectCount; i++) {
+            Project project = new Project();
+            project.setTitle("Project " + i);
+            project.setDeadline(LocalDate.now().plusDays(i % 180));
+            project.setPriority(Priority.values()[i % Priority.values().length]);
+            project.setLifeSphere(spheres.get(i % SPHERE_COUNT));
+            project.setUser(savedUser);
+            projects.add(project);
+        }
+        projectRepository.saveAll(projects);
+
+        List<Long> taskIds = new ArrayList<>(taskCount);
+        for (int start = 0; start < taskCount; start += CHUNK_SIZE) {
+            int end = Math.min(start + CHUNK_SIZE, taskCount);
+            int chunkStart = start;
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Task> tasks = new ArrayList<>(end - chunkStart);
+                for (int i = chunkStart; i < end; i++) {
+                    Project project = projects.get(i % projectCount);
+                    Task task = new Task();
+                    task.setTitle("Task " + i);
+                    task.setDeadline(LocalDate.now().minusDays(i % 365));
+                    task.setCompleted(i % 2 == 0);
+                    task.setPriority(Priority.values()[i % Priority.values().length]);
+                    task.setEstimatedTimeMinutes(15 + (i % 8) * 15);
+                    task.setEnergyCost(EnergyCost.values()[i % EnergyCost.values().length]);
+                    task.setType(TaskType.values()[i % TaskType.values().length]);
+                    task.setLifeSphere(project.getLifeSphere());
+                    task.setProject(task.getType() == TaskType.STEP ? project : null);
+                    task.setUser(savedUser);
+                    tasks.add(task);
+                }
+                taskRepository.saveAll(tasks);
+                tasks.forEach(task -> taskIds.add(task.getId()));
+            });
+        }
+
+        Long userId = savedUser.getId();
+        context.getBean(TaskStatsService.class).rebuild(userId);
+        context.getBean(StreakService.class).rebuild(userId);
+        context.getBean(TaskRollupService.class).rebuild(userId);
+
+        return new BenchmarkDataset(userId,
+                spheres.stream().map(LifeSphere::getId).toList(),
+                projects.stream().map(Project::getId).toList(),
+                taskIds);
+    }
+}
@@ -0,0 +1,78 @@
+package com.lifestrat.benchmark;
+
+import com.lifestrat.config.JwtAuthenticationFilter;
+import com.lifestrat.entity.User;
+import com.lifestrat.repository.UserRepository;
+import com.lifestrat.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Распределение задержки JWT-фильтра на запрос (p50/p99/p99.9 в режиме SampleTime).
+ * cachedToken проходит фильтр с прогретым кэшем проверенных токенов,
+ * fullVerificationBaseline повторяет проверку подписи и поиск пользователя на каждый запрос.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String USERNAME = "benchmark-user";
+
+    private ConfigurableApplicationContext context;
+    private JwtService jwtService;
+    private UserRepository userRepository;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        jwtService = context.getBean(JwtService.class);
+        userRepository = context.getBean(UserRepository.class);
+        filter = new JwtAuthenticationFilter(jwtService, userRepository, 10_000, 15);
+
+        User user = new User();
+        user.setUsername(USERNAME);
+        user.setEmail("benchmark-user@example.com");
+        user.setPassword("password");
+        userRepository.save(user);
+
+        token = jwtService.generateToken(USERNAME);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Authentication cachedToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // Прежний путь без кэша: проверка подписи и запрос пользователя на каждый вызов
+    @Benchmark
+    public Optional<User> fullVerificationBaseline() {
+        return jwtService.parseToken(token)
+                .flatMap(details -> userRepository.findByUsername(details.subject()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.lifestrat.benchmark;
+
+import com.lifestrat.dto.TokenDetails;
+import com.lifestrat.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность выпуска и проверки JWT (токенов в секунду).
+ * baseline воспроизводит прежнюю реализацию: ключ и парсер создаются на каждый вызов,
+ * а validateToken(token, username) разбирает токен дважды.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET_KEY = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+    private static final String USERNAME = "benchmark-user";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtService(SECRET_KEY, TimeUnit.DAYS.toMillis(1));
+        token = jwtService.generateToken(USERNAME);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(USERNAME);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token, USERNAME);
+    }
+
+    @Benchmark
+    public Optional<TokenDetails> parseToken() {
+        return jwtService.parseToken(token);
+    }
+
+    @Benchmark
+    public boolean validateTokenBaseline() {
+        String subject = baselineClaims(token).getSubject();
+        Date expiration = baselineClaims(token).getExpiration();
+        return subject.equals(USERNAME) && !expiration.before(new Date());
+    }
+
+    // Прежний разбор: декодирование секрета, новый ключ и новый парсер на каждый токен
+    private Claims baselineClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,159 @@
+package com.lifestrat.benchmark;
+
+import com.lifestrat.entity.*;
+import com.lifestrat.repository.LifeSphereRepository;
+import com.lifestrat.repository.ProjectRepository;
+import com.lifestrat.repository.TaskRepository;
+import com.lifestrat.repository.UserRepository;
+import com.lifestrat.service.LifeSphereService;
+import com.lifestrat.service.ProjectService;
+import com.lifestrat.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка поиска задачи, проекта и сферы по (id, userId) в зависимости от количества строк пользователя.
+ * Точечные запросы должны оставаться на одном уровне от 10 до 100k строк;
+ * baseline воспроизводит прежний подход "загрузить все и отфильтровать".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OwnershipLookupBenchmark {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    @Param({"10", "1000", "10000", "100000"})
+    private int rowCount;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private ProjectService projectService;
+    private LifeSphereService lifeSphereService;
+
+    private Long userId;
+    private List<Long> taskIds;
+    private List<Long> projectIds;
+    private List<Long> sphereIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        taskService = context.getBean(TaskService.class);
+        projectService = context.getBean(ProjectService.class);
+        lifeSphereService = context.getBean(LifeSphereService.class);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        LifeSphereRepository lifeSphereRepository = context.getBean(LifeSphereRepository.class);
+        ProjectRepository projectRepository = context.getBean(ProjectRepository.class);
+        TaskRepository taskRepository = context.getBean(TaskRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        User user = new User();
+        user.setUsername("bench");
+        user.setEmail("bench@example.com");
+        user.setPassword("password");
+        User savedUser = userRepository.save(user);
+        userId = savedUser.getId();
+
+        sphereIds = new ArrayList<>(rowCount);
+        projectIds = new ArrayList<>(rowCount);
+        taskIds = new ArrayList<>(rowCount);
+
+        for (int start = 0; start < rowCount; start += CHUNK_SIZE) {
+            int end = Math.min(start + CHUNK_SIZE, rowCount);
+            int chunkStart = start;
+            transactionTemplate.executeWithoutResult(status -> {
+                List<LifeSphere> spheres = new ArrayList<>();
+                List<Project> projects = new ArrayList<>();
+                List<Task> tasks = new ArrayList<>();
+
+                for (int i = chunkStart; i < end; i++) {
+                    LifeSphere sphere = new LifeSphere();
+                    sphere.setName("Sphere " + i);
+                    sphere.setColor("#FFFFFF");
+                    sphere.setUser(savedUser);
+                    spheres.add(sphere);
+                }
+                lifeSphereRepository.saveAll(spheres);
+
+                for (int i = chunkStart; i < end; i++) {
+                    Project project = new Project();
+                    project.setTitle("Project " + i);
+                    project.setDeadline(LocalDate.now().plusDays(i % 365));
+                    project.setPriority(Priority.values()[i % Priority.values().length]);
+                    project.setLifeSphere(spheres.get(i - chunkStart));
+                    project.setUser(savedUser);
+                    projects.add(project);
+                }
+                projectRepository.saveAll(projects);
+
+                for (int i = chunkStart; i < end; i++) {
+                    Task task = new Task();
+                    task.setTitle("Task " + i);
+                    task.setDeadline(LocalDate.now().minusDays(i % 365));
+                    task.setCompleted(i % 2 == 0);
+                    task.setPriority(Priority.values()[i % Priority.values().length]);
+                    task.setEstimatedTimeMinutes(30);
+                    task.setEnergyCost(EnergyCost.values()[i % EnergyCost.values().length]);
+                    task.setType(TaskType.ACTION);
+                    task.setLifeSphere(spheres.get(i - chunkStart));
+                    task.setUser(savedUser);
+                    tasks.add(task);
+                }
+                taskRepository.saveAll(tasks);
+
+                spheres.forEach(sphere -> sphereIds.add(sphere.getId()));
+                projects.forEach(project -> projectIds.add(project.getId()));
+                tasks.forEach(task -> taskIds.add(task.getId()));
+            });
+        }
+    }
+
+    private static Long randomId(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    @Benchmark
+    public Optional<Task> taskByIdAndUserId() {
+        return taskService.findByIdAndUserId(randomId(taskIds), userId);
+    }
+
+    @Benchmark
+    public Optional<Project> projectByIdAndUserId() {
+        return projectService.findByIdAndUserId(randomId(projectIds), userId);
+    }
+
+    @Benchmark
+    public Optional<LifeSphere> lifeSphereByIdAndUserId() {
+        return lifeSphereService.findByIdAndUserId(randomId(sphereIds), userId);
+    }
+
+    // Прежняя реализация: загрузка всех задач пользователя и линейный поиск
+    @Benchmark
+    public Optional<Task> taskLoadAllAndFilterBaseline() {
+        Long taskId = randomId(taskIds);
+        return taskService.findAllByUserId(userId).stream()
+                .filter(task -> task.getId().equals(taskId))
+                .findFirst();
+    }
+}
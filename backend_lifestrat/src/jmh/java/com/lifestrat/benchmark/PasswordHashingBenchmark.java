@@ -0,0 +1,66 @@
+package com.lifestrat.benchmark;
+
+import com.lifestrat.service.PasswordHasher;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность BCrypt (хэшей в секунду) в зависимости от числа потоков пула и стоимости.
+ * Ожидаемый результат - почти линейный рост до числа физических ядер и плато после него;
+ * по нему выбираются security.password.hashing.threads и security.password.bcrypt-strength.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final int BATCH_SIZE = 64;
+
+    @Param({"1", "2", "4", "8", "16"})
+    private int threads;
+
+    @Param({"10", "12"})
+    private int strength;
+
+    private PasswordHasher passwordHasher;
+    private String encodedPassword;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(strength), threads, BATCH_SIZE, 1);
+        encodedPassword = passwordHasher.encode("benchmark-password");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void encode() {
+        List<CompletableFuture<String>> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(passwordHasher.encodeAsync("benchmark-password"));
+        }
+        CompletableFuture.allOf(batch.toArray(new CompletableFuture[0])).join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void matches() {
+        List<CompletableFuture<Boolean>> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(passwordHasher.matchesAsync("benchmark-password", encodedPassword));
+        }
+        CompletableFuture.allOf(batch.toArray(new CompletableFuture[0])).join();
+    }
+}
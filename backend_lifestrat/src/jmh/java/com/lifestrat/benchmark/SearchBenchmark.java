@@ -0,0 +1,151 @@
+package com.lifestrat.benchmark;
+
+import com.lifestrat.dto.SearchHit;
+import com.lifestrat.entity.*;
+import com.lifestrat.repository.LifeSphereRepository;
+import com.lifestrat.repository.TaskRepository;
+import com.lifestrat.repository.UserRepository;
+import com.lifestrat.service.SearchService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Распределение задержки полнотекстового поиска по построенному индексу пользователя (SampleTime дает p99).
+ * Тексты задач собираются из словаря в несколько тысяч слов; запросы - точное слово, префикс,
+ * слово с опечаткой и пара слов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int VOCABULARY_SIZE = 5000;
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "re", "su", "to", "van", "der", "pol", "ny"};
+
+    @Param({"1000", "10000", "100000"})
+    private int rowCount;
+
+    private ConfigurableApplicationContext context;
+    private SearchService searchService;
+    private Long userId;
+    private List<String> vocabulary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        searchService = context.getBean(SearchService.class);
+        vocabulary = buildVocabulary();
+        seed();
+        // Построение индекса не входит в измерение
+        searchService.search(userId, vocabulary.get(0), 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static List<String> buildVocabulary() {
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>(VOCABULARY_SIZE);
+        while (words.size() < VOCABULARY_SIZE) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int i = 0; i < syllables; i++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        LifeSphereRepository lifeSphereRepository = context.getBean(LifeSphereRepository.class);
+        TaskRepository taskRepository = context.getBean(TaskRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        User user = new User();
+        user.setUsername("bench");
+        user.setEmail("bench@example.com");
+        user.setPassword("password");
+        User savedUser = userRepository.save(user);
+        userId = savedUser.getId();
+
+        LifeSphere sphere = new LifeSphere();
+        sphere.setName("Work");
+        sphere.setColor("#FFFFFF");
+        sphere.setUser(savedUser);
+        LifeSphere savedSphere = lifeSphereRepository.save(sphere);
+
+        Random random = new Random(7);
+        for (int start = 0; start < rowCount; start += CHUNK_SIZE) {
+            int end = Math.min(start + CHUNK_SIZE, rowCount);
+            int chunkStart = start;
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Task> tasks = new ArrayList<>();
+                for (int i = chunkStart; i < end; i++) {
+                    Task task = new Task();
+                    task.setTitle(randomWords(random, 3));
+                    task.setDescription(randomWords(random, 12));
+                    task.setDeadline(LocalDate.now().minusDays(i % 365));
+                    task.setPriority(Priority.values()[i % Priority.values().length]);
+                    task.setEstimatedTimeMinutes(30);
+                    task.setEnergyCost(EnergyCost.values()[i % EnergyCost.values().length]);
+                    task.setType(TaskType.ACTION);
+                    task.setLifeSphere(savedSphere);
+                    task.setUser(savedUser);
+                    tasks.add(task);
+                }
+                taskRepository.saveAll(tasks);
+            });
+        }
+    }
+
+    private String randomWords(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : " ").append(vocabulary.get(random.nextInt(vocabulary.size())));
+        }
+        return text.toString();
+    }
+
+    private String randomWord() {
+        return vocabulary.get(ThreadLocalRandom.current().nextInt(vocabulary.size()));
+    }
+
+    @Benchmark
+    public List<SearchHit> exactTerm() {
+        return searchService.search(userId, randomWord(), 20);
+    }
+
+    @Benchmark
+    public List<SearchHit> prefix() {
+        String word = randomWord();
+        return searchService.search(userId, word.substring(0, 3), 20);
+    }
+
+    @Benchmark
+    public List<SearchHit> typo() {
+        String word = randomWord();
+        int position = 1 + ThreadLocalRandom.current().nextInt(word.length() - 1);
+        return searchService.search(userId, word.substring(0, position) + "x" + word.substring(position + 1), 20);
+    }
+
+    @Benchmark
+    public List<SearchHit> twoTerms() {
+        return searchService.search(userId, randomWord() + " " + randomWord(), 20);
+    }
+}
@@ -0,0 +1,98 @@
+package com.lifestrat.benchmark;
+
+import com.lifestrat.entity.*;
+import com.lifestrat.repository.LifeSphereRepository;
+import com.lifestrat.repository.UserRepository;
+import com.lifestrat.service.StreakService;
+import com.lifestrat.service.TaskService;
+import com.lifestrat.service.TaskStatsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время обработки одного запроса синхронизации из batchSize задач.
+ * createAll - пакетное сохранение (последовательность с пулом ID и JDBC batch);
+ * createOneByOne - прежний путь, по одному вызову TaskService.create на задачу.
+ * На H2 в памяти нет сетевых задержек, поэтому на реальной БД разница будет больше.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskBatchInsertBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+
+    private User user;
+    private LifeSphere sphere;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        taskService = context.getBean(TaskService.class);
+
+        User newUser = new User();
+        newUser.setUsername("bench");
+        newUser.setEmail("bench@example.com");
+        newUser.setPassword("password");
+        user = context.getBean(UserRepository.class).save(newUser);
+
+        LifeSphere newSphere = new LifeSphere();
+        newSphere.setName("Work");
+        newSphere.setColor("#FFFFFF");
+        newSphere.setUser(user);
+        sphere = context.getBean(LifeSphereRepository.class).save(newSphere);
+
+        // Материализуем счетчики и серии, чтобы в замер входило и их обновление
+        context.getBean(TaskStatsService.class).getStats(user.getId());
+        context.getBean(StreakService.class).getStreak(user.getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private List<Task> newTasks() {
+        List<Task> tasks = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            Task task = new Task();
+            task.setTitle("Offline task " + i);
+            task.setDeadline(LocalDate.now().minusDays(i % 30));
+            task.setCompleted(i % 3 == 0);
+            task.setPriority(Priority.values()[i % Priority.values().length]);
+            task.setEstimatedTimeMinutes(30);
+            task.setEnergyCost(EnergyCost.values()[i % EnergyCost.values().length]);
+            task.setType(TaskType.ACTION);
+            task.setLifeSphere(sphere);
+            task.setUser(user);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    @Benchmark
+    public List<Task> createAll() {
+        return taskService.createAll(newTasks(), user.getId());
+    }
+
+    @Benchmark
+    public List<Task> createOneByOne() {
+        List<Task> created = new ArrayList<>(batchSize);
+        for (Task task : newTasks()) {
+            created.add(taskService.create(task, user.getId()));
+        }
+        return created;
+    }
+}
@@ -0,0 +1,60 @@
+package com.lifestrat.benchmark;
+
+import com.lifestrat.entity.User;
+import com.lifestrat.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Задержка операций UserService с хэшированием пароля через пул PasswordHasher: регистрация,
+ * проверка пароля при входе и хэширование. Время почти целиком определяется стоимостью BCrypt,
+ * поэтому число задач пользователя здесь не параметризуется; масштабирование пула по потокам
+ * измеряет {@link PasswordHashingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private static final String PASSWORD = "benchmark-password";
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private final AtomicLong userNumber = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        userService = context.getBean(UserService.class);
+        userService.createUser("bench", "bench@example.com", PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User createUser() {
+        long number = userNumber.incrementAndGet();
+        return userService.createUser("user" + number, "user" + number + "@example.com", PASSWORD);
+    }
+
+    // Путь входа: поиск пользователя и проверка пароля
+    @Benchmark
+    public boolean login() {
+        User user = userService.findByUsername("bench").orElseThrow();
+        return userService.checkPassword(PASSWORD, user.getPassword());
+    }
+
+    @Benchmark
+    public String encodePassword() {
+        return userService.encodePassword(PASSWORD);
+    }
+}
@@ -0,0 +1,14 @@
+package com.lifestrat.loadtest;
+
+// Итог нагрузки на одну конечную точку; задержки в миллисекундах, throughput - успешных запросов в секунду
+public record EndpointStats(
+        String endpoint,
+        long requests,
+        long errors,
+        double throughput,
+        double p50,
+        double p99,
+        double p999,
+        double max
+) {
+}
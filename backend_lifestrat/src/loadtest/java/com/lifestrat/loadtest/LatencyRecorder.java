@@ -0,0 +1,49 @@
+package com.lifestrat.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Задержки запросов одной конечной точки. Хранятся все значения, поэтому перцентили точные;
+ * при десятках тысяч запросов в секунду за несколько минут это десятки мегабайт.
+ * Запись синхронизирована: ее стоимость мала по сравнению с самим HTTP-запросом.
+ */
+public class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    // Записать задержку успешного запроса в наносекундах
+    public synchronized void record(long nanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+    }
+
+    // Запрос завершился ошибкой или неожиданным статусом; в перцентили не входит
+    public synchronized void recordError() {
+        errors++;
+    }
+
+    // Сводка по записанным значениям: число запросов, ошибок и перцентили в миллисекундах
+    public synchronized EndpointStats summarize(String endpoint, double durationSeconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new EndpointStats(endpoint, count, errors,
+                durationSeconds > 0 ? count / durationSeconds : 0,
+                percentileMillis(sorted, 0.50),
+                percentileMillis(sorted, 0.99),
+                percentileMillis(sorted, 0.999),
+                sorted.length > 0 ? sorted[sorted.length - 1] / 1_000_000.0 : 0);
+    }
+
+    // Перцентиль методом ближайшего ранга
+    static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+}
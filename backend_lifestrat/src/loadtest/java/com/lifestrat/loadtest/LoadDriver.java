@@ -0,0 +1,192 @@
+package com.lifestrat.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Нагрузка на REST API по замкнутому циклу: concurrency рабочих потоков без пауз отправляют запросы
+ * случайных пользователей, конечная точка выбирается по весам {@link Endpoint}. Первые warmup секунд
+ * не записываются (прогрев JIT, кэшей и поисковых индексов), дальше для каждой точки собираются
+ * все задержки. Ошибкой считается исключение клиента или статус не 2xx.
+ */
+@Slf4j
+public class LoadDriver {
+
+    static final String LOGIN_ENDPOINT = "POST /api/auth/login";
+    static final String TOTAL = "TOTAL";
+
+    // Пользователь с полученным при входе токеном
+    public record Session(SeededUser user, String token) {
+    }
+
+    // Конечная точка нагрузки; factory возвращает null, если у пользователя нет данных для запроса
+    public record Endpoint(String name, int weight, RequestFactory factory) {
+    }
+
+    @FunctionalInterface
+    public interface RequestFactory {
+        HttpRequest.Builder create(URI baseUri, Session session, Random random);
+    }
+
+    private final URI baseUri;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final List<Endpoint> endpoints;
+    private final int totalWeight;
+    private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+    private final LatencyRecorder totalRecorder = new LatencyRecorder();
+    private double loginSeconds;
+
+    public LoadDriver(URI baseUri, ObjectMapper objectMapper, List<Endpoint> endpoints) {
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.endpoints = List.copyOf(endpoints);
+        this.totalWeight = endpoints.stream().mapToInt(Endpoint::weight).sum();
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        recorders.put(LOGIN_ENDPOINT, new LatencyRecorder());
+        endpoints.forEach(endpoint -> recorders.put(endpoint.name(), new LatencyRecorder()));
+    }
+
+    // Войти под пользователями users; задержки входа попадают в отчет отдельной строкой
+    public List<Session> login(List<SeededUser> users, String password) {
+        LatencyRecorder recorder = recorders.get(LOGIN_ENDPOINT);
+        List<Session> sessions = new ArrayList<>(users.size());
+        long loginStart = System.nanoTime();
+        for (SeededUser user : users) {
+            try {
+                String body = objectMapper.writeValueAsString(Map.of("username", user.username(), "password", password));
+                HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+
+                long startTime = System.nanoTime();
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                long elapsed = System.nanoTime() - startTime;
+
+                if (response.statusCode() != 200) {
+                    recorder.recordError();
+                    log.warn("Login failed for {}: HTTP {}", user.username(), response.statusCode());
+                    continue;
+                }
+                recorder.record(elapsed);
+                JsonNode json = objectMapper.readTree(response.body());
+                sessions.add(new Session(user, json.get("token").asText()));
+            } catch (IOException e) {
+                recorder.recordError();
+                log.warn("Login failed for {}: {}", user.username(), e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Login interrupted", e);
+            }
+        }
+        loginSeconds = (System.nanoTime() - loginStart) / 1e9;
+        if (sessions.isEmpty()) {
+            throw new IllegalStateException("No user could log in");
+        }
+        return sessions;
+    }
+
+    // Нагрузка concurrency потоками: warmup без записи, затем duration с записью задержек
+    public LoadReport run(List<Session> sessions, int concurrency, Duration warmup, Duration duration) {
+        long startTime = System.nanoTime();
+        long recordFrom = startTime + warmup.toNanos();
+        long stopAt = recordFrom + duration.toNanos();
+
+        List<Thread> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> work(sessions, recordFrom, stopAt), "load-driver-" + (i + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                workers.forEach(Thread::interrupt);
+                throw new IllegalStateException("Load run interrupted", e);
+            }
+        }
+
+        double seconds = duration.toNanos() / 1e9;
+        List<EndpointStats> stats = new ArrayList<>(recorders.size());
+        recorders.forEach((name, recorder) ->
+                stats.add(recorder.summarize(name, name.equals(LOGIN_ENDPOINT) ? loginSeconds : seconds)));
+        return new LoadReport(concurrency, seconds, sessions.size(), stats, totalRecorder.summarize(TOTAL, seconds));
+    }
+
+    private void work(List<Session> sessions, long recordFrom, long stopAt) {
+        Random random = ThreadLocalRandom.current();
+        while (!Thread.currentThread().isInterrupted()) {
+            long startTime = System.nanoTime();
+            if (startTime >= stopAt) {
+                return;
+            }
+
+            Session session = sessions.get(random.nextInt(sessions.size()));
+            Endpoint endpoint = pickEndpoint(random);
+            HttpRequest.Builder builder = endpoint.factory().create(baseUri, session, random);
+            if (builder == null) {
+                continue;
+            }
+            HttpRequest request = builder
+                    .header("Authorization", "Bearer " + session.token())
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+
+            boolean recorded = startTime >= recordFrom;
+            LatencyRecorder recorder = recorders.get(endpoint.name());
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                long elapsed = System.nanoTime() - startTime;
+                if (!recorded) {
+                    continue;
+                }
+                if (response.statusCode() / 100 == 2) {
+                    recorder.record(elapsed);
+                    totalRecorder.record(elapsed);
+                } else {
+                    recorder.recordError();
+                    totalRecorder.recordError();
+                }
+            } catch (IOException e) {
+                if (recorded) {
+                    recorder.recordError();
+                    totalRecorder.recordError();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Endpoint pickEndpoint(Random random) {
+        int point = random.nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            point -= endpoint.weight();
+            if (point < 0) {
+                return endpoint;
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+}
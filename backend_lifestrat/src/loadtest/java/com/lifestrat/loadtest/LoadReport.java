@@ -0,0 +1,28 @@
+package com.lifestrat.loadtest;
+
+import java.io.PrintStream;
+import java.util.List;
+
+// Результат нагрузочного прогона: строка на конечную точку и итог по всем запросам
+public record LoadReport(
+        int concurrency,
+        double durationSeconds,
+        int sessions,
+        List<EndpointStats> endpoints,
+        EndpointStats total
+) {
+
+    // Таблица для консоли
+    public void print(PrintStream out) {
+        out.printf("Concurrency: %d, users: %d, measured: %.0f s%n", concurrency, sessions, durationSeconds);
+        String format = "%-40s %10s %8s %10s %9s %9s %9s %9s%n";
+        out.printf(format, "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        endpoints.forEach(stats -> printRow(out, stats));
+        printRow(out, total);
+    }
+
+    private static void printRow(PrintStream out, EndpointStats stats) {
+        out.printf("%-40s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n", stats.endpoint(), stats.requests(),
+                stats.errors(), stats.throughput(), stats.p50(), stats.p99(), stats.p999(), stats.max());
+    }
+}
@@ -0,0 +1,75 @@
+package com.lifestrat.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lifestrat.LifestratApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Нагрузочный прогон без внешних зависимостей: приложение поднимается в этом же процессе на случайном
+ * порту и отдельной in-memory базе H2, заполняется генератором {@link WorkloadSeeder}, после чего
+ * {@link LoadDriver} нагружает REST API по HTTP. Таблица пишется в консоль, JSON - в файл из первого аргумента.
+ * Параметры - свойства workload.* (см. {@link WorkloadProfile}) и loadtest.*: sessions, concurrency,
+ * warmup-seconds, duration-seconds.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File reportFile = new File(args.length > 0 ? args[0] : "loadtest-report.json");
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(LifestratApplication.class)
+                .logStartupInfo(false)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false",
+                        "spring.sql.init.mode=never",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "logging.level.com.lifestrat=WARN",
+                        "logging.level.com.lifestrat.loadtest=INFO")
+                .run(args);
+        try {
+            Environment environment = context.getEnvironment();
+            WorkloadProfile profile = WorkloadProfile.from(environment);
+            List<SeededUser> users = new WorkloadSeeder(profile, context).seed();
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            LoadDriver driver = new LoadDriver(URI.create("http://localhost:" + port), objectMapper,
+                    RestEndpoints.standardMix(objectMapper));
+
+            int sessionCount = environment.getProperty("loadtest.sessions", Integer.class, 50);
+            List<LoadDriver.Session> sessions =
+                    driver.login(users.subList(0, Math.min(sessionCount, users.size())), profile.password());
+            LoadReport report = driver.run(sessions,
+                    environment.getProperty("loadtest.concurrency", Integer.class, 16),
+                    Duration.ofSeconds(environment.getProperty("loadtest.warmup-seconds", Long.class, 15L)),
+                    Duration.ofSeconds(environment.getProperty("loadtest.duration-seconds", Long.class, 60L)));
+
+            report.print(System.out);
+            objectMapper.copy()
+                    .enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(reportFile, report);
+            System.out.println("Report written to " + reportFile.getAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.lifestrat.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lifestrat.entity.EnergyCost;
+import com.lifestrat.entity.Priority;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Стандартная смесь запросов клиента: преимущественно чтение списков и карточек, поиск и тренды,
+ * небольшая доля записей (пакетное создание и выполнение задач). Веса - доли в процентах.
+ */
+public final class RestEndpoints {
+
+    private static final int CREATED_TASKS_PER_REQUEST = 5;
+    private static final int COMPLETED_TASKS_PER_REQUEST = 3;
+
+    private RestEndpoints() {
+    }
+
+    public static List<LoadDriver.Endpoint> standardMix(ObjectMapper objectMapper) {
+        List<LoadDriver.Endpoint> endpoints = new ArrayList<>();
+
+        endpoints.add(new LoadDriver.Endpoint("GET /api/tasks", 15,
+                (base, session, random) -> get(base, "/api/tasks?size=50")));
+        endpoints.add(new LoadDriver.Endpoint("GET /api/tasks/{id}", 20,
+                (base, session, random) -> session.user().taskIds().isEmpty() ? null
+                        : get(base, "/api/tasks/" + randomOf(session.user().taskIds(), random))));
+        endpoints.add(new LoadDriver.Endpoint("GET /api/spheres", 10,
+                (base, session, random) -> get(base, "/api/spheres")));
+        endpoints.add(new LoadDriver.Endpoint("GET /api/spheres/{id}", 5,
+                (base, session, random) -> get(base, "/api/spheres/" + randomOf(session.user().sphereIds(), random))));
+        endpoints.add(new LoadDriver.Endpoint("GET /api/projects", 8,
+                (base, session, random) -> get(base, "/api/projects")));
+        endpoints.add(new LoadDriver.Endpoint("GET /api/projects/{id}", 5,
+                (base, session, random) -> session.user().projectIds().isEmpty() ? null
+                        : get(base, "/api/projects/" + randomOf(session.user().projectIds(), random))));
+        endpoints.add(new LoadDriver.Endpoint("GET /api/projects/filter", 5,
+                (base, session, random) -> get(base, "/api/projects/filter?priority="
+                        + Priority.values()[random.nextInt(Priority.values().length)]
+                        + "&deadlineFrom=" + LocalDate.now())));
+        endpoints.add(new LoadDriver.Endpoint("GET /api/search", 8,
+                (base, session, random) -> get(base, "/api/search?q="
+                        + WorkloadSeeder.VOCABULARY[random.nextInt(WorkloadSeeder.VOCABULARY.length)])));
+        endpoints.add(new LoadDriver.Endpoint("GET /api/analytics/trends/week", 12,
+                (base, session, random) -> get(base, "/api/analytics/trends/week")));
+        endpoints.add(new LoadDriver.Endpoint("GET /api/analytics/trends/month", 7,
+                (base, session, random) -> get(base, "/api/analytics/trends/month?from="
+                        + LocalDate.now().minusYears(1))));
+        endpoints.add(new LoadDriver.Endpoint("POST /api/tasks/bulk", 3,
+                (base, session, random) -> post(base, "/api/tasks/bulk",
+                        json(objectMapper, newTasks(session, random)))));
+        endpoints.add(new LoadDriver.Endpoint("POST /api/tasks/bulk/complete", 2,
+                (base, session, random) -> session.user().taskIds().isEmpty() ? null
+                        : post(base, "/api/tasks/bulk/complete",
+                        json(objectMapper, randomIds(session.user().taskIds(), random)))));
+
+        return endpoints;
+    }
+
+    private static HttpRequest.Builder get(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).GET();
+    }
+
+    private static HttpRequest.Builder post(URI base, String path, String body) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private static String json(ObjectMapper objectMapper, Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize request body", e);
+        }
+    }
+
+    private static <T> T randomOf(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static List<Long> randomIds(List<Long> ids, Random random) {
+        List<Long> selected = new ArrayList<>(COMPLETED_TASKS_PER_REQUEST);
+        for (int i = 0; i < COMPLETED_TASKS_PER_REQUEST; i++) {
+            selected.add(randomOf(ids, random));
+        }
+        return selected;
+    }
+
+    // Тело запроса пакетного создания в формате TaskRequest
+    private static List<Map<String, Object>> newTasks(LoadDriver.Session session, Random random) {
+        List<Map<String, Object>> tasks = new ArrayList<>(CREATED_TASKS_PER_REQUEST);
+        for (int i = 0; i < CREATED_TASKS_PER_REQUEST; i++) {
+            Map<String, Object> task = new LinkedHashMap<>();
+            task.put("title", "Load " + WorkloadSeeder.VOCABULARY[random.nextInt(WorkloadSeeder.VOCABULARY.length)]);
+            task.put("deadline", LocalDate.now().plusDays(random.nextInt(30)).toString());
+            task.put("priority", Priority.values()[random.nextInt(Priority.values().length)].name());
+            task.put("estimatedTimeMinutes", 15 * (1 + random.nextInt(8)));
+            task.put("energyCost", EnergyCost.values()[random.nextInt(EnergyCost.values().length)].name());
+            task.put("type", "ACTION");
+            task.put("lifeSphereId", randomOf(session.user().sphereIds(), random));
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
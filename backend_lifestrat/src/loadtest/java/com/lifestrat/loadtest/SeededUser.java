@@ -0,0 +1,14 @@
+package com.lifestrat.loadtest;
+
+import java.util.List;
+
+// Созданный генератором пользователь; taskIds - выборка ID задач для точечных запросов нагрузки
+public record SeededUser(
+        Long userId,
+        String username,
+        int taskCount,
+        List<Long> sphereIds,
+        List<Long> projectIds,
+        List<Long> taskIds
+) {
+}
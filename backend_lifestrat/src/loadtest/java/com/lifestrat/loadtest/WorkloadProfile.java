@@ -0,0 +1,82 @@
+package com.lifestrat.loadtest;
+
+import com.lifestrat.entity.TaskType;
+import org.springframework.core.env.Environment;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Параметры синтетических данных. Число задач пользователя распределено логнормально вокруг медианы
+ * (несколько "тяжелых" пользователей и много легких, как в реальной базе); sigma = 0 дает всем одинаковое число.
+ * Дедлайны равномерно распределены в [-deadlinePastDays, +deadlineFutureDays] от сегодняшнего дня,
+ * выполненной считается доля completionRatio задач с прошедшим дедлайном. Типы задач выбираются по весам typeMix.
+ */
+public record WorkloadProfile(
+        int users,
+        int tasksPerUserMedian,
+        double tasksPerUserSigma,
+        int tasksPerUserMax,
+        int spheresPerUser,
+        int projectsPerUser,
+        double completionRatio,
+        int deadlinePastDays,
+        int deadlineFutureDays,
+        Map<TaskType, Double> typeMix,
+        String password,
+        long randomSeed
+) {
+    public WorkloadProfile {
+        if (users < 1 || tasksPerUserMedian < 0 || tasksPerUserMax < tasksPerUserMedian) {
+            throw new IllegalArgumentException("Invalid user or task counts");
+        }
+        if (tasksPerUserSigma < 0) {
+            throw new IllegalArgumentException("Task count sigma must not be negative");
+        }
+        if (spheresPerUser < 1 || projectsPerUser < 0) {
+            throw new IllegalArgumentException("Every user needs at least one life sphere");
+        }
+        if (completionRatio < 0 || completionRatio > 1) {
+            throw new IllegalArgumentException("Completion ratio must be between 0 and 1");
+        }
+        if (deadlinePastDays < 0 || deadlineFutureDays < 0) {
+            throw new IllegalArgumentException("Deadline spread must not be negative");
+        }
+        if (typeMix.isEmpty() || typeMix.values().stream().anyMatch(weight -> weight < 0)
+                || typeMix.values().stream().mapToDouble(Double::doubleValue).sum() <= 0) {
+            throw new IllegalArgumentException("Task type mix needs at least one positive weight");
+        }
+        typeMix = Map.copyOf(typeMix);
+    }
+
+    // Профиль из свойств workload.* (системные свойства -D или аргументы --workload.users=...)
+    public static WorkloadProfile from(Environment environment) {
+        return new WorkloadProfile(
+                environment.getProperty("workload.users", Integer.class, 100),
+                environment.getProperty("workload.tasks-per-user.median", Integer.class, 500),
+                environment.getProperty("workload.tasks-per-user.sigma", Double.class, 0.8),
+                environment.getProperty("workload.tasks-per-user.max", Integer.class, 100_000),
+                environment.getProperty("workload.spheres-per-user", Integer.class, 6),
+                environment.getProperty("workload.projects-per-user", Integer.class, 10),
+                environment.getProperty("workload.completion-ratio", Double.class, 0.7),
+                environment.getProperty("workload.deadline.past-days", Integer.class, 365),
+                environment.getProperty("workload.deadline.future-days", Integer.class, 60),
+                parseTypeMix(environment.getProperty("workload.type-mix", "STEP:0.3,ACTION:0.5,RITUAL:0.2")),
+                environment.getProperty("workload.password", "password"),
+                environment.getProperty("workload.seed", Long.class, 42L));
+    }
+
+    // Разобрать веса типов задач в формате "STEP:0.3,ACTION:0.5,RITUAL:0.2"
+    static Map<TaskType, Double> parseTypeMix(String value) {
+        Map<TaskType, Double> mix = new EnumMap<>(TaskType.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid task type mix entry: " + entry);
+            }
+            mix.put(TaskType.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Double.parseDouble(parts[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,247 @@
+package com.lifestrat.loadtest;
+
+import com.lifestrat.entity.*;
+import com.lifestrat.repository.LifeSphereRepository;
+import com.lifestrat.repository.ProjectRepository;
+import com.lifestrat.repository.TaskRepository;
+import com.lifestrat.repository.UserRepository;
+import com.lifestrat.service.StreakService;
+import com.lifestrat.service.TaskRollupBackfillJob;
+import com.lifestrat.service.TaskStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Генератор синтетических пользователей, сфер жизни, проектов и задач по {@link WorkloadProfile}.
+ * Строки вставляются пачками через репозитории: ID берутся из пулов последовательностей, поэтому
+ * Hibernate группирует вставки в JDBC batch-и; каждая пачка - отдельная транзакция и отдельный
+ * контекст персистентности, память не растет с объемом данных. Пароль у всех пользователей один
+ * и хэшируется один раз. После вставки счетчики, серии и дневные агрегаты перестраиваются так же,
+ * как после обычной работы через сервисы.
+ */
+@Slf4j
+public class WorkloadSeeder {
+
+    private static final int USERS_PER_TRANSACTION = 100;
+    private static final int TASKS_PER_TRANSACTION = 5000;
+    private static final int SAMPLED_TASK_IDS = 1000;
+
+    static final String[] VOCABULARY = {
+            "report", "budget", "meeting", "review", "plan", "workout", "run", "yoga", "doctor", "groceries",
+            "garden", "kitchen", "invoice", "presentation", "release", "backlog", "reading", "course", "exam",
+            "family", "birthday", "travel", "tickets", "hotel", "car", "insurance", "taxes", "savings", "call",
+            "email", "design", "interview", "deploy", "refactor", "library", "piano", "guitar", "painting",
+            "cleaning", "laundry", "dentist", "vitamins", "meditation", "journal", "podcast", "blog", "friends"
+    };
+    private static final String[] COLORS = {"#E57373", "#64B5F6", "#81C784", "#FFD54F", "#BA68C8", "#4DB6AC"};
+
+    private final WorkloadProfile profile;
+    private final UserRepository userRepository;
+    private final LifeSphereRepository lifeSphereRepository;
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final TaskStatsService taskStatsService;
+    private final StreakService streakService;
+    private final TaskRollupBackfillJob taskRollupBackfillJob;
+    private final Random random;
+
+    public WorkloadSeeder(WorkloadProfile profile, ApplicationContext context) {
+        this.profile = profile;
+        this.userRepository = context.getBean(UserRepository.class);
+        this.lifeSphereRepository = context.getBean(LifeSphereRepository.class);
+        this.projectRepository = context.getBean(ProjectRepository.class);
+        this.taskRepository = context.getBean(TaskRepository.class);
+        this.transactionTemplate = context.getBean(TransactionTemplate.class);
+        this.passwordEncoder = context.getBean(PasswordEncoder.class);
+        this.taskStatsService = context.getBean(TaskStatsService.class);
+        this.streakService = context.getBean(StreakService.class);
+        this.taskRollupBackfillJob = context.getBean(TaskRollupBackfillJob.class);
+        this.random = new Random(profile.randomSeed());
+    }
+
+    // Сгенерировать данные профиля; возвращает созданных пользователей в порядке создания
+    public List<SeededUser> seed() {
+        log.info("Seeding workload: {}", profile);
+        long startTime = System.currentTimeMillis();
+        String encodedPassword = passwordEncoder.encode(profile.password());
+
+        List<SeededUser> seededUsers = new ArrayList<>(profile.users());
+        long totalTasks = 0;
+        for (int start = 0; start < profile.users(); start += USERS_PER_TRANSACTION) {
+            int end = Math.min(start + USERS_PER_TRANSACTION, profile.users());
+            for (UserRows rows : insertUsers(start, end, encodedPassword)) {
+                int taskCount = sampleTaskCount();
+                List<Long> taskIds = insertTasks(rows, taskCount);
+                seededUsers.add(new SeededUser(rows.user().getId(), rows.user().getUsername(), taskCount,
+                        rows.spheres().stream().map(LifeSphere::getId).toList(),
+                        rows.projects().stream().map(Project::getId).toList(),
+                        taskIds));
+                totalTasks += taskCount;
+            }
+            log.info("Seeded {} of {} users, {} tasks", end, profile.users(), totalTasks);
+        }
+
+        // Производное состояние строится так же, как после обычной работы через TaskService
+        seededUsers.parallelStream().forEach(user -> {
+            taskStatsService.rebuild(user.userId());
+            streakService.rebuild(user.userId());
+        });
+        taskRollupBackfillJob.backfillAll();
+
+        log.info("Workload seeded in {} ms. Users: {}, tasks: {}",
+                System.currentTimeMillis() - startTime, seededUsers.size(), totalTasks);
+        return seededUsers;
+    }
+
+    private record UserRows(User user, List<LifeSphere> spheres, List<Project> projects) {
+    }
+
+    // Пользователи [start, end) со сферами и проектами одной транзакцией
+    private List<UserRows> insertUsers(int start, int end, String encodedPassword) {
+        return transactionTemplate.execute(status -> {
+            List<User> users = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                User user = new User();
+                user.setUsername("load" + i);
+                user.setEmail("load" + i + "@example.com");
+                user.setPassword(encodedPassword);
+                users.add(user);
+            }
+            userRepository.saveAll(users);
+
+            List<UserRows> rows = new ArrayList<>(users.size());
+            List<LifeSphere> spheres = new ArrayList<>();
+            List<Project> projects = new ArrayList<>();
+            for (User user : users) {
+                List<LifeSphere> userSpheres = new ArrayList<>(profile.spheresPerUser());
+                for (int i = 0; i < profile.spheresPerUser(); i++) {
+                    LifeSphere sphere = new LifeSphere();
+                    sphere.setName("Sphere " + i);
+                    sphere.setColor(COLORS[i % COLORS.length]);
+                    sphere.setUser(user);
+                    userSpheres.add(sphere);
+                }
+
+                List<Project> userProjects = new ArrayList<>(profile.projectsPerUser());
+                for (int i = 0; i < profile.projectsPerUser(); i++) {
+                    Project project = new Project();
+                    project.setTitle("Project " + i + " " + randomWords(2));
+                    project.setDescription(randomWords(8));
+                    project.setDeadline(randomDeadline());
+                    project.setPriority(randomOf(Priority.values()));
+                    project.setLifeSphere(userSpheres.get(random.nextInt(userSpheres.size())));
+                    project.setUser(user);
+                    userProjects.add(project);
+                }
+
+                spheres.addAll(userSpheres);
+                projects.addAll(userProjects);
+                rows.add(new UserRows(user, userSpheres, userProjects));
+            }
+            lifeSphereRepository.saveAll(spheres);
+            projectRepository.saveAll(projects);
+            return rows;
+        });
+    }
+
+    // Задачи пользователя пачками по TASKS_PER_TRANSACTION; возвращает выборку их ID
+    private List<Long> insertTasks(UserRows rows, int taskCount) {
+        List<Long> sampledIds = new ArrayList<>(Math.min(taskCount, SAMPLED_TASK_IDS));
+        for (int start = 0; start < taskCount; start += TASKS_PER_TRANSACTION) {
+            int end = Math.min(start + TASKS_PER_TRANSACTION, taskCount);
+            int chunkStart = start;
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Task> tasks = new ArrayList<>(end - chunkStart);
+                for (int i = chunkStart; i < end; i++) {
+                    tasks.add(newTask(rows));
+                }
+                taskRepository.saveAll(tasks);
+                for (Task task : tasks) {
+                    if (sampledIds.size() < SAMPLED_TASK_IDS) {
+                        sampledIds.add(task.getId());
+                    }
+                }
+            });
+        }
+        return sampledIds;
+    }
+
+    private Task newTask(UserRows rows) {
+        Task task = new Task();
+        task.setTitle(randomWords(3));
+        task.setDescription(random.nextInt(3) == 0 ? null : randomWords(10));
+        LocalDate deadline = randomDeadline();
+        task.setDeadline(deadline);
+        task.setCompleted(deadline.isBefore(LocalDate.now()) && random.nextDouble() < profile.completionRatio());
+        task.setPriority(randomOf(Priority.values()));
+        task.setEstimatedTimeMinutes(15 * (1 + random.nextInt(16)));
+        task.setEnergyCost(randomOf(EnergyCost.values()));
+        task.setUser(rows.user());
+
+        // Шаги относятся к проекту и его сфере; без проектов шаг становится действием
+        TaskType type = randomType();
+        if (type == TaskType.STEP && !rows.projects().isEmpty()) {
+            Project project = rows.projects().get(random.nextInt(rows.projects().size()));
+            task.setProject(project);
+            task.setLifeSphere(project.getLifeSphere());
+        } else {
+            type = type == TaskType.STEP ? TaskType.ACTION : type;
+            task.setLifeSphere(rows.spheres().get(random.nextInt(rows.spheres().size())));
+        }
+        task.setType(type);
+        return task;
+    }
+
+    // Логнормальное число задач: медиана tasksPerUserMedian, разброс sigma, не больше tasksPerUserMax
+    private int sampleTaskCount() {
+        if (profile.tasksPerUserMedian() == 0) {
+            return 0;
+        }
+        double count = profile.tasksPerUserMedian() * Math.exp(profile.tasksPerUserSigma() * random.nextGaussian());
+        return (int) Math.min(profile.tasksPerUserMax(), Math.round(count));
+    }
+
+    private LocalDate randomDeadline() {
+        int span = profile.deadlinePastDays() + profile.deadlineFutureDays() + 1;
+        return LocalDate.now().minusDays(profile.deadlinePastDays()).plusDays(random.nextInt(span));
+    }
+
+    private TaskType randomType() {
+        double total = profile.typeMix().values().stream().mapToDouble(Double::doubleValue).sum();
+        double point = random.nextDouble() * total;
+        TaskType last = null;
+        for (TaskType type : TaskType.values()) {
+            double weight = profile.typeMix().getOrDefault(type, 0.0);
+            if (weight <= 0) {
+                continue;
+            }
+            last = type;
+            point -= weight;
+            if (point < 0) {
+                return type;
+            }
+        }
+        return last;
+    }
+
+    private String randomWords(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : " ").append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+        }
+        return text.toString();
+    }
+
+    private <T> T randomOf(T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -1,4 +1,12 @@
 package com.lifestrat;
 
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
 public class LifestratApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(LifestratApplication.class, args);
+    }
 }
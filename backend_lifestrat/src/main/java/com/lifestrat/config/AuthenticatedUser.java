@@ -0,0 +1,8 @@
+package com.lifestrat.config;
+
+// Principal аутентифицированного по JWT запроса
+public record AuthenticatedUser(
+        Long userId,
+        String username
+) {
+}
@@ -1,4 +1,160 @@
 package com.lifestrat.config;
 
-public class JwtAuthenticationFilter {
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.lifestrat.dto.TokenDetails;
+import com.lifestrat.entity.User;
+import com.lifestrat.repository.UserRepository;
+import com.lifestrat.service.JwtService;
+import com.lifestrat.service.UserDisabledEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collections;
+
+/**
+ * Аутентификация запросов по заголовку "Authorization: Bearer &lt;token&gt;".
+ * Проверенные токены кэшируются по SHA-256 хэшу (сам токен в памяти не хранится) вместе с пользователем;
+ * запись живет до истечения токена, но не дольше max-ttl, чтобы удаление пользователя не затягивалось.
+ * Повторный запрос с тем же токеном не проверяет подпись и не обращается к таблице пользователей.
+ * Заблокированные пользователи не аутентифицируются; при блокировке их записи удаляются из кэша.
+ */
+@Component
+@Slf4j
+public class JwtAuthenticationFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+    private final UserRepository userRepository;
+    private final Cache<String, CachedToken> tokenCache;
+
+    @Autowired
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserRepository userRepository,
+                                   @Value("${security.jwt.token-cache.maximum-size:10000}") long maximumSize,
+                                   @Value("${security.jwt.token-cache.max-ttl-minutes:15}") long maxTtlMinutes) {
+        this.jwtService = jwtService;
+        this.userRepository = userRepository;
+        this.tokenCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(Duration.ofMinutes(maxTtlMinutes).toNanos()))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = header.substring(BEARER_PREFIX.length()).trim();
+
+            // Недействительные токены не кэшируются: loader возвращает null
+            CachedToken cachedToken = tokenCache.get(hash(token), key -> verify(token));
+            if (cachedToken != null) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        cachedToken.user(), null, Collections.emptyList());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // Статистика попаданий и промахов кэша токенов
+    public CacheStats cacheStats() {
+        return tokenCache.stats();
+    }
+
+    // Аккаунт заблокирован: сбросить все проверенные токены пользователя
+    @EventListener
+    public void onUserDisabled(UserDisabledEvent event) {
+        tokenCache.asMap().values().removeIf(cachedToken -> cachedToken.user().userId().equals(event.userId()));
+        log.info("Verified JWT tokens evicted for disabled user ID: {}", event.userId());
+    }
+
+    // Метрики кэша проверенных токенов
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, tokenCache, "jwt-tokens");
+    }
+
+    // Полная проверка токена: подпись, срок действия, существование и активность пользователя
+    private CachedToken verify(String token) {
+        TokenDetails details = jwtService.parseToken(token).orElse(null);
+        if (details == null || details.expiration() == null) {
+            log.debug("Rejected JWT token");
+            return null;
+        }
+
+        User user = userRepository.findByUsername(details.subject()).orElse(null);
+        if (user == null) {
+            log.warn("JWT token subject not found: {}", details.subject());
+            return null;
+        }
+        if (user.isDisabled()) {
+            log.warn("JWT token of disabled user rejected. User ID: {}", user.getId());
+            return null;
+        }
+        return new CachedToken(new AuthenticatedUser(user.getId(), user.getUsername()),
+                details.expiration().getTime());
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedToken(AuthenticatedUser user, long expiresAtMillis) {
+    }
+
+    // Время жизни записи: до истечения токена, но не больше maxTtlNanos
+    private record TokenExpiry(long maxTtlNanos) implements Expiry<String, CachedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+            long untilExpiry = Duration.ofMillis(value.expiresAtMillis() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,110 @@
+package com.lifestrat.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Таймеры публичных методов AnalyticsService, TaskService и ProjectService (lifestrat.service.calls)
+ * и выборочных методов TaskRepository и ProjectRepository (lifestrat.repository.calls) с гистограммами
+ * для перцентилей. Для методов чтения дополнительно пишется распределение числа возвращенных строк
+ * (lifestrat.repository.rows): рост "хвоста" показывает запросы, которые стали возвращать слишком много.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+    // Границы SLO должны быть больше нуля; пустые результаты попадают в первую корзину (<= 1)
+    private static final double[] ROW_BUCKETS = {1, 10, 50, 100, 500, 1000, 5000, 10000};
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public MetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.lifestrat.service.AnalyticsService.*(..))"
+            + " || execution(public * com.lifestrat.service.TaskService.*(..))"
+            + " || execution(public * com.lifestrat.service.ProjectService.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timed("lifestrat.service.calls", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                joinPoint);
+    }
+
+    @Around("execution(* com.lifestrat.repository.TaskRepository.find*(..))"
+            + " || execution(* com.lifestrat.repository.TaskRepository.aggregate*(..))"
+            + " || execution(* com.lifestrat.repository.TaskRepository.sum*(..))")
+    public Object recordTaskRepositoryRead(ProceedingJoinPoint joinPoint) throws Throwable {
+        return recordRead("TaskRepository", joinPoint);
+    }
+
+    @Around("execution(* com.lifestrat.repository.ProjectRepository.find*(..))")
+    public Object recordProjectRepositoryRead(ProceedingJoinPoint joinPoint) throws Throwable {
+        return recordRead("ProjectRepository", joinPoint);
+    }
+
+    private Object recordRead(String repository, ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = timed("lifestrat.repository.calls", repository, joinPoint);
+        long rows = rowCount(result);
+        if (rows >= 0) {
+            DistributionSummary.builder("lifestrat.repository.rows")
+                    .description("Rows returned by repository finders")
+                    .baseUnit("rows")
+                    .tag("class", repository)
+                    .tag("method", joinPoint.getSignature().getName())
+                    .serviceLevelObjectives(ROW_BUCKETS)
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+        return result;
+    }
+
+    private Object timed(String name, String className, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tag("class", className)
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    // Число строк результата; -1 для потоков, которые читаются уже после возврата из метода
+    static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Stream<?>) {
+            return -1;
+        }
+        return 1;
+    }
+}
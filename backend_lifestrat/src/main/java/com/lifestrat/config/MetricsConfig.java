@@ -0,0 +1,19 @@
+package com.lifestrat.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Подключить счетчик запросов и загрузок к фабрике сессий Hibernate
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer(QueryCounter queryCounter) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCounter);
+            properties.put(AvailableSettings.INTERCEPTOR, queryCounter);
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.lifestrat.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Число SQL-запросов и загруженных сущностей на HTTP-запрос по шаблону URI
+ * (lifestrat.http.queries и lifestrat.http.entities.loaded). Рост значений для одной конечной точки -
+ * признак N+1; запросы с числом SQL выше порога дополнительно пишутся в лог.
+ * Фильтр внешний по отношению к Spring Security, поэтому учитываются и запросы проверки токена.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final double[] COUNT_BUCKETS = {1, 2, 5, 10, 20, 50, 100, 200, 500};
+
+    private final QueryCounter queryCounter;
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    @Autowired
+    public QueryCountFilter(QueryCounter queryCounter, MeterRegistry meterRegistry,
+                            @Value("${metrics.queries.warn-threshold:50}") int warnThreshold) {
+        this.queryCounter = queryCounter;
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter.Counts counts = queryCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            queryCounter.stop();
+            record(request, counts);
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryCounter.Counts counts) {
+        // Шаблон вместо фактического URI, чтобы id в пути не размножали серии метрик
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        summary("lifestrat.http.queries", "SQL statements executed per HTTP request", "statements",
+                request.getMethod(), uri).record(counts.getStatements());
+        summary("lifestrat.http.entities.loaded", "Entities loaded by Hibernate per HTTP request", "entities",
+                request.getMethod(), uri).record(counts.getEntitiesLoaded());
+
+        if (counts.getStatements() > warnThreshold) {
+            log.warn("{} {} executed {} SQL statements and loaded {} entities",
+                    request.getMethod(), uri, counts.getStatements(), counts.getEntitiesLoaded());
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, String baseUnit, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit(baseUnit)
+                .tag("method", method)
+                .tag("uri", uri)
+                .serviceLevelObjectives(COUNT_BUCKETS)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,60 @@
+package com.lifestrat.config;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+import org.springframework.stereotype.Component;
+
+/**
+ * Счетчики SQL-запросов и загруженных сущностей текущего HTTP-запроса.
+ * Hibernate вызывает inspect для каждого выполняемого запроса и onLoad для каждой загруженной сущности;
+ * считается только между start и stop в {@link QueryCountFilter}, фоновые задания не учитываются.
+ */
+@Component
+public class QueryCounter implements StatementInspector, Interceptor {
+
+    // Счетчики одного запроса; меняются только потоком, который его обрабатывает
+    public static final class Counts {
+        private int statements;
+        private int entitiesLoaded;
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public int getEntitiesLoaded() {
+            return entitiesLoaded;
+        }
+    }
+
+    private final ThreadLocal<Counts> current = new ThreadLocal<>();
+
+    // Начать счет для текущего потока
+    public Counts start() {
+        Counts counts = new Counts();
+        current.set(counts);
+        return counts;
+    }
+
+    public void stop() {
+        current.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counts counts = current.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        Counts counts = current.get();
+        if (counts != null) {
+            counts.entitiesLoaded++;
+        }
+        return false;
+    }
+}
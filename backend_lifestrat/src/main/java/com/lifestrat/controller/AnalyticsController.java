@@ -1,4 +1,40 @@
 package com.lifestrat.controller;
 
+import com.lifestrat.config.AuthenticatedUser;
+import com.lifestrat.dto.TaskTrendPoint;
+import com.lifestrat.dto.TrendGranularity;
+import com.lifestrat.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/analytics")
 public class AnalyticsController {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    // Тренды по дням, неделям или месяцам: /trends/day, /trends/week, /trends/month
+    @GetMapping("/trends/{granularity}")
+    public ResponseEntity<List<TaskTrendPoint>> getTaskTrend(
+            @PathVariable String granularity,
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long lifeSphereId) {
+        try {
+            TrendGranularity trendGranularity = TrendGranularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+            return ResponseEntity.ok(analyticsService.getTaskTrend(
+                    principal.userId(), trendGranularity, from, to, lifeSphereId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
@@ -1,16 +1,21 @@
-package com.lifestratproj.controller;
+package com.lifestrat.controller;
 
-import com.lifestratproj.dto.RegisterRequest;
-import com.lifestratproj.dto.LoginRequest;
-import com.lifestratproj.dto.AuthResponse;
-import com.lifestratproj.service.AuthService;
+import com.lifestrat.dto.AuthResponse;
+import com.lifestrat.dto.LoginRequest;
+import com.lifestrat.dto.RegisterRequest;
+import com.lifestrat.service.AuthService;
+import com.lifestrat.service.PasswordHashingRejectedException;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -21,38 +26,45 @@ public class AuthController {
     private AuthService authService;
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest registerRequest) {
-        try {
-            AuthResponse response = authService.register(registerRequest);
-            return new ResponseEntity<>(response, HttpStatus.CREATED);
-        } catch (RuntimeException e) {
-            return new ResponseEntity<>(
-                new AuthResponse(e.getMessage(), null, null, null, null),
-                HttpStatus.BAD_REQUEST
-            );
-        } catch (Exception e) {
-            return new ResponseEntity<>(
-                new AuthResponse("Registration failed", null, null, null, null),
-                HttpStatus.INTERNAL_SERVER_ERROR
-            );
-        }
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@Valid @RequestBody RegisterRequest registerRequest) {
+        return handle(() -> authService.register(registerRequest), HttpStatus.CREATED, HttpStatus.BAD_REQUEST,
+                "Registration failed");
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest loginRequest) {
+        return handle(() -> authService.login(loginRequest), HttpStatus.OK, HttpStatus.UNAUTHORIZED,
+                "Login failed");
+    }
+
+    // Поток запроса освобождается до завершения хэширования; ошибки переводятся в HTTP-статусы
+    private CompletableFuture<ResponseEntity<AuthResponse>> handle(Supplier<CompletableFuture<AuthResponse>> action,
+                                                                   HttpStatus successStatus,
+                                                                   HttpStatus rejectedStatus,
+                                                                   String failureMessage) {
+        CompletableFuture<AuthResponse> result;
         try {
-            AuthResponse response = authService.login(loginRequest);
-            return new ResponseEntity<>(response, HttpStatus.OK);
+            result = action.get();
         } catch (RuntimeException e) {
-            return new ResponseEntity<>(
-                new AuthResponse(e.getMessage(), null, null, null, null),
-                HttpStatus.UNAUTHORIZED
-            );
-        } catch (Exception e) {
-            return new ResponseEntity<>(
-                new AuthResponse("Login failed", null, null, null, null),
-                HttpStatus.INTERNAL_SERVER_ERROR
-            );
+            result = CompletableFuture.failedFuture(e);
         }
+
+        return result
+                .thenApply(response -> new ResponseEntity<>(response, successStatus))
+                .exceptionally(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause instanceof PasswordHashingRejectedException rejected) {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(rejected.getRetryAfterSeconds()))
+                                .body(new AuthResponse(rejected.getMessage(), null, null, null, null));
+                    }
+                    if (cause instanceof IllegalArgumentException) {
+                        return new ResponseEntity<>(new AuthResponse(cause.getMessage(), null, null, null, null),
+                                rejectedStatus);
+                    }
+                    return new ResponseEntity<>(new AuthResponse(failureMessage, null, null, null, null),
+                            HttpStatus.INTERNAL_SERVER_ERROR);
+                });
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,15 @@
-package com.lifestratproj.controller;
+package com.lifestrat.controller;
 
-import com.lifestratproj.entity.LifeSphere;
-import com.lifestratproj.service.LifeSphereService;
+import com.lifestrat.config.AuthenticatedUser;
+import com.lifestrat.dto.CursorPage;
+import com.lifestrat.dto.SphereSummary;
+import com.lifestrat.entity.LifeSphere;
+import com.lifestrat.service.LifeSphereService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/spheres")
 public class LifeSphereController {
@@ -16,18 +18,22 @@ public class LifeSphereController {
     private LifeSphereService lifeSphereService;
 
     @GetMapping
-    public ResponseEntity<List<LifeSphere>> getAllSpheres() {
-        List<LifeSphere> spheres = lifeSphereService.getAllSpheres();
-        return ResponseEntity.ok(spheres);
+    public ResponseEntity<CursorPage<SphereSummary>> getAllSpheres(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(lifeSphereService.findPageByUserId(principal.userId(), cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<LifeSphere> getSphereById(@PathVariable Long id) {
-        try {
-            LifeSphere sphere = lifeSphereService.getSphereById(id);
-            return ResponseEntity.ok(sphere);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<LifeSphere> getSphereById(@PathVariable Long id,
+                                                    @AuthenticationPrincipal AuthenticatedUser principal) {
+        return lifeSphereService.findByIdAndUserId(id, principal.userId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+}
@@ -1,14 +1,28 @@
-package com.lifestratproj.controller;
+package com.lifestrat.controller;
 
-import com.lifestratproj.dto.ProjectRequest;
-import com.lifestratproj.entity.Project;
-import com.lifestratproj.service.ProjectService;
+import com.lifestrat.config.AuthenticatedUser;
+import com.lifestrat.dto.CursorPage;
+import com.lifestrat.dto.ProjectQuery;
+import com.lifestrat.dto.ProjectRequest;
+import com.lifestrat.dto.ProjectSummary;
+import com.lifestrat.entity.LifeSphere;
+import com.lifestrat.entity.Priority;
+import com.lifestrat.entity.Project;
+import com.lifestrat.entity.User;
+import com.lifestrat.service.LifeSphereService;
+import com.lifestrat.service.ProjectService;
+import com.lifestrat.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/projects")
@@ -17,55 +31,97 @@ public class ProjectController {
     @Autowired
     private ProjectService projectService;
 
+    @Autowired
+    private LifeSphereService lifeSphereService;
+
+    @Autowired
+    private UserService userService;
+
     @GetMapping
-    public ResponseEntity<List<Project>> getUserProjects(@RequestParam Long userId) {
+    public ResponseEntity<CursorPage<ProjectSummary>> getUserProjects(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
         try {
-            List<Project> projects = projectService.getUserProjects(userId);
-            return ResponseEntity.ok(projects);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return ResponseEntity.ok(projectService.findPageByUserId(principal.userId(), cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Project> getProjectById(@PathVariable Long id) {
-        try {
-            Project project = projectService.getProjectById(id);
-            return ResponseEntity.ok(project);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<Project> getProjectById(@PathVariable Long id,
+                                                  @AuthenticationPrincipal AuthenticatedUser principal) {
+        return projectService.findByIdAndUserId(id, principal.userId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
-    public ResponseEntity<Project> createProject(@RequestBody ProjectRequest projectRequest, 
-                                               @RequestParam Long userId) {
+    public ResponseEntity<Project> createProject(@RequestBody ProjectRequest projectRequest,
+                                                 @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long userId = principal.userId();
         try {
-            Project project = projectService.createProject(projectRequest, userId);
-            return new ResponseEntity<>(project, HttpStatus.CREATED);
+            User user = userService.findById(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            LifeSphere lifeSphere = lifeSphereService.loadByIdAndUserId(projectRequest.getLifeSphereId(), userId)
+                    .orElseThrow(() -> new IllegalArgumentException("Life sphere not found or access denied"));
+
+            Project project = new Project();
+            project.setTitle(projectRequest.getName());
+            project.setDescription(projectRequest.getDescription());
+            project.setDeadline(projectRequest.getDeadline());
+            project.setPriority(Priority.valueOf(projectRequest.getPriority()));
+            project.setLifeSphere(lifeSphere);
+            project.setUser(user);
+
+            return new ResponseEntity<>(projectService.create(project, userId), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    // Фильтры комбинируются в один запрос; status=overdue|high-priority оставлен как сокращение
+    // для deadlineTo=вчера и priority=HIGH,CRITICAL
     @GetMapping("/filter")
-    public ResponseEntity<List<Project>> getProjectsByFilter(
-            @RequestParam Long userId,
+    public ResponseEntity<CursorPage<ProjectSummary>> getProjectsByFilter(
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) Long lifeSphereId) {
-        
+            @RequestParam(required = false) Long lifeSphereId,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineTo,
+            @RequestParam(required = false) List<Priority> priority,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+
         try {
-            List<Project> projects;
-            if (status != null) {
-                projects = projectService.getUserProjectsByStatus(userId, status);
-            } else if (lifeSphereId != null) {
-                projects = projectService.getUserProjectsBySphere(userId, lifeSphereId);
-            } else {
-                projects = projectService.getUserProjects(userId);
+            Set<Priority> priorities = priority != null && !priority.isEmpty() ? EnumSet.copyOf(priority) : null;
+            if ("overdue".equalsIgnoreCase(status)) {
+                LocalDate yesterday = LocalDate.now().minusDays(1);
+                deadlineTo = deadlineTo == null || deadlineTo.isAfter(yesterday) ? yesterday : deadlineTo;
+            } else if ("high-priority".equalsIgnoreCase(status)) {
+                Set<Priority> highPriorities = ProjectQuery.highPriority().priorities();
+                if (priorities == null) {
+                    priorities = highPriorities;
+                } else {
+                    priorities.retainAll(highPriorities);
+                    if (priorities.isEmpty()) {
+                        return ResponseEntity.ok(new CursorPage<>(List.of(), null, false));
+                    }
+                }
+            } else if (status != null) {
+                return ResponseEntity.badRequest().build();
             }
-            return ResponseEntity.ok(projects);
+
+            ProjectQuery query = new ProjectQuery(lifeSphereId, title, deadlineFrom, deadlineTo, priorities);
+            return ResponseEntity.ok(projectService.search(principal.userId(), query, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package com.lifestrat.controller;
+
+import com.lifestrat.config.AuthenticatedUser;
+import com.lifestrat.dto.SearchHit;
+import com.lifestrat.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    @Autowired
+    private SearchService searchService;
+
+    @GetMapping
+    public ResponseEntity<List<SearchHit>> search(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(searchService.search(principal.userId(), query, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
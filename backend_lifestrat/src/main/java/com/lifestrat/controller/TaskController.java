@@ -1,4 +1,192 @@
 package com.lifestrat.controller;
 
+import com.lifestrat.config.AuthenticatedUser;
+import com.lifestrat.dto.BulkTaskResult;
+import com.lifestrat.dto.CursorPage;
+import com.lifestrat.dto.TaskRequest;
+import com.lifestrat.dto.TaskSummary;
+import com.lifestrat.entity.*;
+import com.lifestrat.service.LifeSphereService;
+import com.lifestrat.service.ProjectService;
+import com.lifestrat.service.TaskExportService;
+import com.lifestrat.service.TaskService;
+import com.lifestrat.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/tasks")
 public class TaskController {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LifeSphereService lifeSphereService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @GetMapping
+    public ResponseEntity<CursorPage<TaskSummary>> getUserTasks(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(taskService.findPageByUserId(principal.userId(), cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Task> getTaskById(@PathVariable Long id,
+                                            @AuthenticationPrincipal AuthenticatedUser principal) {
+        return taskService.findByIdAndUserId(id, principal.userId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Пакетное создание задач (синхронизация офлайн-клиента); возвращает ID созданных задач
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Long>> createTasks(@RequestBody List<TaskRequest> taskRequests,
+                                                  @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long userId = principal.userId();
+        try {
+            User user = userService.findById(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+            // Сферы - ссылки по id из кэша, проекты - одним запросом на всю пачку
+            Map<Long, LifeSphere> spheres = lifeSphereService.getReferencesByUserId(userId);
+            Set<Long> projectIds = taskRequests.stream()
+                    .map(TaskRequest::getProjectId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Map<Long, Project> projects = projectService.findAllByUserIdAndIdIn(userId, projectIds).stream()
+                    .collect(Collectors.toMap(Project::getId, Function.identity()));
+
+            List<Task> tasks = taskRequests.stream()
+                    .map(request -> toTask(request, user, spheres, projects))
+                    .toList();
+
+            List<Long> ids = taskService.createAll(tasks, userId).stream()
+                    .map(Task::getId)
+                    .toList();
+            return new ResponseEntity<>(ids, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/bulk/complete")
+    public ResponseEntity<BulkTaskResult> completeTasks(@RequestBody List<Long> taskIds,
+                                                        @AuthenticationPrincipal AuthenticatedUser principal) {
+        try {
+            return ResponseEntity.ok(new BulkTaskResult(taskIds.size(),
+                    taskService.markAllAsCompleted(taskIds, principal.userId())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/bulk/shift-deadline")
+    public ResponseEntity<BulkTaskResult> shiftDeadlines(@RequestBody List<Long> taskIds,
+                                                         @RequestParam int days,
+                                                         @AuthenticationPrincipal AuthenticatedUser principal) {
+        try {
+            return ResponseEntity.ok(new BulkTaskResult(taskIds.size(),
+                    taskService.shiftDeadlines(taskIds, days, principal.userId())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkTaskResult> deleteTasks(@RequestBody List<Long> taskIds,
+                                                      @AuthenticationPrincipal AuthenticatedUser principal) {
+        try {
+            return ResponseEntity.ok(new BulkTaskResult(taskIds.size(), taskService.deleteAll(taskIds, principal.userId())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private Task toTask(TaskRequest request, User user, Map<Long, LifeSphere> spheres, Map<Long, Project> projects) {
+        // Обязательные поля проверяются до valueOf, чтобы пропуск поля давал 400, а не NullPointerException
+        if (request.getTitle() == null || request.getDeadline() == null || request.getPriority() == null
+                || request.getEstimatedTimeMinutes() == null || request.getEnergyCost() == null
+                || request.getType() == null) {
+            throw new IllegalArgumentException(
+                    "Task title, deadline, priority, estimatedTimeMinutes, energyCost and type are required");
+        }
+        LifeSphere lifeSphere = spheres.get(request.getLifeSphereId());
+        if (lifeSphere == null) {
+            throw new IllegalArgumentException("Life sphere not found or access denied");
+        }
+        Project project = null;
+        if (request.getProjectId() != null) {
+            project = projects.get(request.getProjectId());
+            if (project == null) {
+                throw new IllegalArgumentException("Project not found or access denied");
+            }
+        }
+
+        Task task = new Task();
+        task.setTitle(request.getTitle());
+        task.setDescription(request.getDescription());
+        task.setCompleted(request.isCompleted());
+        task.setDeadline(request.getDeadline());
+        task.setPriority(Priority.valueOf(request.getPriority()));
+        task.setEstimatedTimeMinutes(request.getEstimatedTimeMinutes());
+        task.setEnergyCost(EnergyCost.valueOf(request.getEnergyCost()));
+        task.setType(TaskType.valueOf(request.getType()));
+        task.setProject(project);
+        task.setLifeSphere(lifeSphere);
+        task.setUser(user);
+        return task;
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        Long userId = principal.userId();
+        StreamingResponseBody body;
+        MediaType mediaType;
+        if ("ndjson".equalsIgnoreCase(format)) {
+            body = outputStream -> taskExportService.exportNdjson(userId, outputStream);
+            mediaType = MediaType.parseMediaType("application/x-ndjson");
+        } else if ("csv".equalsIgnoreCase(format)) {
+            body = outputStream -> taskExportService.exportCsv(userId, outputStream);
+            mediaType = new MediaType("text", "csv", StandardCharsets.UTF_8);
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"tasks-" + userId + "." + format.toLowerCase() + "\"")
+                .body(body);
+    }
 }
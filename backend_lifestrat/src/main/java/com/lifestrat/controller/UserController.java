@@ -1,4 +1,48 @@
 package com.lifestrat.controller;
 
+import com.lifestrat.config.AuthenticatedUser;
+import com.lifestrat.dto.UserPurgeProgress;
+import com.lifestrat.service.UserPurgeJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/users")
 public class UserController {
+
+    @Autowired
+    private UserPurgeJob userPurgeJob;
+
+    // Удаление аккаунта выполняется в фоне; прогресс доступен по адресу из заголовка Location
+    @DeleteMapping("/{id}")
+    public ResponseEntity<UserPurgeProgress> deleteUser(@PathVariable Long id,
+                                                        @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null || !id.equals(principal.userId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            UserPurgeProgress progress = userPurgeJob.startPurge(id);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/users/" + id + "/purge"))
+                    .body(progress);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{id}/purge")
+    public ResponseEntity<UserPurgeProgress> getPurgeProgress(@PathVariable Long id,
+                                                              @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null || !id.equals(principal.userId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return userPurgeJob.getProgress(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
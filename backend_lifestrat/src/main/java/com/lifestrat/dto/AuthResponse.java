@@ -1,4 +1,4 @@
-package com.lifestratproj.dto;
+package com.lifestrat.dto;
 
 public class AuthResponse {
     private String message;
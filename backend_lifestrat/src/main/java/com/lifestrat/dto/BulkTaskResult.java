@@ -0,0 +1,9 @@
+package com.lifestrat.dto;
+
+// Результат массовой операции: сколько задач запрошено и сколько фактически изменено
+// (чужие, несуществующие и уже находящиеся в нужном состоянии задачи не учитываются)
+public record BulkTaskResult(
+        int requested,
+        int affected
+) {
+}
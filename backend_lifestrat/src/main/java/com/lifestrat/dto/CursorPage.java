@@ -0,0 +1,28 @@
+package com.lifestrat.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor,
+        boolean hasNext
+) {
+    public static final int MAX_SIZE = 200;
+
+    // Проверить размер страницы, запрошенный клиентом
+    public static void validateSize(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SIZE);
+        }
+    }
+
+    // Собрать страницу из выборки размером size + 1: лишняя строка означает наличие следующей страницы
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, PageCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null, false);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)).encode(), true);
+    }
+}
@@ -1,6 +1,6 @@
-package com.lifestratproj.dto;
+package com.lifestrat.dto;
 
-import javax.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotBlank;
 
 public class LoginRequest {
     @NotBlank(message = "Username or email is required")
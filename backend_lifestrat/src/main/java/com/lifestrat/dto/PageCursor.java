@@ -0,0 +1,40 @@
+package com.lifestrat.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+// Позиция keyset-пагинации (дедлайн + id последней строки), передается клиенту как непрозрачный токен
+public record PageCursor(
+        LocalDate deadline,
+        Long id
+) {
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = (deadline != null ? deadline.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            String deadlinePart = raw.substring(0, separatorIndex);
+            LocalDate deadline = deadlinePart.isEmpty() ? null : LocalDate.parse(deadlinePart);
+            Long id = Long.valueOf(raw.substring(separatorIndex + 1));
+            return new PageCursor(deadline, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+
+    // Позиция в списке, упорядоченном по дедлайну (задачи, проекты): без дедлайна токен недействителен
+    public static PageCursor decodeWithDeadline(String token) {
+        PageCursor cursor = decode(token);
+        if (cursor.deadline() == null) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        return cursor;
+    }
+}
@@ -10,4 +10,12 @@ public record ProjectProgressDto(
     public ProjectProgressDto {
         progressPercentage = totalSteps > 0 ? (double) completedSteps / totalSteps * 100 : 0.0;
     }
-}
\ No newline at end of file
+
+    // Конструктор для агрегирующих JPQL-запросов (COUNT/SUM возвращают Long, SUM без строк - null)
+    public ProjectProgressDto(Long projectId, String title, Long totalSteps, Long completedSteps) {
+        this(projectId, title,
+                totalSteps != null ? totalSteps.intValue() : 0,
+                completedSteps != null ? completedSteps.intValue() : 0,
+                0.0);
+    }
+}
@@ -0,0 +1,53 @@
+package com.lifestrat.dto;
+
+import com.lifestrat.entity.Priority;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Набор фильтров по проектам пользователя; незаданные (null) поля не ограничивают выборку.
+// Границы дедлайна включительные, подстрока названия ищется без учета регистра
+public record ProjectQuery(
+        Long lifeSphereId,
+        String titleContains,
+        LocalDate deadlineFrom,
+        LocalDate deadlineTo,
+        Set<Priority> priorities
+) {
+    public static final int MAX_TITLE_LENGTH = 100;
+
+    public ProjectQuery {
+        if (titleContains != null && titleContains.isBlank()) {
+            titleContains = null;
+        }
+        if (titleContains != null && titleContains.length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("Title filter must not exceed " + MAX_TITLE_LENGTH + " characters");
+        }
+        if (deadlineFrom != null && deadlineTo != null && deadlineFrom.isAfter(deadlineTo)) {
+            throw new IllegalArgumentException("deadlineFrom must not be after deadlineTo");
+        }
+        priorities = priorities == null || priorities.isEmpty() ? null : Set.copyOf(priorities);
+    }
+
+    public static ProjectQuery all() {
+        return new ProjectQuery(null, null, null, null, null);
+    }
+
+    public static ProjectQuery byLifeSphere(Long lifeSphereId) {
+        return new ProjectQuery(lifeSphereId, null, null, null, null);
+    }
+
+    public static ProjectQuery byTitle(String titleContains) {
+        return new ProjectQuery(null, titleContains, null, null, null);
+    }
+
+    // Проекты с дедлайном строго раньше указанного дня
+    public static ProjectQuery overdue(LocalDate today) {
+        return new ProjectQuery(null, null, null, today.minusDays(1), null);
+    }
+
+    public static ProjectQuery highPriority() {
+        return new ProjectQuery(null, null, null, null, EnumSet.of(Priority.HIGH, Priority.CRITICAL));
+    }
+}
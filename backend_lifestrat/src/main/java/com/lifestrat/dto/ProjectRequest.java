@@ -1,4 +1,4 @@
-package com.lifestratproj.dto;
+package com.lifestrat.dto;
 
 import java.time.LocalDate;
 
@@ -0,0 +1,18 @@
+package com.lifestrat.dto;
+
+import com.lifestrat.entity.Priority;
+
+import java.time.LocalDate;
+
+// Проект в списках: колонки проекта без описания и название/цвет сферы из того же запроса (JOIN),
+// чтобы сериализация не обращалась к ленивым связям lifeSphere и user
+public record ProjectSummary(
+        Long id,
+        String title,
+        LocalDate deadline,
+        Priority priority,
+        Long lifeSphereId,
+        String lifeSphereName,
+        String lifeSphereColor
+) {
+}
@@ -1,6 +1,6 @@
-package com.lifestratproj.dto;
+package com.lifestrat.dto;
 
-import javax.validation.constraints.*;
+import jakarta.validation.constraints.*;
 
 public class RegisterRequest {
     @NotBlank(message = "Username is required")
@@ -0,0 +1,11 @@
+package com.lifestrat.dto;
+
+import java.util.List;
+
+public record RollupBackfillReport(
+        int usersProcessed,
+        long rowsWritten,
+        List<Long> failedUserIds,
+        long durationMillis
+) {
+}
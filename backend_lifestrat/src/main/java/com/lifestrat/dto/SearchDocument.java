@@ -0,0 +1,9 @@
+package com.lifestrat.dto;
+
+// Текстовые поля задачи или проекта для построения поискового индекса
+public record SearchDocument(
+        Long id,
+        String title,
+        String description
+) {
+}
@@ -0,0 +1,14 @@
+package com.lifestrat.dto;
+
+// Результат поиска: задача или проект с оценкой релевантности (больше - выше)
+public record SearchHit(
+        Type type,
+        Long id,
+        String title,
+        double score
+) {
+    public enum Type {
+        TASK,
+        PROJECT
+    }
+}
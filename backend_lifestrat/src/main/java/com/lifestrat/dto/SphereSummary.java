@@ -0,0 +1,9 @@
+package com.lifestrat.dto;
+
+// Сфера жизни в списках: только отображаемые поля, без связи с пользователем
+public record SphereSummary(
+        Long id,
+        String name,
+        String color
+) {
+}
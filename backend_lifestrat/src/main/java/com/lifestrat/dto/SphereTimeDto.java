@@ -0,0 +1,11 @@
+package com.lifestrat.dto;
+
+public record SphereTimeDto(
+        Long lifeSphereId,
+        String lifeSphereName,
+        Long totalMinutes
+) {
+    public SphereTimeDto {
+        totalMinutes = totalMinutes != null ? totalMinutes : 0L;
+    }
+}
@@ -0,0 +1,10 @@
+package com.lifestrat.dto;
+
+import java.util.List;
+
+public record StatsReconciliationReport(
+        int usersChecked,
+        List<Long> driftedUserIds,
+        long durationMillis
+) {
+}
@@ -0,0 +1,19 @@
+package com.lifestrat.dto;
+
+import com.lifestrat.entity.EnergyCost;
+import com.lifestrat.entity.Priority;
+import com.lifestrat.entity.TaskType;
+
+public record TaskBucketDto(
+        Priority priority,
+        TaskType type,
+        EnergyCost energyCost,
+        Boolean completed,
+        Long taskCount,
+        Long totalMinutes
+) {
+    public TaskBucketDto {
+        taskCount = taskCount != null ? taskCount : 0L;
+        totalMinutes = totalMinutes != null ? totalMinutes : 0L;
+    }
+}
@@ -0,0 +1,39 @@
+package com.lifestrat.dto;
+
+import com.lifestrat.entity.EnergyCost;
+import com.lifestrat.entity.Priority;
+import com.lifestrat.entity.Task;
+import com.lifestrat.entity.TaskType;
+
+import java.time.LocalDate;
+
+// Плоская строка экспорта задачи: связи передаются только идентификаторами, без загрузки связанных сущностей
+public record TaskExportRow(
+        Long id,
+        String title,
+        String description,
+        boolean completed,
+        LocalDate deadline,
+        Priority priority,
+        Integer estimatedTimeMinutes,
+        EnergyCost energyCost,
+        TaskType type,
+        Long projectId,
+        Long lifeSphereId
+) {
+    public static TaskExportRow from(Task task) {
+        return new TaskExportRow(
+                task.getId(),
+                task.getTitle(),
+                task.getDescription(),
+                task.isCompleted(),
+                task.getDeadline(),
+                task.getPriority(),
+                task.getEstimatedTimeMinutes(),
+                task.getEnergyCost(),
+                task.getType(),
+                task.getProject() != null ? task.getProject().getId() : null,
+                task.getLifeSphere() != null ? task.getLifeSphere().getId() : null
+        );
+    }
+}
@@ -0,0 +1,46 @@
+package com.lifestrat.dto;
+
+import java.time.LocalDate;
+
+public class TaskRequest {
+    private String title;
+    private String description;
+    private boolean completed;
+    private LocalDate deadline;
+    private String priority;
+    private Integer estimatedTimeMinutes;
+    private String energyCost;
+    private String type;
+    private Long projectId;
+    private Long lifeSphereId;
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public boolean isCompleted() { return completed; }
+    public void setCompleted(boolean completed) { this.completed = completed; }
+
+    public LocalDate getDeadline() { return deadline; }
+    public void setDeadline(LocalDate deadline) { this.deadline = deadline; }
+
+    public String getPriority() { return priority; }
+    public void setPriority(String priority) { this.priority = priority; }
+
+    public Integer getEstimatedTimeMinutes() { return estimatedTimeMinutes; }
+    public void setEstimatedTimeMinutes(Integer estimatedTimeMinutes) { this.estimatedTimeMinutes = estimatedTimeMinutes; }
+
+    public String getEnergyCost() { return energyCost; }
+    public void setEnergyCost(String energyCost) { this.energyCost = energyCost; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getProjectId() { return projectId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId; }
+
+    public Long getLifeSphereId() { return lifeSphereId; }
+    public void setLifeSphereId(Long lifeSphereId) { this.lifeSphereId = lifeSphereId; }
+}
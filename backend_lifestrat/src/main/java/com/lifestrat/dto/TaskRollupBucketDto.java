@@ -0,0 +1,24 @@
+package com.lifestrat.dto;
+
+import com.lifestrat.entity.EnergyCost;
+import com.lifestrat.entity.Priority;
+import com.lifestrat.entity.TaskType;
+
+import java.time.LocalDate;
+
+// Группа задач одного дня (дедлайна) и сферы с одинаковыми атрибутами - источник дневных агрегатов
+public record TaskRollupBucketDto(
+        Long lifeSphereId,
+        LocalDate day,
+        Priority priority,
+        TaskType type,
+        EnergyCost energyCost,
+        Boolean completed,
+        Long taskCount,
+        Long totalMinutes
+) {
+    public TaskRollupBucketDto {
+        taskCount = taskCount != null ? taskCount : 0L;
+        totalMinutes = totalMinutes != null ? totalMinutes : 0L;
+    }
+}
@@ -0,0 +1,25 @@
+package com.lifestrat.dto;
+
+import com.lifestrat.entity.EnergyCost;
+import com.lifestrat.entity.Priority;
+import com.lifestrat.entity.TaskType;
+
+import java.time.LocalDate;
+
+// Задача в списках: колонки задачи без описания, ID проекта (внешний ключ, без JOIN)
+// и название/цвет сферы из того же запроса
+public record TaskSummary(
+        Long id,
+        String title,
+        boolean completed,
+        LocalDate deadline,
+        Priority priority,
+        Integer estimatedTimeMinutes,
+        EnergyCost energyCost,
+        TaskType type,
+        Long projectId,
+        Long lifeSphereId,
+        String lifeSphereName,
+        String lifeSphereColor
+) {
+}
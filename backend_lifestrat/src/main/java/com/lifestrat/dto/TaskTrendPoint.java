@@ -0,0 +1,13 @@
+package com.lifestrat.dto;
+
+import com.lifestrat.entity.TaskCounters;
+
+import java.time.LocalDate;
+
+// Точка временного ряда: агрегаты задач с дедлайном в [periodStart, periodEnd]
+public record TaskTrendPoint(
+        LocalDate periodStart,
+        LocalDate periodEnd,
+        TaskCounters counters
+) {
+}
@@ -0,0 +1,20 @@
+package com.lifestrat.dto;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+// Результат однократного разбора JWT: subject, срок действия и все claims
+public record TokenDetails(
+        String subject,
+        Date expiration,
+        Claims claims
+) {
+    public static TokenDetails from(Claims claims) {
+        return new TokenDetails(claims.getSubject(), claims.getExpiration(), claims);
+    }
+
+    public boolean isExpired(Date now) {
+        return expiration != null && expiration.before(now);
+    }
+}
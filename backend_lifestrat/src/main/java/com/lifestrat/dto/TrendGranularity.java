@@ -0,0 +1,30 @@
+package com.lifestrat.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// Шаг временного ряда аналитики; недели начинаются с понедельника
+public enum TrendGranularity {
+    DAY,
+    WEEK,
+    MONTH;
+
+    // Первый день периода, в который попадает day
+    public LocalDate periodStart(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    // Первый день следующего периода
+    public LocalDate nextPeriodStart(LocalDate periodStart) {
+        return switch (this) {
+            case DAY -> periodStart.plusDays(1);
+            case WEEK -> periodStart.plusWeeks(1);
+            case MONTH -> periodStart.plusMonths(1);
+        };
+    }
+}
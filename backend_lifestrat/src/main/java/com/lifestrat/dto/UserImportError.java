@@ -0,0 +1,9 @@
+package com.lifestrat.dto;
+
+// Строка импорта, которая не была загружена, и причина
+public record UserImportError(
+        int rowNumber,
+        String username,
+        String error
+) {
+}
@@ -0,0 +1,21 @@
+package com.lifestrat.dto;
+
+import java.util.List;
+
+public record UserImportReport(
+        int totalRows,
+        int imported,
+        List<UserImportError> errors,
+        long hashingMillis,
+        long insertMillis,
+        long durationMillis,
+        double rowsPerSecond
+) {
+
+    public static UserImportReport of(int totalRows, int imported, List<UserImportError> errors,
+                                      long hashingMillis, long insertMillis, long durationMillis) {
+        double rowsPerSecond = durationMillis > 0 ? totalRows * 1000.0 / durationMillis : totalRows;
+        return new UserImportReport(totalRows, imported, errors, hashingMillis, insertMillis, durationMillis,
+                rowsPerSecond);
+    }
+}
@@ -0,0 +1,47 @@
+package com.lifestrat.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Строка импорта пользователей: username,email,password
+public record UserImportRow(
+        int rowNumber,
+        String username,
+        String email,
+        String password
+) {
+
+    // Разобрать строку CSV (RFC 4180: поля в кавычках, "" внутри кавычек); null - строка не из трех полей
+    public static UserImportRow parseCsvLine(int rowNumber, String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+
+        if (fields.size() != 3) {
+            return new UserImportRow(rowNumber, null, null, null);
+        }
+        return new UserImportRow(rowNumber, fields.get(0).trim(), fields.get(1).trim(), fields.get(2));
+    }
+}
@@ -0,0 +1,43 @@
+package com.lifestrat.dto;
+
+import java.time.LocalDateTime;
+
+// Состояние удаления аккаунта: сколько строк уже удалено на каждом этапе
+public record UserPurgeProgress(
+        Long userId,
+        Status status,
+        long tasksDeleted,
+        long projectsDeleted,
+        long lifeSpheresDeleted,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        String error
+) {
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+
+    public static UserPurgeProgress pending(Long userId) {
+        return new UserPurgeProgress(userId, Status.PENDING, 0, 0, 0, LocalDateTime.now(), null, null);
+    }
+
+    public boolean isActive() {
+        return status == Status.PENDING || status == Status.RUNNING;
+    }
+
+    public UserPurgeProgress running(long tasksDeleted, long projectsDeleted, long lifeSpheresDeleted) {
+        return new UserPurgeProgress(userId, Status.RUNNING, tasksDeleted, projectsDeleted, lifeSpheresDeleted,
+                startedAt, null, null);
+    }
+
+    public UserPurgeProgress completed() {
+        return new UserPurgeProgress(userId, Status.COMPLETED, tasksDeleted, projectsDeleted, lifeSpheresDeleted,
+                startedAt, LocalDateTime.now(), null);
+    }
+
+    public UserPurgeProgress failed(String error) {
+        return new UserPurgeProgress(userId, Status.FAILED, tasksDeleted, projectsDeleted, lifeSpheresDeleted,
+                startedAt, LocalDateTime.now(), error);
+    }
+}
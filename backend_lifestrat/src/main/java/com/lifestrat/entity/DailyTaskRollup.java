@@ -0,0 +1,44 @@
+package com.lifestrat.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// Агрегаты задач пользователя за день (по дедлайну задачи) в одной сфере жизни.
+// Строки без задач не хранятся
+@Entity
+@Table(name = "daily_task_rollups", uniqueConstraints = {
+        // Одна строка на пользователя, день и сферу; индекс обслуживает выборку диапазона дней пользователя
+        @UniqueConstraint(name = "uk_daily_task_rollups_user_id_day_sphere",
+                columnNames = {"user_id", "rollup_day", "life_sphere_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyTaskRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_task_rollups_seq")
+    @SequenceGenerator(name = "daily_task_rollups_seq", sequenceName = "daily_task_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "rollup_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "life_sphere_id", nullable = false)
+    private Long lifeSphereId;
+
+    @Embedded
+    private TaskCounters counters = new TaskCounters();
+
+    public DailyTaskRollup(Long userId, LocalDate day, Long lifeSphereId) {
+        this.userId = userId;
+        this.day = day;
+        this.lifeSphereId = lifeSphereId;
+    }
+}
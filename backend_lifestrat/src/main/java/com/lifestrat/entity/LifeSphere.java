@@ -1,28 +1,51 @@
 package com.lifestrat.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import jakarta.persistence.*;
+import java.util.Locale;
 
 @Entity
-@Table(name = "life_spheres")
+@Table(name = "life_spheres", indexes = {
+        @Index(name = "idx_life_spheres_user_id_id", columnList = "user_id, id")
+}, uniqueConstraints = {
+        // Уникальность имени без учета регистра в пределах пользователя
+        @UniqueConstraint(name = LifeSphere.UK_USER_ID_NAME_KEY, columnNames = {"user_id", "name_key"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class LifeSphere {
 
+    public static final String UK_USER_ID_NAME_KEY = "uk_life_spheres_user_id_name_key";
+
+    // Пул идентификаторов последовательности: сферы новых пользователей вставляются JDBC batch-ами
+    // (миграция существующей БД: db/id-sequences-postgresql.sql)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "life_spheres_seq")
+    @SequenceGenerator(name = "life_spheres_seq", sequenceName = "life_spheres_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 50)
     private String name;
 
+    // Имя в нижнем регистре: переносимая замена функционального индекса по lower(name)
+    @JsonIgnore
+    @Column(name = "name_key", nullable = false, length = 50)
+    private String nameKey;
+
     @Column(nullable = false, length = 7) // #FFFFFF format
     private String color;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        nameKey = name != null ? name.toLowerCase(Locale.ROOT) : null;
+    }
 }
\ No newline at end of file
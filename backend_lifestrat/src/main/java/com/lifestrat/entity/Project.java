@@ -1,18 +1,31 @@
 package com.lifestrat.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import jakarta.persistence.*;
 import java.time.LocalDate;
+import java.util.Locale;
 
 @Entity
-@Table(name = "projects")
+@Table(name = "projects", indexes = {
+        @Index(name = "idx_projects_user_id_id", columnList = "user_id, id"),
+        @Index(name = "idx_projects_user_id_deadline_id", columnList = "user_id, deadline, id"),
+        @Index(name = "idx_projects_user_id_life_sphere_id_deadline", columnList = "user_id, life_sphere_id, deadline, id"),
+        @Index(name = "idx_projects_user_id_priority_deadline", columnList = "user_id, priority, deadline, id"),
+        @Index(name = "idx_projects_life_sphere_id", columnList = "life_sphere_id")
+}, uniqueConstraints = {
+        // Уникальность названия без учета регистра в пределах пользователя
+        @UniqueConstraint(name = Project.UK_USER_ID_TITLE_KEY, columnNames = {"user_id", "title_key"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Project {
 
+    public static final String UK_USER_ID_TITLE_KEY = "uk_projects_user_id_title_key";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -20,6 +33,11 @@ public class Project {
     @Column(nullable = false, length = 100)
     private String title;
 
+    // Название в нижнем регистре: переносимая замена функционального индекса по lower(title)
+    @JsonIgnore
+    @Column(name = "title_key", nullable = false, length = 100)
+    private String titleKey;
+
     @Column(columnDefinition = "TEXT")
     private String description;
 
@@ -37,4 +55,10 @@ public class Project {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        titleKey = title != null ? title.toLowerCase(Locale.ROOT) : null;
+    }
 }
\ No newline at end of file
@@ -7,14 +7,25 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_user_id_id", columnList = "user_id, id"),
+        @Index(name = "idx_tasks_user_id_type", columnList = "user_id, type"),
+        @Index(name = "idx_tasks_user_id_deadline_id", columnList = "user_id, deadline, id"),
+        @Index(name = "idx_tasks_user_id_completed_deadline", columnList = "user_id, completed, deadline"),
+        @Index(name = "idx_tasks_project_id_type_completed", columnList = "project_id, type, completed"),
+        @Index(name = "idx_tasks_life_sphere_id", columnList = "life_sphere_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Task {
 
+    // Пул из 50 идентификаторов за одно обращение к последовательности; в отличие от IDENTITY
+    // не требует немедленного INSERT и позволяет Hibernate группировать вставки в JDBC batch.
+    // Существующей БД нужна последовательность выше max(id): db/id-sequences-postgresql.sql
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -0,0 +1,136 @@
+package com.lifestrat.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+public class TaskCounters {
+
+    @Column(name = "planned_minutes", nullable = false)
+    private long plannedMinutes;
+
+    @Column(name = "completed_minutes", nullable = false)
+    private long completedMinutes;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    // Распределение по приоритетам
+    @Column(name = "priority_low_count", nullable = false)
+    private long priorityLowCount;
+
+    @Column(name = "priority_medium_count", nullable = false)
+    private long priorityMediumCount;
+
+    @Column(name = "priority_high_count", nullable = false)
+    private long priorityHighCount;
+
+    @Column(name = "priority_critical_count", nullable = false)
+    private long priorityCriticalCount;
+
+    // Распределение по типам задач
+    @Column(name = "type_step_count", nullable = false)
+    private long typeStepCount;
+
+    @Column(name = "type_action_count", nullable = false)
+    private long typeActionCount;
+
+    @Column(name = "type_ritual_count", nullable = false)
+    private long typeRitualCount;
+
+    // Распределение по затратам энергии
+    @Column(name = "energy_low_count", nullable = false)
+    private long energyLowCount;
+
+    @Column(name = "energy_medium_count", nullable = false)
+    private long energyMediumCount;
+
+    @Column(name = "energy_high_count", nullable = false)
+    private long energyHighCount;
+
+    // Учесть задачу (sign = 1) или исключить ее из счетчиков (sign = -1)
+    public void apply(Task task, int sign) {
+        apply(task.getPriority(), task.getType(), task.getEnergyCost(), task.isCompleted(),
+                sign, (long) sign * task.getEstimatedTimeMinutes());
+    }
+
+    // Добавить группу из count задач с одинаковыми атрибутами и суммарным временем minutes
+    public void apply(Priority priority, TaskType type, EnergyCost energyCost, boolean completed,
+                      long count, long minutes) {
+        plannedMinutes += minutes;
+        taskCount += count;
+        if (completed) {
+            completedMinutes += minutes;
+            completedCount += count;
+        }
+
+        switch (priority) {
+            case LOW -> priorityLowCount += count;
+            case MEDIUM -> priorityMediumCount += count;
+            case HIGH -> priorityHighCount += count;
+            case CRITICAL -> priorityCriticalCount += count;
+        }
+
+        switch (type) {
+            case STEP -> typeStepCount += count;
+            case ACTION -> typeActionCount += count;
+            case RITUAL -> typeRitualCount += count;
+        }
+
+        switch (energyCost) {
+            case LOW -> energyLowCount += count;
+            case MEDIUM -> energyMediumCount += count;
+            case HIGH -> energyHighCount += count;
+        }
+    }
+
+    // Прибавить счетчики другой группы задач (сложение дневных агрегатов в недели и месяцы)
+    public void add(TaskCounters other) {
+        plannedMinutes += other.plannedMinutes;
+        completedMinutes += other.completedMinutes;
+        taskCount += other.taskCount;
+        completedCount += other.completedCount;
+        priorityLowCount += other.priorityLowCount;
+        priorityMediumCount += other.priorityMediumCount;
+        priorityHighCount += other.priorityHighCount;
+        priorityCriticalCount += other.priorityCriticalCount;
+        typeStepCount += other.typeStepCount;
+        typeActionCount += other.typeActionCount;
+        typeRitualCount += other.typeRitualCount;
+        energyLowCount += other.energyLowCount;
+        energyMediumCount += other.energyMediumCount;
+        energyHighCount += other.energyHighCount;
+    }
+
+    public long getPriorityCount(Priority priority) {
+        return switch (priority) {
+            case LOW -> priorityLowCount;
+            case MEDIUM -> priorityMediumCount;
+            case HIGH -> priorityHighCount;
+            case CRITICAL -> priorityCriticalCount;
+        };
+    }
+
+    public long getTypeCount(TaskType type) {
+        return switch (type) {
+            case STEP -> typeStepCount;
+            case ACTION -> typeActionCount;
+            case RITUAL -> typeRitualCount;
+        };
+    }
+
+    public long getEnergyCostCount(EnergyCost energyCost) {
+        return switch (energyCost) {
+            case LOW -> energyLowCount;
+            case MEDIUM -> energyMediumCount;
+            case HIGH -> energyHighCount;
+        };
+    }
+}
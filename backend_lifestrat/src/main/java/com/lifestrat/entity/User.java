@@ -4,25 +4,35 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.UK_USERNAME, columnNames = "username"),
+        @UniqueConstraint(name = User.UK_EMAIL, columnNames = "email")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
 
+    public static final String UK_USERNAME = "uk_users_username";
+    public static final String UK_EMAIL = "uk_users_email";
+
+    // Пул идентификаторов последовательности: при импорте пользователи вставляются JDBC batch-ами
+    // (миграция существующей БД: db/id-sequences-postgresql.sql)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
-    @Column(unique = true, nullable = false, length = 50)
+    @Column(nullable = false, length = 50)
     private String username;
 
-    @Column(unique = true, nullable = false, length = 100)
+    @Column(nullable = false, length = 100)
     private String email;
 
     @Column(nullable = false)
@@ -31,14 +41,20 @@ public class User {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
-    // Связи
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    // Аккаунт заблокирован на время удаления: запросы с его токенами не аутентифицируются
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean disabled = false;
+
+    // Связи только для навигации: без каскада, удаление аккаунта выполняется
+    // пакетными DELETE в UserPurgeService, а не загрузкой и удалением каждой дочерней сущности
+    @OneToMany(mappedBy = "user", fetch = FetchType.LAZY)
     private List<LifeSphere> lifeSpheres = new ArrayList<>();
 
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OneToMany(mappedBy = "user", fetch = FetchType.LAZY)
     private List<Project> projects = new ArrayList<>();
 
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OneToMany(mappedBy = "user", fetch = FetchType.LAZY)
     private List<Task> tasks = new ArrayList<>();
 
     @PrePersist
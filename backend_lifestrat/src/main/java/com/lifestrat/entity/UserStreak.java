@@ -0,0 +1,43 @@
+package com.lifestrat.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "user_streaks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStreak {
+
+    public static final int MAX_BITMAP_BYTES = 8192;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Длина серии, заканчивающейся в lastCompletionDay
+    @Column(name = "current_streak", nullable = false)
+    private int currentStreak;
+
+    @Column(name = "max_streak", nullable = false)
+    private int maxStreak;
+
+    @Column(name = "last_completion_day")
+    private LocalDate lastCompletionDay;
+
+    // День, которому соответствует нулевой бит карты
+    @Column(name = "bitmap_origin")
+    private LocalDate bitmapOrigin;
+
+    // Битовая карта дней с выполненными задачами (BitSet.toByteArray), ~22 года на 1 КБ, не больше ~179 лет
+    @Column(name = "day_bitmap", nullable = false, length = MAX_BITMAP_BYTES)
+    private byte[] dayBitmap = new byte[0];
+
+    public UserStreak(Long userId) {
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,30 @@
+package com.lifestrat.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_task_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserTaskStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Embedded
+    private TaskCounters counters = new TaskCounters();
+
+    // Время последней сверки счетчиков с таблицей задач
+    @Column(name = "reconciled_at")
+    private LocalDateTime reconciledAt;
+
+    public UserTaskStats(Long userId) {
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,36 @@
+package com.lifestrat.repository;
+
+import com.lifestrat.entity.DailyTaskRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DailyTaskRollupRepository extends JpaRepository<DailyTaskRollup, Long> {
+
+    List<DailyTaskRollup> findAllByUserIdAndDayIn(Long userId, Collection<LocalDate> days);
+
+    // Дневные агрегаты пользователя за диапазон дней [from, to] по всем сферам
+    @Query("SELECT r FROM DailyTaskRollup r WHERE r.userId = :userId AND r.day BETWEEN :from AND :to " +
+            "ORDER BY r.day")
+    List<DailyTaskRollup> findRange(@Param("userId") Long userId,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+
+    // Дневные агрегаты пользователя за диапазон дней [from, to] в одной сфере
+    @Query("SELECT r FROM DailyTaskRollup r WHERE r.userId = :userId AND r.day BETWEEN :from AND :to " +
+            "AND r.lifeSphereId = :lifeSphereId ORDER BY r.day")
+    List<DailyTaskRollup> findRangeByLifeSphere(@Param("userId") Long userId,
+                                                @Param("from") LocalDate from,
+                                                @Param("to") LocalDate to,
+                                                @Param("lifeSphereId") Long lifeSphereId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM DailyTaskRollup r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
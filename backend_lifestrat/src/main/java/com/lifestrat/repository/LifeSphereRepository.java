@@ -1,12 +1,46 @@
 package com.lifestrat.repository;
 
+import com.lifestrat.dto.SphereSummary;
 import com.lifestrat.entity.LifeSphere;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
 @Repository
 public interface LifeSphereRepository extends JpaRepository<LifeSphere, Long> {
 
-    List<LifeSphere> findAllByUserId(Long userId);
-}
\ No newline at end of file
+    // Сравнение по внешнему ключу user_id без JOIN users (производный запрос дает tableScan)
+    @Query("SELECT ls FROM LifeSphere ls WHERE ls.user.id = :userId")
+    List<LifeSphere> findAllByUserId(@Param("userId") Long userId);
+
+    Optional<LifeSphere> findByIdAndUserId(Long id, Long userId);
+
+    boolean existsByUserIdAndNameKey(Long userId, String nameKey);
+
+    // Проверка занятости имени без учета регистра по уникальному индексу (user_id, name_key)
+    default boolean existsByUserIdAndNameIgnoreCase(Long userId, String name) {
+        return existsByUserIdAndNameKey(userId, name.toLowerCase(Locale.ROOT));
+    }
+
+    // Keyset-страница сфер пользователя в порядке id: только отображаемые колонки
+    @Query("SELECT new com.lifestrat.dto.SphereSummary(ls.id, ls.name, ls.color) FROM LifeSphere ls " +
+            "WHERE ls.user.id = :userId AND ls.id > :afterId ORDER BY ls.id")
+    List<SphereSummary> findByUserIdAndIdGreaterThanOrderByIdAsc(@Param("userId") Long userId,
+                                                                 @Param("afterId") Long afterId,
+                                                                 Pageable pageable);
+
+    // Очередная порция ID сфер пользователя для удаления аккаунта
+    @Query("SELECT ls.id FROM LifeSphere ls WHERE ls.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM LifeSphere ls WHERE ls.user.id = :userId AND ls.id IN :ids")
+    int deleteByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+}
@@ -1,12 +1,97 @@
 package com.lifestrat.repository;
 
+import com.lifestrat.dto.ProjectProgressDto;
+import com.lifestrat.dto.ProjectSummary;
+import com.lifestrat.dto.SearchDocument;
 import com.lifestrat.entity.Project;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface ProjectRepository extends JpaRepository<Project, Long> {
+public interface ProjectRepository extends JpaRepository<Project, Long>, JpaSpecificationExecutor<Project>,
+        ProjectSummaryQueries {
+
+    // Колонки проекта для списков и сфера через JOIN по первичному ключу
+    String PROJECT_SUMMARY_SELECT =
+            "SELECT new com.lifestrat.dto.ProjectSummary(p.id, p.title, p.deadline, p.priority, " +
+            "ls.id, ls.name, ls.color) " +
+            "FROM Project p JOIN p.lifeSphere ls ";
+
+    String PROJECT_PROGRESS_SELECT =
+            "SELECT new com.lifestrat.dto.ProjectProgressDto(p.id, p.title, COUNT(t.id), " +
+            "SUM(CASE WHEN t.completed = true THEN 1L ELSE 0L END)) " +
+            "FROM Project p LEFT JOIN Task t ON t.project = p AND t.type = com.lifestrat.entity.TaskType.STEP " +
+            "WHERE p.user.id = :userId " +
+            "GROUP BY p.id, p.title ";
+
+    // Сравнение по внешнему ключу user_id без JOIN users (производный запрос дает tableScan)
+    @Query("SELECT p FROM Project p WHERE p.user.id = :userId")
+    List<Project> findAllByUserId(@Param("userId") Long userId);
+
+    Optional<Project> findByIdAndUserId(Long id, Long userId);
+
+    boolean existsByUserIdAndTitleKey(Long userId, String titleKey);
+
+    // Проверка занятости названия без учета регистра по уникальному индексу (user_id, title_key)
+    default boolean existsByUserIdAndTitleIgnoreCase(Long userId, String title) {
+        return existsByUserIdAndTitleKey(userId, title.toLowerCase(Locale.ROOT));
+    }
+
+    List<Project> findAllByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    // Текстовые поля проектов пользователя для построения поискового индекса; вызывать внутри транзакции
+    @Query("SELECT new com.lifestrat.dto.SearchDocument(p.id, p.title, p.description) " +
+            "FROM Project p WHERE p.user.id = :userId")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<SearchDocument> streamSearchDocumentsByUserId(@Param("userId") Long userId);
+
+    // Первая страница проектов пользователя в порядке (deadline, id): краткие представления со сферой
+    @Query(PROJECT_SUMMARY_SELECT + "WHERE p.user.id = :userId ORDER BY p.deadline, p.id")
+    List<ProjectSummary> findPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Следующая страница после позиции (deadline, id)
+    @Query(PROJECT_SUMMARY_SELECT + "WHERE p.user.id = :userId AND p.deadline >= :deadline " +
+            "AND (p.deadline > :deadline OR p.id > :id) ORDER BY p.deadline, p.id")
+    List<ProjectSummary> findPageByUserIdAfter(@Param("userId") Long userId,
+                                               @Param("deadline") LocalDate deadline,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+
+    // Прогресс всех проектов пользователя (шаги STEP) одним запросом
+    @Query(PROJECT_PROGRESS_SELECT + "ORDER BY p.id")
+    List<ProjectProgressDto> findProjectProgressByUserId(@Param("userId") Long userId);
+
+    // Постраничный вариант прогресса проектов; сортировка задается через Pageable (по умолчанию по id)
+    @Query(value = PROJECT_PROGRESS_SELECT,
+            countQuery = "SELECT COUNT(p) FROM Project p WHERE p.user.id = :userId")
+    Page<ProjectProgressDto> findProjectProgressByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Потоковый вариант прогресса проектов; вызывать внутри транзакции и закрывать поток
+    @Query(PROJECT_PROGRESS_SELECT + "ORDER BY p.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "256"))
+    Stream<ProjectProgressDto> streamProjectProgressByUserId(@Param("userId") Long userId);
+
+    // Очередная порция ID проектов пользователя для удаления аккаунта
+    @Query("SELECT p.id FROM Project p WHERE p.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
 
-    List<Project> findAllByUserId(Long userId);
-}
\ No newline at end of file
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Project p WHERE p.user.id = :userId AND p.id IN :ids")
+    int deleteByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,72 @@
+package com.lifestrat.repository;
+
+import com.lifestrat.dto.PageCursor;
+import com.lifestrat.dto.ProjectQuery;
+import com.lifestrat.entity.Project;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Условия выборки проектов для JpaSpecificationExecutor: любая комбинация фильтров ProjectQuery
+// собирается в один SQL-запрос с предикатами по индексируемым колонкам
+public final class ProjectSpecifications {
+
+    // Порядок выдачи совпадает с индексом (user_id, deadline, id) и позицией курсора
+    public static final Sort DEADLINE_ORDER = Sort.by("deadline", "id");
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private ProjectSpecifications() {
+    }
+
+    // Все условия запроса в пределах пользователя
+    public static Specification<Project> matching(Long userId, ProjectQuery query) {
+        List<Specification<Project>> conditions = new ArrayList<>();
+        conditions.add(belongsTo(userId));
+        if (query.lifeSphereId() != null) {
+            conditions.add(inLifeSphere(query.lifeSphereId()));
+        }
+        if (query.titleContains() != null) {
+            conditions.add(titleContains(query.titleContains()));
+        }
+        if (query.deadlineFrom() != null) {
+            conditions.add((root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("deadline"), query.deadlineFrom()));
+        }
+        if (query.deadlineTo() != null) {
+            conditions.add((root, cq, cb) -> cb.lessThanOrEqualTo(root.get("deadline"), query.deadlineTo()));
+        }
+        if (query.priorities() != null) {
+            conditions.add((root, cq, cb) -> root.get("priority").in(query.priorities()));
+        }
+        return Specification.allOf(conditions);
+    }
+
+    public static Specification<Project> belongsTo(Long userId) {
+        return (root, cq, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Project> inLifeSphere(Long lifeSphereId) {
+        return (root, cq, cb) -> cb.equal(root.get("lifeSphere").get("id"), lifeSphereId);
+    }
+
+    // Поиск подстроки по title_key (название в нижнем регистре), без lower() над колонкой
+    public static Specification<Project> titleContains(String title) {
+        String pattern = "%" + escapeLike(title.toLowerCase(Locale.ROOT)) + "%";
+        return (root, cq, cb) -> cb.like(root.get("titleKey"), pattern, LIKE_ESCAPE);
+    }
+
+    // Строки после позиции курсора в порядке DEADLINE_ORDER
+    public static Specification<Project> after(PageCursor position) {
+        return (root, cq, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("deadline"), position.deadline()),
+                cb.or(cb.greaterThan(root.get("deadline"), position.deadline()),
+                        cb.greaterThan(root.get("id"), position.id())));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
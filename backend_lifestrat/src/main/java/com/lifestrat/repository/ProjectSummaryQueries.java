@@ -0,0 +1,14 @@
+package com.lifestrat.repository;
+
+import com.lifestrat.dto.ProjectSummary;
+import com.lifestrat.entity.Project;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// Запросы проектов с проекцией в ProjectSummary по произвольным условиям (реализация - ProjectSummaryQueriesImpl)
+public interface ProjectSummaryQueries {
+
+    // Страница проектов по условию (см. ProjectSpecifications) в порядке (deadline, id) без запроса COUNT
+    List<ProjectSummary> findPage(Specification<Project> specification, int limit);
+}
@@ -0,0 +1,54 @@
+package com.lifestrat.repository;
+
+import com.lifestrat.dto.ProjectSummary;
+import com.lifestrat.entity.LifeSphere;
+import com.lifestrat.entity.Project;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * Фрагмент ProjectRepository: условия ProjectSpecifications применяются к запросу с конструктором
+ * ProjectSummary вместо выборки сущностей. JpaSpecificationExecutor умеет проецировать только уже
+ * загруженные сущности, поэтому запрос собирается через Criteria API: выбираются только колонки списка
+ * и название/цвет сферы через JOIN, без ленивых прокси lifeSphere и user.
+ */
+public class ProjectSummaryQueriesImpl implements ProjectSummaryQueries {
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    public ProjectSummaryQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ProjectSummary> findPage(Specification<Project> specification, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProjectSummary> query = cb.createQuery(ProjectSummary.class);
+        Root<Project> project = query.from(Project.class);
+        Join<Project, LifeSphere> lifeSphere = project.join("lifeSphere");
+
+        query.select(cb.construct(ProjectSummary.class,
+                project.get("id"), project.get("title"), project.get("deadline"), project.get("priority"),
+                lifeSphere.get("id"), lifeSphere.get("name"), lifeSphere.get("color")));
+
+        Predicate predicate = specification.toPredicate(project, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(ProjectSpecifications.DEADLINE_ORDER, project, cb));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
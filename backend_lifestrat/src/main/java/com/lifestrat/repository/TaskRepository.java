@@ -1,19 +1,173 @@
 package com.lifestrat.repository;
 
+import com.lifestrat.dto.SearchDocument;
+import com.lifestrat.dto.SphereTimeDto;
+import com.lifestrat.dto.TaskBucketDto;
+import com.lifestrat.dto.TaskRollupBucketDto;
+import com.lifestrat.dto.TaskSummary;
 import com.lifestrat.entity.Task;
 import com.lifestrat.entity.TaskType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
-    List<Task> findAllByUserId(Long userId);
+    // Колонки задачи для списков и сфера через JOIN по первичному ключу; project.id читается из внешнего ключа
+    String TASK_SUMMARY_SELECT =
+            "SELECT new com.lifestrat.dto.TaskSummary(t.id, t.title, t.completed, t.deadline, t.priority, " +
+            "t.estimatedTimeMinutes, t.energyCost, t.type, t.project.id, ls.id, ls.name, ls.color) " +
+            "FROM Task t JOIN t.lifeSphere ls ";
+
+    // Явные запросы по внешним ключам: производные findAllByUser... дают LEFT JOIN users и план с tableScan
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId")
+    List<Task> findAllByUserId(@Param("userId") Long userId);
+
+    Optional<Task> findByIdAndUserId(Long id, Long userId);
+
+    // Потоковое чтение всех задач пользователя для экспорта; вызывать внутри транзакции и закрывать поток.
+    // Сущности загружаются только для чтения (без снимков для dirty checking)
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId ORDER BY t.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Task> streamAllByUserId(@Param("userId") Long userId);
+
+    // Текстовые поля задач пользователя для построения поискового индекса; вызывать внутри транзакции
+    @Query("SELECT new com.lifestrat.dto.SearchDocument(t.id, t.title, t.description) " +
+            "FROM Task t WHERE t.user.id = :userId")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<SearchDocument> streamSearchDocumentsByUserId(@Param("userId") Long userId);
+
+    // Первая страница задач пользователя в порядке (deadline, id): краткие представления со сферой
+    @Query(TASK_SUMMARY_SELECT + "WHERE t.user.id = :userId ORDER BY t.deadline, t.id")
+    List<TaskSummary> findPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Следующая страница после позиции (deadline, id); смещение не используется, глубина курсора не влияет на цену
+    @Query(TASK_SUMMARY_SELECT + "WHERE t.user.id = :userId AND t.deadline >= :deadline " +
+            "AND (t.deadline > :deadline OR t.id > :id) ORDER BY t.deadline, t.id")
+    List<TaskSummary> findPageByUserIdAfter(@Param("userId") Long userId,
+                                            @Param("deadline") LocalDate deadline,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.type = :type")
+    List<Task> findAllByUserIdAndType(@Param("userId") Long userId, @Param("type") TaskType type);
+
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId")
+    List<Task> findAllByProjectId(@Param("projectId") Long projectId);
+
+    @Query("SELECT t FROM Task t WHERE t.lifeSphere.id = :lifeSphereId")
+    List<Task> findAllByLifeSphereId(@Param("lifeSphereId") Long lifeSphereId);
+
+    // Суммарное время задач по сферам жизни с фильтром по статусу и окну дедлайнов [from, to]
+    @Query("SELECT new com.lifestrat.dto.SphereTimeDto(ls.id, ls.name, SUM(t.estimatedTimeMinutes)) " +
+            "FROM Task t JOIN t.lifeSphere ls " +
+            "WHERE t.user.id = :userId AND t.completed = :completed " +
+            "AND t.deadline >= :from AND t.deadline <= :to " +
+            "GROUP BY ls.id, ls.name")
+    List<SphereTimeDto> sumEstimatedMinutesBySphere(@Param("userId") Long userId,
+                                                    @Param("completed") boolean completed,
+                                                    @Param("from") LocalDate from,
+                                                    @Param("to") LocalDate to);
+
+    // Суммарное время выполненных задач по сферам жизни начиная с даты from (без верхней границы)
+    @Query("SELECT new com.lifestrat.dto.SphereTimeDto(ls.id, ls.name, SUM(t.estimatedTimeMinutes)) " +
+            "FROM Task t JOIN t.lifeSphere ls " +
+            "WHERE t.user.id = :userId AND t.completed = true AND t.deadline >= :from " +
+            "GROUP BY ls.id, ls.name")
+    List<SphereTimeDto> sumCompletedMinutesBySphereSince(@Param("userId") Long userId,
+                                                         @Param("from") LocalDate from);
+
+    boolean existsByUserIdAndCompletedTrueAndDeadline(Long userId, LocalDate deadline);
+
+    // Уникальные дни (дедлайны) выполненных задач пользователя в хронологическом порядке
+    @Query("SELECT DISTINCT t.deadline FROM Task t " +
+            "WHERE t.user.id = :userId AND t.completed = true ORDER BY t.deadline")
+    List<LocalDate> findCompletedDaysByUserId(@Param("userId") Long userId);
+
+    // Количество задач и суммарное время в разрезе приоритета, типа, энергии и статуса (не более 72 строк)
+    @Query("SELECT new com.lifestrat.dto.TaskBucketDto(t.priority, t.type, t.energyCost, t.completed, " +
+            "COUNT(t), SUM(t.estimatedTimeMinutes)) " +
+            "FROM Task t WHERE t.user.id = :userId " +
+            "GROUP BY t.priority, t.type, t.energyCost, t.completed")
+    List<TaskBucketDto> aggregateBucketsByUserId(@Param("userId") Long userId);
+
+    // Те же группы только для задач из списка ids (состояние до массовой операции)
+    @Query("SELECT new com.lifestrat.dto.TaskBucketDto(t.priority, t.type, t.energyCost, t.completed, " +
+            "COUNT(t), SUM(t.estimatedTimeMinutes)) " +
+            "FROM Task t WHERE t.user.id = :userId AND t.id IN :ids " +
+            "GROUP BY t.priority, t.type, t.energyCost, t.completed")
+    List<TaskBucketDto> aggregateBucketsByUserIdAndIdIn(@Param("userId") Long userId,
+                                                        @Param("ids") Collection<Long> ids);
+
+    // Уникальные дедлайны задач из списка ids с заданным статусом
+    @Query("SELECT DISTINCT t.deadline FROM Task t " +
+            "WHERE t.user.id = :userId AND t.id IN :ids AND t.completed = :completed")
+    List<LocalDate> findDeadlinesByUserIdAndIdIn(@Param("userId") Long userId,
+                                                 @Param("ids") Collection<Long> ids,
+                                                 @Param("completed") boolean completed);
+
+    // Уникальные дедлайны задач из списка ids независимо от статуса
+    @Query("SELECT DISTINCT t.deadline FROM Task t WHERE t.user.id = :userId AND t.id IN :ids")
+    List<LocalDate> findAllDeadlinesByUserIdAndIdIn(@Param("userId") Long userId,
+                                                    @Param("ids") Collection<Long> ids);
+
+    // Какие из дней days все еще содержат выполненные задачи пользователя
+    @Query("SELECT DISTINCT t.deadline FROM Task t " +
+            "WHERE t.user.id = :userId AND t.completed = true AND t.deadline IN :days")
+    List<LocalDate> findCompletedDaysByUserIdAndDeadlineIn(@Param("userId") Long userId,
+                                                           @Param("days") Collection<LocalDate> days);
+
+    // Группы задач пользователя по сфере, дню (дедлайну) и атрибутам - для построения дневных агрегатов
+    @Query("SELECT new com.lifestrat.dto.TaskRollupBucketDto(t.lifeSphere.id, t.deadline, t.priority, t.type, " +
+            "t.energyCost, t.completed, COUNT(t), SUM(t.estimatedTimeMinutes)) " +
+            "FROM Task t WHERE t.user.id = :userId " +
+            "GROUP BY t.lifeSphere.id, t.deadline, t.priority, t.type, t.energyCost, t.completed")
+    List<TaskRollupBucketDto> aggregateRollupBucketsByUserId(@Param("userId") Long userId);
+
+    // Те же группы только за дни days (пересчет дней, затронутых изменением задач)
+    @Query("SELECT new com.lifestrat.dto.TaskRollupBucketDto(t.lifeSphere.id, t.deadline, t.priority, t.type, " +
+            "t.energyCost, t.completed, COUNT(t), SUM(t.estimatedTimeMinutes)) " +
+            "FROM Task t WHERE t.user.id = :userId AND t.deadline IN :days " +
+            "GROUP BY t.lifeSphere.id, t.deadline, t.priority, t.type, t.energyCost, t.completed")
+    List<TaskRollupBucketDto> aggregateRollupBucketsByUserIdAndDeadlineIn(@Param("userId") Long userId,
+                                                                         @Param("days") Collection<LocalDate> days);
+
+    // Массовые операции одним оператором; контекст персистентности сбрасывается до и очищается после,
+    // чтобы загруженные ранее сущности не расходились с таблицей
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.completed = true " +
+            "WHERE t.user.id = :userId AND t.id IN :ids AND t.completed = false")
+    int markCompletedByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 
-    List<Task> findAllByUserIdAndType(Long userId, TaskType type);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.deadline = t.deadline + (:days) day " +
+            "WHERE t.user.id = :userId AND t.id IN :ids")
+    int shiftDeadlineByUserIdAndIdIn(@Param("userId") Long userId,
+                                     @Param("ids") Collection<Long> ids,
+                                     @Param("days") int days);
 
-    List<Task> findAllByProjectId(Long projectId);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.user.id = :userId AND t.id IN :ids")
+    int deleteByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 
-    List<Task> findAllByLifeSphereId(Long lifeSphereId);
-}
\ No newline at end of file
+    // Очередная порция ID задач пользователя для удаления аккаунта
+    @Query("SELECT t.id FROM Task t WHERE t.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+}
@@ -1,8 +1,16 @@
 package com.lifestrat.repository;
 
 import com.lifestrat.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +23,31 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username);
 
     Boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Заблокировать аккаунт перед удалением
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.disabled = true WHERE u.id = :id")
+    int disableById(@Param("id") Long id);
+
+    // Удалить строку пользователя без каскада по коллекциям; дочерние данные должны быть удалены заранее
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteRowById(@Param("id") Long id);
+
+    // Какие из имен уже заняты (проверка пачки импорта одним запросом)
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    // Какие из email уже заняты
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Заблокировать строку пользователя: сериализует пересчет его производных данных параллельными транзакциями
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findForUpdate(@Param("id") Long id);
+
+    // Идентификаторы всех пользователей (keyset-постранично)
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterUserId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterUserId") Long afterUserId, Pageable pageable);
+}
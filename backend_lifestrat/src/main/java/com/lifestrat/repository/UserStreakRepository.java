@@ -0,0 +1,24 @@
+package com.lifestrat.repository;
+
+import com.lifestrat.entity.UserStreak;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface UserStreakRepository extends JpaRepository<UserStreak, Long> {
+
+    // Загрузить состояние серий с блокировкой строки для инкрементального обновления
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserStreak s WHERE s.userId = :userId")
+    Optional<UserStreak> findForUpdate(@Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM UserStreak s WHERE s.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,30 @@
+package com.lifestrat.repository;
+
+import com.lifestrat.entity.UserTaskStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserTaskStatsRepository extends JpaRepository<UserTaskStats, Long> {
+
+    // Загрузить счетчики с блокировкой строки для инкрементального обновления
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserTaskStats s WHERE s.userId = :userId")
+    Optional<UserTaskStats> findForUpdate(@Param("userId") Long userId);
+
+    // Идентификаторы пользователей с материализованными счетчиками (keyset-постранично)
+    @Query("SELECT s.userId FROM UserTaskStats s WHERE s.userId > :afterUserId ORDER BY s.userId")
+    List<Long> findUserIdsAfter(@Param("afterUserId") Long afterUserId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM UserTaskStats s WHERE s.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,120 +1,159 @@
 package com.lifestrat.service;
 
 import com.lifestrat.dto.ProjectProgressDto;
-import com.lifestrat.entity.Task;
-import com.lifestrat.entity.TaskType;
-import com.lifestrat.entity.Project;
-import com.lifestrat.entity.LifeSphere;
+import com.lifestrat.dto.SphereTimeDto;
+import com.lifestrat.dto.TaskTrendPoint;
+import com.lifestrat.dto.TrendGranularity;
+import com.lifestrat.entity.DailyTaskRollup;
+import com.lifestrat.entity.Priority;
+import com.lifestrat.entity.TaskCounters;
+import com.lifestrat.entity.UserStreak;
+import com.lifestrat.repository.DailyTaskRollupRepository;
 import com.lifestrat.repository.TaskRepository;
 import com.lifestrat.repository.ProjectRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 @Slf4j
 public class AnalyticsService {
 
+    public static final int MAX_TREND_POINTS = 366;
+    public static final int DEFAULT_TREND_POINTS = 12;
+
     private final TaskRepository taskRepository;
     private final ProjectRepository projectRepository;
+    private final StreakService streakService;
+    private final TaskStatsService taskStatsService;
+    private final DailyTaskRollupRepository dailyTaskRollupRepository;
+
+    @Value("${analytics.life-sphere-balance.window-days:30}")
+    private int balanceWindowDays = 30;
 
     @Autowired
-    public AnalyticsService(TaskRepository taskRepository, ProjectRepository projectRepository) {
+    public AnalyticsService(TaskRepository taskRepository, ProjectRepository projectRepository,
+                            StreakService streakService, TaskStatsService taskStatsService,
+                            DailyTaskRollupRepository dailyTaskRollupRepository) {
         this.taskRepository = taskRepository;
         this.projectRepository = projectRepository;
+        this.streakService = streakService;
+        this.taskStatsService = taskStatsService;
+        this.dailyTaskRollupRepository = dailyTaskRollupRepository;
     }
 
-    // Получить данные для радар-диаграммы баланса сфер жизни
+    // Получить данные для радар-диаграммы баланса сфер жизни (окно по умолчанию из настроек)
     public Map<String, Double> getLifeSphereBalance(Long userId) {
-        log.debug("Getting life sphere balance for user ID: {}", userId);
+        return getLifeSphereBalance(userId, balanceWindowDays);
+    }
 
-        LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
+    // Получить баланс сфер жизни за последние windowDays дней
+    public Map<String, Double> getLifeSphereBalance(Long userId, int windowDays) {
+        log.debug("Getting life sphere balance for user ID: {} over {} days", userId, windowDays);
 
-        // Получаем все завершенные задачи пользователя за последние 30 дней
-        List<Task> completedTasks = taskRepository.findAllByUserId(userId).stream()
-                .filter(Task::isCompleted)
-                .filter(task -> task.getDeadline().isAfter(thirtyDaysAgo) ||
-                        task.getDeadline().isEqual(thirtyDaysAgo))
-                .toList();
+        if (windowDays < 0) {
+            throw new IllegalArgumentException("Balance window must not be negative");
+        }
 
-        // Группируем по сферам жизни и суммируем время
-        Map<String, Double> sphereBalance = completedTasks.stream()
-                .collect(Collectors.groupingBy(
-                        task -> task.getLifeSphere().getName(),
-                        Collectors.summingDouble(Task::getEstimatedTimeMinutes)
-                ));
+        LocalDate windowStart = LocalDate.now().minusDays(windowDays);
+
+        // Агрегация выполняется в БД: одна строка на сферу жизни
+        Map<String, Double> sphereBalance = toBalanceMap(
+                taskRepository.sumCompletedMinutesBySphereSince(userId, windowStart));
+
+        log.info("Life sphere balance calculated for user ID: {}. Spheres: {}", userId, sphereBalance.keySet());
+        return sphereBalance;
+    }
+
+    // Получить баланс сфер жизни по выполненным задачам с дедлайном в диапазоне [from, to]
+    public Map<String, Double> getLifeSphereBalance(Long userId, LocalDate from, LocalDate to) {
+        log.debug("Getting life sphere balance for user ID: {} between {} and {}", userId, from, to);
+
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Balance window start must not be after its end");
+        }
+
+        Map<String, Double> sphereBalance = toBalanceMap(
+                taskRepository.sumEstimatedMinutesBySphere(userId, true, from, to));
 
         log.info("Life sphere balance calculated for user ID: {}. Spheres: {}", userId, sphereBalance.keySet());
         return sphereBalance;
     }
 
+    // Преобразовать агрегаты по сферам в карту "название сферы -> минуты"
+    private Map<String, Double> toBalanceMap(List<SphereTimeDto> sphereTotals) {
+        return sphereTotals.stream()
+                .collect(Collectors.toMap(
+                        SphereTimeDto::lifeSphereName,
+                        total -> total.totalMinutes().doubleValue(),
+                        Double::sum
+                ));
+    }
+
     // Получить прогресс по основным проектам
     public List<ProjectProgressDto> getMainProjectsProgress(Long userId) {
         log.debug("Getting projects progress for user ID: {}", userId);
 
-        List<Project> userProjects = projectRepository.findAllByUserId(userId);
-        List<ProjectProgressDto> progressList = new ArrayList<>();
-
-        for (Project project : userProjects) {
-            // Получаем все шаги (tasks типа STEP) для этого проекта
-            List<Task> projectSteps = taskRepository.findAllByProjectId(project.getId()).stream()
-                    .filter(task -> task.getType() == TaskType.STEP)
-                    .toList();
-
-            int totalSteps = projectSteps.size();
-            int completedSteps = (int) projectSteps.stream()
-                    .filter(Task::isCompleted)
-                    .count();
-
-            ProjectProgressDto progress = new ProjectProgressDto(
-                    project.getId(),
-                    project.getTitle(),
-                    totalSteps,
-                    completedSteps,
-                    totalSteps > 0 ? (double) completedSteps / totalSteps * 100 : 0.0
-            );
-
-            progressList.add(progress);
-        }
+        // Количество шагов (tasks типа STEP) и выполненных шагов считается в БД одним запросом
+        List<ProjectProgressDto> progressList = projectRepository.findProjectProgressByUserId(userId);
 
         log.info("Projects progress calculated for user ID: {}. Projects count: {}", userId, progressList.size());
         return progressList;
     }
 
-    // Получить статистику продуктивности
-    public Map<String, Object> getProductivityStats(Long userId) {
-        log.debug("Getting productivity stats for user ID: {}", userId);
+    // Получить страницу прогресса по проектам (для пользователей с большим числом проектов)
+    public Page<ProjectProgressDto> getMainProjectsProgress(Long userId, Pageable pageable) {
+        log.debug("Getting projects progress page {} for user ID: {}", pageable.getPageNumber(), userId);
 
-        // Получаем все завершенные задачи пользователя
-        List<Task> completedTasks = taskRepository.findAllByUserId(userId).stream()
-                .filter(Task::isCompleted)
-                .toList();
+        Pageable sortedPageable = pageable.getSort().isSorted()
+                ? pageable
+                : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id"));
 
-        // Извлекаем уникальные даты выполнения задач
-        Set<LocalDate> completedDates = completedTasks.stream()
-                .map(task -> task.getDeadline()) // Используем deadline как дату выполнения
-                .collect(Collectors.toSet());
+        Page<ProjectProgressDto> progressPage = projectRepository.findProjectProgressByUserId(userId, sortedPageable);
 
-        // Сортируем даты в хронологическом порядке
-        List<LocalDate> sortedDates = completedDates.stream()
-                .sorted()
-                .toList();
+        log.info("Projects progress page calculated for user ID: {}. Page size: {}, total projects: {}",
+                userId, progressPage.getNumberOfElements(), progressPage.getTotalElements());
+        return progressPage;
+    }
 
-        // Вычисляем текущую и максимальную серии
-        long currentStreak = calculateCurrentStreak(sortedDates);
-        long maxStreak = calculateMaxStreak(sortedDates);
+    // Обработать прогресс всех проектов потоково, не материализуя весь список в памяти
+    @Transactional(readOnly = true)
+    public void forEachProjectProgress(Long userId, Consumer<ProjectProgressDto> consumer) {
+        log.debug("Streaming projects progress for user ID: {}", userId);
+
+        try (Stream<ProjectProgressDto> progressStream = projectRepository.streamProjectProgressByUserId(userId)) {
+            progressStream.forEach(consumer);
+        }
+    }
+
+    // Получить статистику продуктивности
+    public Map<String, Object> getProductivityStats(Long userId) {
+        log.debug("Getting productivity stats for user ID: {}", userId);
+
+        // Серии поддерживаются инкрементально при изменении задач, здесь только чтение состояния
+        UserStreak streak = streakService.getStreak(userId);
+        long currentStreak = streakService.getCurrentStreak(streak, LocalDate.now());
+        long maxStreak = streak.getMaxStreak();
+        long totalCompletedTasks = taskStatsService.getStats(userId).getCounters().getCompletedCount();
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("currentStreak", currentStreak);
         stats.put("maxStreak", maxStreak);
-        stats.put("totalCompletedTasks", completedTasks.size());
+        stats.put("totalCompletedTasks", Math.toIntExact(totalCompletedTasks));
         stats.put("analysisDate", LocalDate.now());
 
         log.info("Productivity stats calculated for user ID: {}. Current streak: {}, Max streak: {}",
@@ -123,71 +162,15 @@ public class AnalyticsService {
         return stats;
     }
 
-    // Вычислить текущую серию дней подряд
-    private long calculateCurrentStreak(List<LocalDate> sortedDates) {
-        if (sortedDates.isEmpty()) {
-            return 0;
-        }
-
-        LocalDate today = LocalDate.now();
-        LocalDate yesterday = today.minusDays(1);
-
-        // Если сегодня или вчера не было выполненных задач, серия прервана
-        if (!sortedDates.contains(today) && !sortedDates.contains(yesterday)) {
-            return 0;
-        }
-
-        long streak = 0;
-        LocalDate currentDate = today;
-
-        // Проверяем последовательность дней в обратном порядке от сегодня
-        while (sortedDates.contains(currentDate)) {
-            streak++;
-            currentDate = currentDate.minusDays(1);
-        }
-
-        return streak;
-    }
-
-    // Вычислить максимальную серию дней подряд
-    private long calculateMaxStreak(List<LocalDate> sortedDates) {
-        if (sortedDates.isEmpty()) {
-            return 0;
-        }
-
-        long maxStreak = 1;
-        long currentStreak = 1;
-
-        for (int i = 1; i < sortedDates.size(); i++) {
-            LocalDate previousDate = sortedDates.get(i - 1);
-            LocalDate currentDate = sortedDates.get(i);
-
-            // Проверяем, идут ли даты подряд
-            if (previousDate.plusDays(1).equals(currentDate)) {
-                currentStreak++;
-                maxStreak = Math.max(maxStreak, currentStreak);
-            } else {
-                currentStreak = 1;
-            }
-        }
-
-        return maxStreak;
-    }
-
     // Получить общую статистику по времени
     public Map<String, Object> getTimeStatistics(Long userId) {
         log.debug("Getting time statistics for user ID: {}", userId);
 
-        List<Task> userTasks = taskRepository.findAllByUserId(userId);
+        // Счетчики материализованы и обновляются при изменении задач
+        TaskCounters counters = taskStatsService.getStats(userId).getCounters();
 
-        int totalTimePlanned = userTasks.stream()
-                .mapToInt(Task::getEstimatedTimeMinutes)
-                .sum();
-
-        int totalTimeCompleted = userTasks.stream()
-                .filter(Task::isCompleted)
-                .mapToInt(Task::getEstimatedTimeMinutes)
-                .sum();
+        int totalTimePlanned = Math.toIntExact(counters.getPlannedMinutes());
+        int totalTimeCompleted = Math.toIntExact(counters.getCompletedMinutes());
 
         double completionRate = totalTimePlanned > 0 ?
                 (double) totalTimeCompleted / totalTimePlanned * 100 : 0.0;
@@ -196,8 +179,8 @@ public class AnalyticsService {
         timeStats.put("totalTimePlanned", totalTimePlanned);
         timeStats.put("totalTimeCompleted", totalTimeCompleted);
         timeStats.put("completionRate", Math.round(completionRate * 100.0) / 100.0);
-        timeStats.put("tasksCount", userTasks.size());
-        timeStats.put("completedTasksCount", userTasks.stream().filter(Task::isCompleted).count());
+        timeStats.put("tasksCount", Math.toIntExact(counters.getTaskCount()));
+        timeStats.put("completedTasksCount", counters.getCompletedCount());
 
         log.info("Time statistics calculated for user ID: {}", userId);
         return timeStats;
@@ -207,15 +190,65 @@ public class AnalyticsService {
     public Map<String, Long> getPriorityDistribution(Long userId) {
         log.debug("Getting priority distribution for user ID: {}", userId);
 
-        List<Task> userTasks = taskRepository.findAllByUserId(userId);
+        TaskCounters counters = taskStatsService.getStats(userId).getCounters();
 
-        Map<String, Long> priorityDistribution = userTasks.stream()
-                .collect(Collectors.groupingBy(
-                        task -> task.getPriority().name(),
-                        Collectors.counting()
-                ));
+        // В распределение попадают только приоритеты, по которым есть задачи
+        Map<String, Long> priorityDistribution = new HashMap<>();
+        for (Priority priority : Priority.values()) {
+            long count = counters.getPriorityCount(priority);
+            if (count > 0) {
+                priorityDistribution.put(priority.name(), count);
+            }
+        }
 
         log.info("Priority distribution calculated for user ID: {}", userId);
         return priorityDistribution;
     }
-}
\ No newline at end of file
+
+    // Временной ряд агрегатов задач по дням, неделям или месяцам (по дедлайну), только из дневных агрегатов.
+    // Диапазон расширяется до целых периодов; без from/to - последние DEFAULT_TREND_POINTS периодов до сегодня.
+    // lifeSphereId (необязательно) ограничивает ряд одной сферой
+    @Transactional(readOnly = true)
+    public List<TaskTrendPoint> getTaskTrend(Long userId, TrendGranularity granularity,
+                                             LocalDate from, LocalDate to, Long lifeSphereId) {
+        log.debug("Getting {} task trend for user ID: {} between {} and {}", granularity, userId, from, to);
+
+        LocalDate lastPeriod = granularity.periodStart(to != null ? to : LocalDate.now());
+        LocalDate firstPeriod = from != null ? granularity.periodStart(from) : null;
+        if (firstPeriod == null) {
+            firstPeriod = lastPeriod;
+            for (int i = 1; i < DEFAULT_TREND_POINTS; i++) {
+                firstPeriod = granularity.periodStart(firstPeriod.minusDays(1));
+            }
+        }
+        if (firstPeriod.isAfter(lastPeriod)) {
+            throw new IllegalArgumentException("Trend start must not be after its end");
+        }
+
+        // Пустые периоды тоже попадают в ряд, чтобы на графике не было пропусков
+        Map<LocalDate, TaskCounters> countersByPeriod = new LinkedHashMap<>();
+        for (LocalDate period = firstPeriod; !period.isAfter(lastPeriod); period = granularity.nextPeriodStart(period)) {
+            if (countersByPeriod.size() == MAX_TREND_POINTS) {
+                throw new IllegalArgumentException("Trend must not exceed " + MAX_TREND_POINTS + " points");
+            }
+            countersByPeriod.put(period, new TaskCounters());
+        }
+
+        LocalDate rangeEnd = granularity.nextPeriodStart(lastPeriod).minusDays(1);
+        List<DailyTaskRollup> rollups = lifeSphereId != null
+                ? dailyTaskRollupRepository.findRangeByLifeSphere(userId, firstPeriod, rangeEnd, lifeSphereId)
+                : dailyTaskRollupRepository.findRange(userId, firstPeriod, rangeEnd);
+        for (DailyTaskRollup rollup : rollups) {
+            countersByPeriod.get(granularity.periodStart(rollup.getDay())).add(rollup.getCounters());
+        }
+
+        List<TaskTrendPoint> trend = countersByPeriod.entrySet().stream()
+                .map(entry -> new TaskTrendPoint(entry.getKey(),
+                        granularity.nextPeriodStart(entry.getKey()).minusDays(1), entry.getValue()))
+                .toList();
+
+        log.info("Task trend calculated for user ID: {}. Points: {}, daily rows: {}",
+                userId, trend.size(), rollups.size());
+        return trend;
+    }
+}
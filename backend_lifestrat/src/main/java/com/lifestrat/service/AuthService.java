@@ -0,0 +1,84 @@
+package com.lifestrat.service;
+
+import com.lifestrat.dto.AuthResponse;
+import com.lifestrat.dto.LoginRequest;
+import com.lifestrat.dto.RegisterRequest;
+import com.lifestrat.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Регистрация и вход. Хэширование и проверка пароля выполняются в {@link PasswordHasher};
+ * методы возвращают CompletableFuture, поэтому поток обработки запроса не ждет BCrypt.
+ * Запись нового пользователя после хэширования выполняется в общем пуле задач приложения,
+ * чтобы потоки BCrypt не ждали БД.
+ */
+@Service
+@Slf4j
+public class AuthService {
+
+    private final UserService userService;
+    private final JwtService jwtService;
+    private final PasswordHasher passwordHasher;
+    private final Executor registrationExecutor;
+
+    @Autowired
+    public AuthService(UserService userService, JwtService jwtService, PasswordHasher passwordHasher,
+                       @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                       Executor registrationExecutor) {
+        this.userService = userService;
+        this.jwtService = jwtService;
+        this.passwordHasher = passwordHasher;
+        this.registrationExecutor = registrationExecutor;
+    }
+
+    // Зарегистрировать пользователя и создать для него стандартные сферы жизни
+    public CompletableFuture<AuthResponse> register(RegisterRequest request) {
+        log.debug("Registering user with username: {}", request.getUsername());
+
+        // Дешевые проверки до хэширования, чтобы не тратить BCrypt на заведомо неуспешные запросы
+        userService.validateNewUser(request.getUsername(), request.getEmail());
+
+        return passwordHasher.encodeAsync(request.getPassword())
+                .thenApplyAsync(encodedPassword -> {
+                    User user = userService.registerUser(request.getUsername(), request.getEmail(), encodedPassword);
+                    return toResponse("Registration successful", user);
+                }, registrationExecutor);
+    }
+
+    // Вход по имени пользователя или email
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
+        log.debug("Login attempt for: {}", request.getUsername());
+
+        Optional<User> found = userService.findByUsername(request.getUsername())
+                .or(() -> userService.findByEmail(request.getUsername()));
+        if (found.isEmpty() || found.get().isDisabled()) {
+            log.warn("Login failed: user '{}' not found or disabled", request.getUsername());
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid username or password"));
+        }
+
+        User user = found.get();
+        return passwordHasher.matchesAsync(request.getPassword(), user.getPassword())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        log.warn("Login failed: wrong password for user ID: {}", user.getId());
+                        throw new IllegalArgumentException("Invalid username or password");
+                    }
+
+                    log.info("User logged in successfully with ID: {}", user.getId());
+                    return toResponse("Login successful", user);
+                });
+    }
+
+    private AuthResponse toResponse(String message, User user) {
+        return new AuthResponse(message, user.getId(), user.getUsername(), user.getEmail(),
+                jwtService.generateToken(user.getUsername()));
+    }
+}
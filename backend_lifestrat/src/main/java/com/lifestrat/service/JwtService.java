@@ -1,11 +1,14 @@
 package com.lifestrat.service;
 
+import com.lifestrat.dto.TokenDetails;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -13,18 +16,29 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Service
 @Slf4j
 public class JwtService {
 
-    @Value("${jwt.secret-key}")
-    private String secretKey;
+    // Ключ и парсер неизменяемы и потокобезопасны - создаются один раз при старте
+    private final SecretKey signKey;
+    private final JwtParser jwtParser;
 
-    @Value("${jwt.expiration-time}")
     private long expirationTime;
 
+    @Autowired
+    public JwtService(@Value("${jwt.secret-key}") String secretKey,
+                      @Value("${jwt.expiration-time}") long expirationTime) {
+        this.signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signKey)
+                .build();
+        this.expirationTime = expirationTime;
+    }
+
     // Сгенерировать JWT токен для пользователя
     public String generateToken(String username) {
         log.debug("Generating JWT token for username: {}", username);
@@ -43,19 +57,13 @@ public class JwtService {
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiration)
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
 
         log.info("JWT token generated successfully for subject: {}", subject);
         return token;
     }
 
-    // Получить ключ для подписи
-    private SecretKey getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
     // Извлечь имя пользователя из токена
     public String extractUsername(String token) {
         log.debug("Extracting username from JWT token");
@@ -76,11 +84,22 @@ public class JwtService {
 
     // Извлечь все claims из токена
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
+    // Разобрать и проверить токен за один проход: подпись, формат и срок действия.
+    // Пустой результат - токен недействителен
+    public Optional<TokenDetails> parseToken(String token) {
+        try {
+            TokenDetails details = TokenDetails.from(extractAllClaims(token));
+            if (details.isExpired(new Date())) {
+                return Optional.empty();
+            }
+            return Optional.of(details);
+        } catch (Exception e) {
+            log.debug("JWT token parsing failed. Error: {}", e.getMessage());
+            return Optional.empty();
+        }
     }
 
     // Проверить валидность токена
@@ -88,8 +107,9 @@ public class JwtService {
         log.debug("Validating JWT token for username: {}", username);
 
         try {
-            final String extractedUsername = extractUsername(token);
-            boolean isValid = (extractedUsername.equals(username) && !isTokenExpired(token));
+            // Токен разбирается один раз: subject и срок действия берутся из одного набора claims
+            TokenDetails details = TokenDetails.from(extractAllClaims(token));
+            boolean isValid = (details.subject().equals(username) && !details.isExpired(new Date()));
 
             if (isValid) {
                 log.debug("JWT token validation successful for username: {}", username);
@@ -104,13 +124,6 @@ public class JwtService {
         }
     }
 
-    /**
-     * Проверить истек ли срок действия токена
-     */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     /**
      * Проверить валидность токена (без проверки username)
      */
@@ -118,10 +131,7 @@ public class JwtService {
         log.debug("Validating JWT token structure and expiration");
 
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSignKey())
-                    .build()
-                    .parseClaimsJws(token);
+            jwtParser.parseClaimsJws(token);
             return true;
         } catch (Exception e) {
             log.error("JWT token validation failed. Error: {}", e.getMessage());
@@ -0,0 +1,125 @@
+package com.lifestrat.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.lifestrat.entity.LifeSphere;
+import com.lifestrat.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Ограниченный кэш сфер жизни по пользователю с индексами по id и по имени без учета регистра.
+ * Хранятся отсоединенные копии сущностей, наружу также отдаются копии - изменения вызывающего кода
+ * не попадают в общий кэш. Пользователь в копии - ссылка только с id, без прокси закрытой сессии:
+ * копии годятся для проверок владения, id и имени и для ответа API, но не для связей и merge -
+ * для этого {@link LifeSphereService} загружает управляемые сущности. Запись пользователя сбрасывается
+ * при изменении его сфер сразу и повторно после завершения транзакции, чтобы параллельное чтение
+ * не закэшировало незафиксированные данные.
+ */
+@Component
+@Slf4j
+public class LifeSphereCache implements MeterBinder {
+
+    private final Cache<Long, UserSpheres> cache;
+
+    @Autowired
+    public LifeSphereCache(@Value("${cache.life-spheres.maximum-size:10000}") long maximumSize,
+                           @Value("${cache.life-spheres.expire-after-write-minutes:10}") long expireAfterWriteMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes))
+                .recordStats()
+                .build();
+    }
+
+    // Сферы пользователя; при промахе загружаются через loader
+    public List<LifeSphere> getAll(Long userId, Function<Long, List<LifeSphere>> loader) {
+        return copies(load(userId, loader).spheres(), userId);
+    }
+
+    // Сфера пользователя по id
+    public Optional<LifeSphere> getById(Long userId, Long sphereId, Function<Long, List<LifeSphere>> loader) {
+        return Optional.ofNullable(load(userId, loader).byId().get(sphereId)).map(sphere -> copy(sphere, userId));
+    }
+
+    // Сфера пользователя по имени без учета регистра
+    public Optional<LifeSphere> getByName(Long userId, String name, Function<Long, List<LifeSphere>> loader) {
+        return Optional.ofNullable(load(userId, loader).byNameKey().get(nameKey(name))).map(sphere -> copy(sphere, userId));
+    }
+
+    // Сбросить запись пользователя сейчас и после завершения текущей транзакции (commit или rollback)
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+        log.debug("Life sphere cache evicted for user ID: {}", userId);
+    }
+
+    // Статистика попаданий и промахов
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    // Метрики кэша (попадания, промахи, вытеснения, размер)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "life-spheres");
+    }
+
+    private UserSpheres load(Long userId, Function<Long, List<LifeSphere>> loader) {
+        return cache.get(userId, id -> UserSpheres.of(copies(loader.apply(id), id)));
+    }
+
+    private List<LifeSphere> copies(List<LifeSphere> spheres, Long userId) {
+        return spheres.stream().map(sphere -> copy(sphere, userId)).toList();
+    }
+
+    private LifeSphere copy(LifeSphere sphere, Long userId) {
+        User owner = new User();
+        owner.setId(userId);
+        return new LifeSphere(sphere.getId(), sphere.getName(), sphere.getNameKey(), sphere.getColor(), owner);
+    }
+
+    private static String nameKey(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+
+    private record UserSpheres(
+            List<LifeSphere> spheres,
+            Map<Long, LifeSphere> byId,
+            Map<String, LifeSphere> byNameKey
+    ) {
+        static UserSpheres of(List<LifeSphere> spheres) {
+            Map<Long, LifeSphere> byId = new HashMap<>();
+            Map<String, LifeSphere> byNameKey = new HashMap<>();
+            for (LifeSphere sphere : spheres) {
+                byId.put(sphere.getId(), sphere);
+                byNameKey.putIfAbsent(nameKey(sphere.getName()), sphere);
+            }
+            return new UserSpheres(spheres, Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byNameKey));
+        }
+    }
+}
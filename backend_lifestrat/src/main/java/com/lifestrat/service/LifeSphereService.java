@@ -1,41 +1,80 @@
 package com.lifestrat.service;
 
+import com.lifestrat.dto.CursorPage;
+import com.lifestrat.dto.PageCursor;
+import com.lifestrat.dto.SphereSummary;
 import com.lifestrat.entity.LifeSphere;
 import com.lifestrat.entity.User;
 import com.lifestrat.repository.LifeSphereRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 @Slf4j
 public class LifeSphereService {
 
+    private static final int DEFAULT_SPHERES_PER_USER = 6;
+
     private final LifeSphereRepository lifeSphereRepository;
+    private final LifeSphereCache lifeSphereCache;
 
     @Autowired
-    public LifeSphereService(LifeSphereRepository lifeSphereRepository) {
+    public LifeSphereService(LifeSphereRepository lifeSphereRepository, LifeSphereCache lifeSphereCache) {
         this.lifeSphereRepository = lifeSphereRepository;
+        this.lifeSphereCache = lifeSphereCache;
     }
 
-    // Получить все сферы жизни пользователя
+    // Получить все сферы жизни пользователя (через кэш)
     public List<LifeSphere> findAllByUserId(Long userId) {
         log.debug("Getting all life spheres for user ID: {}", userId);
-        return lifeSphereRepository.findAllByUserId(userId);
+        return lifeSphereCache.getAll(userId, lifeSphereRepository::findAllByUserId);
+    }
+
+    // Получить страницу сфер жизни пользователя (keyset по id) в виде кратких представлений
+    public CursorPage<SphereSummary> findPageByUserId(Long userId, String cursor, int size) {
+        log.debug("Getting life spheres page for user ID: {}, size: {}", userId, size);
+        CursorPage.validateSize(size);
+
+        Long afterId = cursor == null || cursor.isBlank() ? 0L : PageCursor.decode(cursor).id();
+        List<SphereSummary> rows = lifeSphereRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(
+                userId, afterId, PageRequest.of(0, size + 1));
+
+        return CursorPage.of(rows, size, sphere -> new PageCursor(null, sphere.id()));
     }
 
     // Найти сферу по ID, убедившись, что она принадлежит пользователю
     public Optional<LifeSphere> findByIdAndUserId(Long sphereId, Long userId) {
         log.debug("Finding life sphere by ID: {} for user ID: {}", sphereId, userId);
+        return lifeSphereCache.getById(userId, sphereId, lifeSphereRepository::findAllByUserId);
+    }
+
+    // Загрузить управляемую сферу пользователя из БД, минуя кэш (для связей проекта и изменений)
+    public Optional<LifeSphere> loadByIdAndUserId(Long sphereId, Long userId) {
+        log.debug("Loading life sphere by ID: {} for user ID: {}", sphereId, userId);
+        return lifeSphereRepository.findByIdAndUserId(sphereId, userId);
+    }
+
+    // Ссылки на все сферы пользователя по id (для пакетного создания задач): владение проверяется по кэшу,
+    // сами сущности не загружаются
+    public Map<Long, LifeSphere> getReferencesByUserId(Long userId) {
+        log.debug("Getting life sphere references for user ID: {}", userId);
         return findAllByUserId(userId).stream()
-                .filter(sphere -> sphere.getId().equals(sphereId))
-                .findFirst();
+                .map(LifeSphere::getId)
+                .collect(Collectors.toMap(Function.identity(), lifeSphereRepository::getReferenceById));
     }
 
     // Создать новую сферу жизни
@@ -49,37 +88,60 @@ public class LifeSphereService {
             throw new IllegalArgumentException("Life sphere must be associated with the correct user");
         }
 
-        // Проверяем уникальность имени сферы для данного пользователя
-        boolean nameExists = findAllByUserId(userId).stream()
-                .anyMatch(sphere -> sphere.getName().equalsIgnoreCase(lifeSphere.getName()));
-
-        if (nameExists) {
+        // Проверяем уникальность имени сферы для данного пользователя (по БД, а не по кэшу)
+        if (lifeSphereRepository.existsByUserIdAndNameIgnoreCase(userId, lifeSphere.getName())) {
             log.warn("Life sphere with name '{}' already exists for user ID: {}", lifeSphere.getName(), userId);
             throw new IllegalArgumentException("Life sphere with name '" + lifeSphere.getName() + "' already exists");
         }
 
-        LifeSphere savedSphere = lifeSphereRepository.save(lifeSphere);
+        LifeSphere savedSphere = saveWithUniqueName(lifeSphere);
+        lifeSphereCache.evict(userId);
         log.info("Life sphere created successfully with ID: {} for user ID: {}", savedSphere.getId(), userId);
         return savedSphere;
     }
 
-    // Обновить данные сферы
-    public LifeSphere update(LifeSphere lifeSphereFromDb, LifeSphere lifeSphereFromRequest) {
-        log.debug("Updating life sphere ID: {}", lifeSphereFromDb.getId());
+    // Обновить данные сферы; изменения применяются к управляемой сущности, а не к переданной копии
+    public LifeSphere update(LifeSphere lifeSphere, LifeSphere lifeSphereFromRequest) {
+        log.debug("Updating life sphere ID: {}", lifeSphere.getId());
+
+        LifeSphere lifeSphereFromDb = lifeSphereRepository.findById(lifeSphere.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Life sphere not found"));
+        Long userId = lifeSphereFromDb.getUser().getId();
+        boolean nameChanged = !lifeSphereFromDb.getName().equalsIgnoreCase(lifeSphereFromRequest.getName());
+        if (nameChanged && lifeSphereRepository.existsByUserIdAndNameIgnoreCase(userId, lifeSphereFromRequest.getName())) {
+            log.warn("Life sphere with name '{}' already exists for user ID: {}", lifeSphereFromRequest.getName(), userId);
+            throw new IllegalArgumentException("Life sphere with name '" + lifeSphereFromRequest.getName() + "' already exists");
+        }
 
         // Копируем все поля из lifeSphereFromRequest в lifeSphereFromDb
         lifeSphereFromDb.setName(lifeSphereFromRequest.getName());
         lifeSphereFromDb.setColor(lifeSphereFromRequest.getColor());
 
-        LifeSphere updatedSphere = lifeSphereRepository.save(lifeSphereFromDb);
+        LifeSphere updatedSphere = saveWithUniqueName(lifeSphereFromDb);
+        lifeSphereCache.evict(userId);
         log.info("Life sphere updated successfully with ID: {}", updatedSphere.getId());
         return updatedSphere;
     }
 
-    // Удалить сферу жизни
+    // Сохранить с немедленной проверкой уникального индекса (user_id, name_key): параллельное создание
+    // сферы с тем же именем дает то же исключение, что и предварительная проверка
+    private LifeSphere saveWithUniqueName(LifeSphere lifeSphere) {
+        try {
+            return lifeSphereRepository.saveAndFlush(lifeSphere);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, LifeSphere.UK_USER_ID_NAME_KEY)) {
+                log.warn("Concurrent duplicate life sphere name '{}' rejected by the database", lifeSphere.getName());
+                throw new IllegalArgumentException("Life sphere with name '" + lifeSphere.getName() + "' already exists");
+            }
+            throw e;
+        }
+    }
+
+    // Удалить сферу жизни по id (переданная сфера может быть копией из кэша)
     public void delete(LifeSphere lifeSphere) {
         log.debug("Deleting life sphere ID: {}", lifeSphere.getId());
-        lifeSphereRepository.delete(lifeSphere);
+        lifeSphereRepository.deleteById(lifeSphere.getId());
+        lifeSphereCache.evict(lifeSphere.getUser().getId());
         log.info("Life sphere deleted successfully with ID: {}", lifeSphere.getId());
     }
 
@@ -87,7 +149,27 @@ public class LifeSphereService {
     public List<LifeSphere> createDefaultLifeSpheres(User user) {
         log.debug("Creating default life spheres for new user ID: {}", user.getId());
 
-        List<LifeSphere> defaultSpheres = Arrays.asList(
+        List<LifeSphere> savedSpheres = lifeSphereRepository.saveAll(buildDefaultLifeSpheres(user));
+        lifeSphereCache.evict(user.getId());
+        log.info("Created {} default life spheres for user ID: {}", savedSpheres.size(), user.getId());
+        return savedSpheres;
+    }
+
+    // Создать стандартные сферы сразу для пачки новых пользователей (импорт): один saveAll на всю пачку
+    public List<LifeSphere> createDefaultLifeSpheres(Collection<User> users) {
+        log.debug("Creating default life spheres for {} new users", users.size());
+
+        List<LifeSphere> defaultSpheres = new ArrayList<>(users.size() * DEFAULT_SPHERES_PER_USER);
+        users.forEach(user -> defaultSpheres.addAll(buildDefaultLifeSpheres(user)));
+
+        List<LifeSphere> savedSpheres = lifeSphereRepository.saveAll(defaultSpheres);
+        users.forEach(user -> lifeSphereCache.evict(user.getId()));
+        log.info("Created {} default life spheres for {} users", savedSpheres.size(), users.size());
+        return savedSpheres;
+    }
+
+    private List<LifeSphere> buildDefaultLifeSpheres(User user) {
+        return Arrays.asList(
                 createLifeSphere("Карьера", "#FF6B6B", user),
                 createLifeSphere("Финансы", "#4ECDC4", user),
                 createLifeSphere("Здоровье", "#45B7D1", user),
@@ -95,10 +177,6 @@ public class LifeSphereService {
                 createLifeSphere("Саморазвитие", "#FFEAA7", user),
                 createLifeSphere("Отдых", "#DDA0DD", user)
         );
-
-        List<LifeSphere> savedSpheres = lifeSphereRepository.saveAll(defaultSpheres);
-        log.info("Created {} default life spheres for user ID: {}", savedSpheres.size(), user.getId());
-        return savedSpheres;
     }
 
     // Вспомогательный метод для создания сферы жизни
@@ -113,8 +191,6 @@ public class LifeSphereService {
     // Найти сферу по имени для пользователя
     public Optional<LifeSphere> findByNameAndUserId(String name, Long userId) {
         log.debug("Finding life sphere by name: {} for user ID: {}", name, userId);
-        return findAllByUserId(userId).stream()
-                .filter(sphere -> sphere.getName().equalsIgnoreCase(name))
-                .findFirst();
+        return lifeSphereCache.getByName(userId, name, lifeSphereRepository::findAllByUserId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package com.lifestrat.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Хэширование и проверка паролей BCrypt в отдельном ограниченном пуле потоков.
+ * Пул не больше числа ядер, очередь ограничена: при переполнении задача сразу отклоняется
+ * с {@link PasswordHashingRejectedException}, а не занимает потоки обработки запросов.
+ */
+@Component
+@Slf4j
+public class PasswordHasher implements MeterBinder {
+
+    private static final long RESUBMIT_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Autowired
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          @Value("${security.password.hashing.threads:0}") int threads,
+                          @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+                          @Value("${security.password.hashing.retry-after-seconds:5}") long retryAfterSeconds) {
+        this.passwordEncoder = passwordEncoder;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        // 0 - по числу доступных ядер: BCrypt полностью загружает процессор, больше потоков не ускорит
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("Password hasher started with {} threads and queue capacity {}", poolSize, queueCapacity);
+    }
+
+    // Асинхронно захэшировать пароль; при заполненной очереди исключение выбрасывается сразу
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    // Асинхронно проверить пароль
+    public CompletableFuture<Boolean> matchesAsync(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // Синхронный вариант для вызовов вне веб-запроса; ожидание не занимает ядро
+    public String encode(String rawPassword) {
+        return join(encodeAsync(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return join(matchesAsync(rawPassword, encodedPassword));
+    }
+
+    // Пакетное хэширование (импорт пользователей). Одновременно в пуле не больше задач, чем потоков,
+    // чтобы импорт не занимал очередь, нужную запросам входа; отклоненная пулом задача повторяется позже
+    public List<String> encodeAll(List<String> rawPasswords) {
+        Semaphore inFlight = new Semaphore(executor.getMaximumPoolSize());
+        List<CompletableFuture<String>> futures = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<String> future = submitWhenAccepted(() -> passwordEncoder.encode(rawPassword));
+            future.whenComplete((hash, error) -> inFlight.release());
+            futures.add(future);
+        }
+        return futures.stream()
+                .map(PasswordHasher::join)
+                .toList();
+    }
+
+    // Текущая длина очереди (для мониторинга)
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    // Метрики пула: длина очереди, активные потоки, выполненные и отклоненные задачи
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "password-hasher", Tags.empty()).bindTo(registry);
+        FunctionCounter.builder("password.hasher.rejected", rejected, AtomicLong::get)
+                .description("Password hashing tasks rejected because the queue was full")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.warn("Password hashing rejected: {} tasks queued", executor.getQueue().size());
+            throw new PasswordHashingRejectedException(retryAfterSeconds);
+        }
+    }
+
+    private <T> CompletableFuture<T> submitWhenAccepted(Supplier<T> task) {
+        while (true) {
+            try {
+                return CompletableFuture.supplyAsync(task, executor);
+            } catch (RejectedExecutionException e) {
+                if (executor.isShutdown()) {
+                    throw new PasswordHashingRejectedException(retryAfterSeconds);
+                }
+                LockSupport.parkNanos(RESUBMIT_DELAY_NANOS);
+            }
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
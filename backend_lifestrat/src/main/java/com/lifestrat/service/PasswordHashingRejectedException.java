@@ -0,0 +1,16 @@
+package com.lifestrat.service;
+
+// Очередь хэширования паролей заполнена; клиенту следует повторить запрос через retryAfterSeconds
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(long retryAfterSeconds) {
+        super("Password hashing capacity exceeded, retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
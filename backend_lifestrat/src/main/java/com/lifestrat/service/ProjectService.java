@@ -1,13 +1,24 @@
 package com.lifestrat.service;
 
+import com.lifestrat.dto.CursorPage;
+import com.lifestrat.dto.PageCursor;
+import com.lifestrat.dto.ProjectQuery;
+import com.lifestrat.dto.ProjectSummary;
 import com.lifestrat.entity.Project;
 import com.lifestrat.entity.LifeSphere;
 import com.lifestrat.repository.ProjectRepository;
+import com.lifestrat.repository.ProjectSpecifications;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,10 +28,15 @@ import java.util.Optional;
 public class ProjectService {
 
     private final ProjectRepository projectRepository;
+    private final LifeSphereService lifeSphereService;
+    private final SearchIndex searchIndex;
 
     @Autowired
-    public ProjectService(ProjectRepository projectRepository) {
+    public ProjectService(ProjectRepository projectRepository, LifeSphereService lifeSphereService,
+                          SearchIndex searchIndex) {
         this.projectRepository = projectRepository;
+        this.lifeSphereService = lifeSphereService;
+        this.searchIndex = searchIndex;
     }
 
     // Получить все проекты пользователя
@@ -29,12 +45,36 @@ public class ProjectService {
         return projectRepository.findAllByUserId(userId);
     }
 
+    // Получить страницу проектов пользователя (keyset по дедлайну и id) в виде кратких представлений
+    public CursorPage<ProjectSummary> findPageByUserId(Long userId, String cursor, int size) {
+        log.debug("Getting projects page for user ID: {}, size: {}", userId, size);
+        CursorPage.validateSize(size);
+
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<ProjectSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = projectRepository.findPageByUserId(userId, limit);
+        } else {
+            PageCursor position = PageCursor.decodeWithDeadline(cursor);
+            rows = projectRepository.findPageByUserIdAfter(userId, position.deadline(), position.id(), limit);
+        }
+
+        return CursorPage.of(rows, size, project -> new PageCursor(project.deadline(), project.id()));
+    }
+
+    // Найти проекты пользователя по набору ID одним запросом; чужие и несуществующие ID пропускаются
+    public List<Project> findAllByUserIdAndIdIn(Long userId, Collection<Long> projectIds) {
+        log.debug("Finding {} projects by ID for user ID: {}", projectIds.size(), userId);
+        if (projectIds.isEmpty()) {
+            return List.of();
+        }
+        return projectRepository.findAllByUserIdAndIdIn(userId, projectIds);
+    }
+
     // Найти проект по ID, убедившись, что он принадлежит пользователю
     public Optional<Project> findByIdAndUserId(Long projectId, Long userId) {
         log.debug("Finding project by ID: {} for user ID: {}", projectId, userId);
-        return findAllByUserId(userId).stream()
-                .filter(project -> project.getId().equals(projectId))
-                .findFirst();
+        return projectRepository.findByIdAndUserId(projectId, userId);
     }
 
     // Создать новый проект
@@ -48,23 +88,22 @@ public class ProjectService {
             throw new IllegalArgumentException("Project must be associated with the correct user");
         }
 
-        // Убеждаемся, что сфера жизни принадлежит пользователю
+        // Убеждаемся, что сфера жизни принадлежит пользователю (проверка по кэшу сфер, без обращения к связи user)
         LifeSphere lifeSphere = project.getLifeSphere();
-        if (lifeSphere == null || !lifeSphere.getUser().getId().equals(userId)) {
+        if (lifeSphere == null || lifeSphere.getId() == null
+                || lifeSphereService.findByIdAndUserId(lifeSphere.getId(), userId).isEmpty()) {
             log.warn("Project life sphere association mismatch. Life sphere does not belong to user ID: {}", userId);
             throw new IllegalArgumentException("Project life sphere must belong to the user");
         }
 
-        // Проверяем уникальность названия проекта для данного пользователя
-        boolean titleExists = findAllByUserId(userId).stream()
-                .anyMatch(p -> p.getTitle().equalsIgnoreCase(project.getTitle()));
-
-        if (titleExists) {
+        // Проверяем уникальность названия проекта для данного пользователя (точечный запрос по индексу)
+        if (projectRepository.existsByUserIdAndTitleIgnoreCase(userId, project.getTitle())) {
             log.warn("Project with title '{}' already exists for user ID: {}", project.getTitle(), userId);
             throw new IllegalArgumentException("Project with title '" + project.getTitle() + "' already exists");
         }
 
-        Project savedProject = projectRepository.save(project);
+        Project savedProject = saveWithUniqueTitle(project);
+        searchIndex.onProjectSaved(savedProject);
         log.info("Project created successfully with ID: {} for user ID: {}", savedProject.getId(), userId);
         return savedProject;
     }
@@ -73,6 +112,14 @@ public class ProjectService {
     public Project update(Project projectFromDb, Project projectFromRequest) {
         log.debug("Updating project ID: {}", projectFromDb.getId());
 
+        boolean titleChanged = !projectFromDb.getTitle().equalsIgnoreCase(projectFromRequest.getTitle());
+        if (titleChanged && projectRepository.existsByUserIdAndTitleIgnoreCase(
+                projectFromDb.getUser().getId(), projectFromRequest.getTitle())) {
+            log.warn("Project with title '{}' already exists for user ID: {}",
+                    projectFromRequest.getTitle(), projectFromDb.getUser().getId());
+            throw new IllegalArgumentException("Project with title '" + projectFromRequest.getTitle() + "' already exists");
+        }
+
         // Копируем все поля из projectFromRequest в projectFromDb
         projectFromDb.setTitle(projectFromRequest.getTitle());
         projectFromDb.setDescription(projectFromRequest.getDescription());
@@ -80,51 +127,77 @@ public class ProjectService {
         projectFromDb.setPriority(projectFromRequest.getPriority());
         projectFromDb.setLifeSphere(projectFromRequest.getLifeSphere());
 
-        Project updatedProject = projectRepository.save(projectFromDb);
+        Project updatedProject = saveWithUniqueTitle(projectFromDb);
+        searchIndex.onProjectSaved(updatedProject);
         log.info("Project updated successfully with ID: {}", updatedProject.getId());
         return updatedProject;
     }
 
+    // Сохранить с немедленной проверкой уникального индекса (user_id, title_key): параллельное создание
+    // проекта с тем же названием дает то же исключение, что и предварительная проверка
+    private Project saveWithUniqueTitle(Project project) {
+        try {
+            return projectRepository.saveAndFlush(project);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, Project.UK_USER_ID_TITLE_KEY)) {
+                log.warn("Concurrent duplicate project title '{}' rejected by the database", project.getTitle());
+                throw new IllegalArgumentException("Project with title '" + project.getTitle() + "' already exists");
+            }
+            throw e;
+        }
+    }
+
     // Удалить проект
     public void delete(Project project) {
         log.debug("Deleting project ID: {}", project.getId());
         projectRepository.delete(project);
+        searchIndex.onProjectDeleted(project.getUser().getId(), project.getId());
         log.info("Project deleted successfully with ID: {}", project.getId());
     }
 
+    // Найти проекты по произвольной комбинации фильтров: один SQL-запрос с keyset-пагинацией по (deadline, id)
+    // и проекцией в ProjectSummary
+    @Transactional(readOnly = true)
+    public CursorPage<ProjectSummary> search(Long userId, ProjectQuery query, String cursor, int size) {
+        log.debug("Searching projects for user ID: {} by {}, size: {}", userId, query, size);
+        CursorPage.validateSize(size);
+
+        Specification<Project> specification = ProjectSpecifications.matching(userId, query);
+        if (cursor != null && !cursor.isBlank()) {
+            specification = specification.and(ProjectSpecifications.after(PageCursor.decodeWithDeadline(cursor)));
+        }
+        List<ProjectSummary> rows = projectRepository.findPage(specification, size + 1);
+
+        return CursorPage.of(rows, size, project -> new PageCursor(project.deadline(), project.id()));
+    }
+
+    // Все проекты пользователя, подходящие под фильтры, в порядке (deadline, id)
+    private List<Project> findAllByQuery(Long userId, ProjectQuery query) {
+        return projectRepository.findAll(ProjectSpecifications.matching(userId, query),
+                ProjectSpecifications.DEADLINE_ORDER);
+    }
+
     // Получить проекты пользователя по сфере жизни
     public List<Project> findAllByUserIdAndLifeSphereId(Long userId, Long lifeSphereId) {
         log.debug("Getting projects for user ID: {} and life sphere ID: {}", userId, lifeSphereId);
-
-        // Сначала получаем все проекты пользователя, затем фильтруем по сфере жизни
-        return findAllByUserId(userId).stream()
-                .filter(project -> project.getLifeSphere().getId().equals(lifeSphereId))
-                .toList();
+        return findAllByQuery(userId, ProjectQuery.byLifeSphere(lifeSphereId));
     }
 
     // Найти проекты по названию (поиск)
     public List<Project> findByTitleContainingAndUserId(String title, Long userId) {
         log.debug("Searching projects by title: '{}' for user ID: {}", title, userId);
-        return findAllByUserId(userId).stream()
-                .filter(project -> project.getTitle().toLowerCase().contains(title.toLowerCase()))
-                .toList();
+        return findAllByQuery(userId, ProjectQuery.byTitle(title));
     }
 
     // Получить просроченные проекты пользователя
     public List<Project> findOverdueProjectsByUserId(Long userId) {
         log.debug("Getting overdue projects for user ID: {}", userId);
-        java.time.LocalDate today = java.time.LocalDate.now();
-        return findAllByUserId(userId).stream()
-                .filter(project -> project.getDeadline().isBefore(today))
-                .toList();
+        return findAllByQuery(userId, ProjectQuery.overdue(LocalDate.now()));
     }
 
     // Получить проекты с высоким приоритетом
     public List<Project> findHighPriorityProjectsByUserId(Long userId) {
         log.debug("Getting high priority projects for user ID: {}", userId);
-        return findAllByUserId(userId).stream()
-                .filter(project -> project.getPriority().toString().equals("HIGH") ||
-                        project.getPriority().toString().equals("CRITICAL"))
-                .toList();
+        return findAllByQuery(userId, ProjectQuery.highPriority());
     }
-}
\ No newline at end of file
+}
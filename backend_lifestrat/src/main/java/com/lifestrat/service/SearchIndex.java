@@ -0,0 +1,138 @@
+package com.lifestrat.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.lifestrat.dto.SearchDocument;
+import com.lifestrat.dto.SearchHit;
+import com.lifestrat.entity.Project;
+import com.lifestrat.entity.Task;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Поисковые индексы пользователей в памяти, ограниченные суммарным числом документов.
+ * Индекс строится из базы при первом поиске и дальше поддерживается изменениями задач и проектов:
+ * изменение применяется после фиксации транзакции и только к уже построенному индексу. Если индекс
+ * в этот момент строится, изменение ждет окончания построения и применяется поверх - запись документа
+ * идемпотентна, поэтому построение по снимку до или после фиксации дает одинаковый результат.
+ */
+@Component
+@Slf4j
+public class SearchIndex implements MeterBinder {
+
+    private final Cache<Long, UserSearchIndex> cache;
+
+    @Autowired
+    public SearchIndex(@Value("${search.index.maximum-documents:500000}") long maximumDocuments,
+                       @Value("${search.index.expire-after-access-minutes:30}") long expireAfterAccessMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumDocuments)
+                .weigher((Long userId, UserSearchIndex index) -> Math.max(1, index.size()))
+                .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+                .recordStats()
+                .build();
+    }
+
+    // Поиск по индексу пользователя; при промахе индекс строится через loader
+    public List<SearchHit> search(Long userId, String query, int limit, Function<Long, UserSearchIndex> loader) {
+        return cache.get(userId, loader).search(query, limit);
+    }
+
+    // Задача создана или изменена
+    public void onTaskSaved(Task task) {
+        String title = task.getTitle();
+        String description = task.getDescription();
+        long taskId = task.getId();
+        afterCommit(task.getUser().getId(), index -> index.put(SearchHit.Type.TASK, taskId, title, description));
+    }
+
+    // Пачка задач пользователя создана
+    public void onTasksSaved(Long userId, Collection<Task> tasks) {
+        List<SearchDocument> documents = tasks.stream()
+                .map(task -> new SearchDocument(task.getId(), task.getTitle(), task.getDescription()))
+                .toList();
+        afterCommit(userId, index -> documents.forEach(document -> index.put(SearchHit.Type.TASK,
+                document.id(), document.title(), document.description())));
+    }
+
+    // Задачи пользователя удалены; отсутствующие в индексе id пропускаются
+    public void onTasksDeleted(Long userId, Collection<Long> taskIds) {
+        List<Long> ids = List.copyOf(taskIds);
+        afterCommit(userId, index -> ids.forEach(id -> index.remove(SearchHit.Type.TASK, id)));
+    }
+
+    // Проект создан или изменен
+    public void onProjectSaved(Project project) {
+        String title = project.getTitle();
+        String description = project.getDescription();
+        long projectId = project.getId();
+        afterCommit(project.getUser().getId(),
+                index -> index.put(SearchHit.Type.PROJECT, projectId, title, description));
+    }
+
+    // Проект удален
+    public void onProjectDeleted(Long userId, Long projectId) {
+        afterCommit(userId, index -> index.remove(SearchHit.Type.PROJECT, projectId));
+    }
+
+    // Сбросить индекс пользователя сейчас и после завершения текущей транзакции
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+        log.debug("Search index evicted for user ID: {}", userId);
+    }
+
+    // Статистика попаданий и промахов
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    // Метрики кэша индексов (попадания, промахи, вытеснения, размер)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "search-index");
+    }
+
+    // Применить изменение после фиксации транзакции (или сразу, если транзакции нет);
+    // computeIfPresent заново взвешивает индекс и ждет построения, если оно идет
+    private void afterCommit(Long userId, Consumer<UserSearchIndex> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(userId, change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(userId, change);
+            }
+        });
+    }
+
+    private void apply(Long userId, Consumer<UserSearchIndex> change) {
+        cache.asMap().computeIfPresent(userId, (id, index) -> {
+            change.accept(index);
+            return index;
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.lifestrat.service;
+
+import com.lifestrat.dto.SearchDocument;
+import com.lifestrat.dto.SearchHit;
+import com.lifestrat.repository.ProjectRepository;
+import com.lifestrat.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+@Transactional(readOnly = true)
+@Slf4j
+public class SearchService {
+
+    public static final int MAX_LIMIT = 100;
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final SearchIndex searchIndex;
+
+    @Autowired
+    public SearchService(TaskRepository taskRepository, ProjectRepository projectRepository,
+                         SearchIndex searchIndex) {
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.searchIndex = searchIndex;
+    }
+
+    // Полнотекстовый поиск по названиям и описаниям задач и проектов пользователя
+    // (префиксы и опечатки учитываются, результаты упорядочены по релевантности)
+    public List<SearchHit> search(Long userId, String query, int limit) {
+        log.debug("Searching tasks and projects for user ID: {}, limit: {}", userId, limit);
+
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must not exceed " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Search limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        return searchIndex.search(userId, query, limit, this::buildIndex);
+    }
+
+    // Построить индекс пользователя потоковым чтением текстовых полей без загрузки сущностей
+    private UserSearchIndex buildIndex(Long userId) {
+        long startNanos = System.nanoTime();
+        UserSearchIndex index = new UserSearchIndex();
+
+        try (Stream<SearchDocument> tasks = taskRepository.streamSearchDocumentsByUserId(userId)) {
+            tasks.forEach(task -> index.put(SearchHit.Type.TASK, task.id(), task.title(), task.description()));
+        }
+        try (Stream<SearchDocument> projects = projectRepository.streamSearchDocumentsByUserId(userId)) {
+            projects.forEach(project -> index.put(SearchHit.Type.PROJECT, project.id(), project.title(),
+                    project.description()));
+        }
+
+        log.info("Search index built for user ID: {} with {} documents in {} ms",
+                userId, index.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        return index;
+    }
+}
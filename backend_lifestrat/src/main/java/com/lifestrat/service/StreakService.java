@@ -0,0 +1,274 @@
+package com.lifestrat.service;
+
+import com.lifestrat.entity.UserStreak;
+import com.lifestrat.repository.TaskRepository;
+import com.lifestrat.repository.UserRepository;
+import com.lifestrat.repository.UserStreakRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Инкрементальный учет серий дней с выполненными задачами.
+ * Днем выполнения задачи считается ее дедлайн (как и в исходном расчете статистики).
+ * Состояние пользователя создается лениво при первом чтении через {@link #rebuild(Long)};
+ * пока его нет, события изменения задач пропускаются - история в таблице tasks остается источником истины.
+ * Битовая карта покрывает не больше {@link #MAX_BITMAP_DAYS} дней (размер столбца day_bitmap): окно
+ * заканчивается через {@link #FUTURE_DAYS} дней от сегодняшнего, дни вне окна в серии не учитываются.
+ */
+@Service
+@Transactional
+@Slf4j
+public class StreakService {
+
+    static final int MAX_BITMAP_DAYS = UserStreak.MAX_BITMAP_BYTES * Byte.SIZE;
+    static final int FUTURE_DAYS = 36_525;
+
+    private final UserStreakRepository userStreakRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+
+    @Autowired
+    public StreakService(UserStreakRepository userStreakRepository, TaskRepository taskRepository,
+                         UserRepository userRepository) {
+        this.userStreakRepository = userStreakRepository;
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+    }
+
+    // Получить состояние серий пользователя, построив его из истории задач при отсутствии
+    public UserStreak getStreak(Long userId) {
+        log.debug("Getting streak state for user ID: {}", userId);
+        return userStreakRepository.findById(userId)
+                .orElseGet(() -> rebuild(userId));
+    }
+
+    // Текущая серия на дату today: количество подряд идущих дней, заканчивающихся сегодня
+    public long getCurrentStreak(UserStreak streak, LocalDate today) {
+        LocalDate lastDay = streak.getLastCompletionDay();
+        if (lastDay == null || lastDay.isBefore(today)) {
+            return 0;
+        }
+        if (lastDay.isEqual(today)) {
+            return streak.getCurrentStreak();
+        }
+
+        // Есть выполненные задачи с дедлайном в будущем - считаем серию по битовой карте
+        BitSet days = BitSet.valueOf(streak.getDayBitmap());
+        long index = ChronoUnit.DAYS.between(streak.getBitmapOrigin(), today);
+        if (index < 0 || index >= days.length() || !days.get((int) index)) {
+            return 0;
+        }
+        return runEndingAt(days, (int) index);
+    }
+
+    // Задача стала выполненной в день day
+    public void onTaskCompleted(Long userId, LocalDate day) {
+        onTasksCompleted(userId, List.of(day));
+    }
+
+    // Несколько задач стали выполненными (пакетное создание): одна блокировка и один пересчет
+    public void onTasksCompleted(Long userId, Collection<LocalDate> completedDays) {
+        onCompletionDaysChanged(userId, Collections.emptyList(), completedDays);
+    }
+
+    // Массовое изменение задач: из дней removedDays выполненные задачи ушли, в дни addedDays - появились.
+    // Вызывается после изменения таблицы задач; день из removedDays остается в серии,
+    // если на него есть другие выполненные задачи
+    public void onCompletionDaysChanged(Long userId, Collection<LocalDate> removedDays,
+                                        Collection<LocalDate> addedDays) {
+        if (removedDays.isEmpty() && addedDays.isEmpty()) {
+            return;
+        }
+        List<LocalDate> daysInWindow = inWindow(addedDays, LocalDate.now());
+        Optional<UserStreak> state = userStreakRepository.findForUpdate(userId);
+        if (state.isEmpty()) {
+            return;
+        }
+
+        UserStreak streak = state.get();
+        BitSet days = BitSet.valueOf(streak.getDayBitmap());
+
+        if (!removedDays.isEmpty() && streak.getBitmapOrigin() != null) {
+            Set<LocalDate> stillCompleted =
+                    new HashSet<>(taskRepository.findCompletedDaysByUserIdAndDeadlineIn(userId, removedDays));
+            for (LocalDate day : removedDays) {
+                if (!stillCompleted.contains(day)) {
+                    clear(days, streak.getBitmapOrigin(), day);
+                }
+            }
+        }
+
+        if (!daysInWindow.isEmpty()) {
+            LocalDate firstDay = Collections.min(daysInWindow);
+            if (streak.getBitmapOrigin() == null) {
+                streak.setBitmapOrigin(firstDay);
+            } else if (firstDay.isBefore(streak.getBitmapOrigin())) {
+                // Сдвигаем карту, чтобы самый ранний новый день стал нулевым битом
+                int shift = (int) ChronoUnit.DAYS.between(firstDay, streak.getBitmapOrigin());
+                days = shift(days, shift);
+                streak.setBitmapOrigin(firstDay);
+            }
+
+            for (LocalDate day : daysInWindow) {
+                days.set((int) ChronoUnit.DAYS.between(streak.getBitmapOrigin(), day));
+            }
+        }
+
+        recompute(streak, days);
+        userStreakRepository.save(streak);
+        log.debug("Streak updated after bulk change for user ID: {}. Current: {}, max: {}",
+                userId, streak.getCurrentStreak(), streak.getMaxStreak());
+    }
+
+    // Задача перестала быть выполненной (снята отметка или удалена) в день day
+    public void onTaskUncompleted(Long userId, LocalDate day) {
+        Optional<UserStreak> state = userStreakRepository.findForUpdate(userId);
+        if (state.isEmpty()) {
+            return;
+        }
+
+        // День остается в серии, если на него есть другие выполненные задачи
+        if (taskRepository.existsByUserIdAndCompletedTrueAndDeadline(userId, day)) {
+            return;
+        }
+
+        UserStreak streak = state.get();
+        BitSet days = BitSet.valueOf(streak.getDayBitmap());
+        if (streak.getBitmapOrigin() == null || !clear(days, streak.getBitmapOrigin(), day)) {
+            return;
+        }
+        recompute(streak, days);
+        userStreakRepository.save(streak);
+        log.debug("Streak updated after un-completion for user ID: {}. Current: {}, max: {}",
+                userId, streak.getCurrentStreak(), streak.getMaxStreak());
+    }
+
+    // Обработать изменение статуса и/или дедлайна задачи
+    public void onTaskChanged(Long userId, boolean wasCompleted, LocalDate previousDay,
+                              boolean completed, LocalDate day) {
+        boolean sameDay = Objects.equals(previousDay, day);
+
+        if (wasCompleted && (!completed || !sameDay)) {
+            onTaskUncompleted(userId, previousDay);
+        }
+        if (completed && (!wasCompleted || !sameDay)) {
+            onTaskCompleted(userId, day);
+        }
+    }
+
+    // Полностью перестроить состояние серий из таблицы задач (бэкфилл или восстановление).
+    // Строка пользователя блокируется до чтения состояния: параллельное первое построение ждет
+    // и обновляет уже созданную запись вместо повторной вставки
+    public UserStreak rebuild(Long userId) {
+        log.debug("Rebuilding streak state for user ID: {}", userId);
+        userRepository.findForUpdate(userId);
+
+        List<LocalDate> completedDays = inWindow(taskRepository.findCompletedDaysByUserId(userId), LocalDate.now());
+        UserStreak streak = userStreakRepository.findForUpdate(userId)
+                .orElseGet(() -> new UserStreak(userId));
+
+        BitSet days = new BitSet();
+        LocalDate origin = completedDays.isEmpty() ? null : completedDays.get(0);
+        for (LocalDate day : completedDays) {
+            days.set((int) ChronoUnit.DAYS.between(origin, day));
+        }
+
+        streak.setBitmapOrigin(origin);
+        recompute(streak, days);
+        UserStreak savedStreak = userStreakRepository.save(streak);
+
+        log.info("Streak state rebuilt for user ID: {}. Completion days: {}, current: {}, max: {}",
+                userId, completedDays.size(), savedStreak.getCurrentStreak(), savedStreak.getMaxStreak());
+        return savedStreak;
+    }
+
+    // Пересчитать производные поля по битовой карте; стоимость пропорциональна числу серий, а не задач
+    private void recompute(UserStreak streak, BitSet days) {
+        if (days.isEmpty()) {
+            streak.setBitmapOrigin(null);
+            streak.setDayBitmap(new byte[0]);
+            streak.setLastCompletionDay(null);
+            streak.setCurrentStreak(0);
+            streak.setMaxStreak(0);
+            return;
+        }
+
+        // Карта дольше окна (окно сдвинулось со временем) - отбрасываем самые ранние дни
+        if (days.length() > MAX_BITMAP_DAYS) {
+            int overflow = days.length() - MAX_BITMAP_DAYS;
+            days = days.get(overflow, days.length());
+            streak.setBitmapOrigin(streak.getBitmapOrigin().plusDays(overflow));
+        }
+
+        // Убираем ведущие нули, чтобы карта начиналась с первого дня выполнения
+        int firstIndex = days.nextSetBit(0);
+        if (firstIndex > 0) {
+            days = days.get(firstIndex, days.length());
+            streak.setBitmapOrigin(streak.getBitmapOrigin().plusDays(firstIndex));
+        }
+
+        int maxRun = 0;
+        for (int start = days.nextSetBit(0); start >= 0; ) {
+            int end = days.nextClearBit(start);
+            maxRun = Math.max(maxRun, end - start);
+            start = days.nextSetBit(end);
+        }
+
+        int lastIndex = days.length() - 1;
+        streak.setDayBitmap(days.toByteArray());
+        streak.setLastCompletionDay(streak.getBitmapOrigin().plusDays(lastIndex));
+        streak.setCurrentStreak(runEndingAt(days, lastIndex));
+        streak.setMaxStreak(maxRun);
+    }
+
+    // Дни из окна битовой карты на дату today, в исходном порядке
+    private List<LocalDate> inWindow(Collection<LocalDate> days, LocalDate today) {
+        LocalDate last = today.plusDays(FUTURE_DAYS);
+        LocalDate first = last.minusDays(MAX_BITMAP_DAYS - 1);
+        List<LocalDate> result = days.stream()
+                .filter(day -> !day.isBefore(first) && !day.isAfter(last))
+                .toList();
+        if (result.size() < days.size()) {
+            log.debug("Ignored {} completion days outside of streak window {} - {}",
+                    days.size() - result.size(), first, last);
+        }
+        return result;
+    }
+
+    // Снять бит дня day; false, если день не попадает в карту
+    private boolean clear(BitSet days, LocalDate origin, LocalDate day) {
+        long index = ChronoUnit.DAYS.between(origin, day);
+        if (index < 0 || index >= days.length()) {
+            return false;
+        }
+        days.clear((int) index);
+        return true;
+    }
+
+    // Длина серии установленных битов, заканчивающейся в позиции index
+    private int runEndingAt(BitSet days, int index) {
+        return index - days.previousClearBit(index);
+    }
+
+    // Сдвинуть все биты на shift позиций вправо
+    private BitSet shift(BitSet days, int shift) {
+        BitSet shifted = new BitSet(days.length() + shift);
+        for (int i = days.nextSetBit(0); i >= 0; i = days.nextSetBit(i + 1)) {
+            shifted.set(i + shift);
+        }
+        return shifted;
+    }
+}
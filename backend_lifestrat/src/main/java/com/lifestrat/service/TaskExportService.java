@@ -0,0 +1,114 @@
+package com.lifestrat.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lifestrat.dto.TaskExportRow;
+import com.lifestrat.entity.Task;
+import com.lifestrat.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Потоковый экспорт задач пользователя в NDJSON или CSV.
+ * Строки пишутся в выходной поток по мере чтения из курсора БД, а каждая прочитанная сущность
+ * отсоединяется от контекста персистентности - расход памяти не зависит от числа задач.
+ */
+@Service
+@Transactional(readOnly = true)
+@Slf4j
+public class TaskExportService {
+
+    static final String CSV_HEADER = "id,title,description,completed,deadline,priority," +
+            "estimatedTimeMinutes,energyCost,type,projectId,lifeSphereId";
+
+    private final TaskRepository taskRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public TaskExportService(TaskRepository taskRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.taskRepository = taskRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    // Экспорт в NDJSON: один JSON-объект задачи на строку
+    public long exportNdjson(Long userId, OutputStream outputStream) throws IOException {
+        log.debug("Exporting tasks as NDJSON for user ID: {}", userId);
+        return export(userId, outputStream, null, (row, writer) -> {
+            writer.write(objectMapper.writeValueAsString(row));
+            writer.write('\n');
+        });
+    }
+
+    // Экспорт в CSV с заголовком (RFC 4180)
+    public long exportCsv(Long userId, OutputStream outputStream) throws IOException {
+        log.debug("Exporting tasks as CSV for user ID: {}", userId);
+        return export(userId, outputStream, CSV_HEADER, (row, writer) -> {
+            writer.write(csvLine(row));
+            writer.write("\r\n");
+        });
+    }
+
+    private long export(Long userId, OutputStream outputStream, String header, RowWriter rowWriter) throws IOException {
+        // Поток ответа не закрываем - им управляет контейнер сервлетов
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (header != null) {
+            writer.write(header);
+            writer.write("\r\n");
+        }
+
+        long exported = 0;
+        try (Stream<Task> tasks = taskRepository.streamAllByUserId(userId)) {
+            for (Task task : (Iterable<Task>) tasks::iterator) {
+                rowWriter.write(TaskExportRow.from(task), writer);
+                entityManager.detach(task);
+                exported++;
+            }
+        }
+        writer.flush();
+
+        log.info("Exported {} tasks for user ID: {}", exported, userId);
+        return exported;
+    }
+
+    private String csvLine(TaskExportRow row) {
+        return String.join(",",
+                csv(row.id()),
+                csv(row.title()),
+                csv(row.description()),
+                csv(row.completed()),
+                csv(row.deadline()),
+                csv(row.priority()),
+                csv(row.estimatedTimeMinutes()),
+                csv(row.energyCost()),
+                csv(row.type()),
+                csv(row.projectId()),
+                csv(row.lifeSphereId()));
+    }
+
+    // Экранировать значение: кавычки удваиваются, поле с разделителями берется в кавычки
+    private String csv(Object value) {
+        String text = Objects.toString(value, "");
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(TaskExportRow row, Writer writer) throws IOException;
+    }
+}
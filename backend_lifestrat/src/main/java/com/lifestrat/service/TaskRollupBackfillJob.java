@@ -0,0 +1,116 @@
+package com.lifestrat.service;
+
+import com.lifestrat.dto.RollupBackfillReport;
+import com.lifestrat.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Перестроение дневных агрегатов задач всех пользователей из истории.
+ * Пользователи читаются страницами по id, каждая страница перестраивается параллельно в пуле
+ * (один пользователь - одна транзакция); следующая страница берется после завершения текущей,
+ * поэтому в работе не больше одной страницы. Ошибка по пользователю не останавливает остальных.
+ */
+@Component
+@Slf4j
+public class TaskRollupBackfillJob {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final TaskRollupService taskRollupService;
+    private final UserRepository userRepository;
+    private final boolean backfillOnStartup;
+    private final ExecutorService executor;
+
+    @Autowired
+    public TaskRollupBackfillJob(TaskRollupService taskRollupService,
+                                 UserRepository userRepository,
+                                 @Value("${analytics.rollups.backfill-threads:4}") int threads,
+                                 @Value("${analytics.rollups.backfill-on-startup:false}") boolean backfillOnStartup) {
+        this.taskRollupService = taskRollupService;
+        this.userRepository = userRepository;
+        this.backfillOnStartup = backfillOnStartup;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "rollup-backfill-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Первичное заполнение после развертывания (включается настройкой), не задерживает запуск приложения
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (backfillOnStartup) {
+            Thread thread = new Thread(this::backfillAll, "rollup-backfill-startup");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    // Перестроить агрегаты всех пользователей
+    public RollupBackfillReport backfillAll() {
+        log.info("Starting task rollups backfill");
+        long startTime = System.currentTimeMillis();
+
+        int usersProcessed = 0;
+        long rowsWritten = 0;
+        List<Long> failedUserIds = new ArrayList<>();
+        Long lastUserId = 0L;
+
+        List<Long> userIds;
+        do {
+            userIds = userRepository.findIdsAfter(lastUserId, PageRequest.of(0, PAGE_SIZE));
+
+            List<Future<Integer>> results = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                Callable<Integer> rebuild = () -> taskRollupService.rebuild(userId);
+                results.add(executor.submit(rebuild));
+            }
+
+            for (int i = 0; i < userIds.size(); i++) {
+                Long userId = userIds.get(i);
+                try {
+                    rowsWritten += results.get(i).get();
+                } catch (ExecutionException e) {
+                    log.error("Task rollups backfill failed for user ID: {}. Error: {}",
+                            userId, e.getCause().getMessage());
+                    failedUserIds.add(userId);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    results.forEach(result -> result.cancel(true));
+                    throw new IllegalStateException("Task rollups backfill interrupted", e);
+                }
+                usersProcessed++;
+                lastUserId = userId;
+            }
+        } while (userIds.size() == PAGE_SIZE);
+
+        RollupBackfillReport report = new RollupBackfillReport(
+                usersProcessed, rowsWritten, failedUserIds, System.currentTimeMillis() - startTime);
+        log.info("Task rollups backfill finished. Users: {}, rows: {}, failed: {}, took {} ms",
+                report.usersProcessed(), report.rowsWritten(), failedUserIds.size(), report.durationMillis());
+        return report;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,112 @@
+package com.lifestrat.service;
+
+import com.lifestrat.dto.TaskRollupBucketDto;
+import com.lifestrat.entity.DailyTaskRollup;
+import com.lifestrat.entity.TaskCounters;
+import com.lifestrat.repository.DailyTaskRollupRepository;
+import com.lifestrat.repository.TaskRepository;
+import com.lifestrat.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Дневные агрегаты задач по сферам жизни (daily_task_rollups) - источник трендов аналитики.
+ * При изменении задач пересчитываются только затронутые дни пользователя одной группировкой
+ * по индексу (user_id, deadline), без дельт, поэтому агрегаты не накапливают расхождений.
+ * Пересчеты одного пользователя сериализуются блокировкой его строки users: следующая транзакция
+ * группирует уже зафиксированное состояние. Историю до появления агрегатов строит {@link TaskRollupBackfillJob}.
+ */
+@Service
+@Transactional
+@Slf4j
+public class TaskRollupService {
+
+    private final DailyTaskRollupRepository dailyTaskRollupRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+
+    private record RollupKey(LocalDate day, Long lifeSphereId) {
+    }
+
+    @Autowired
+    public TaskRollupService(DailyTaskRollupRepository dailyTaskRollupRepository, TaskRepository taskRepository,
+                             UserRepository userRepository) {
+        this.dailyTaskRollupRepository = dailyTaskRollupRepository;
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+    }
+
+    // Пересчитать агрегаты пользователя за дни days (дедлайны задач до и после изменения)
+    public void refreshDays(Long userId, Collection<LocalDate> days) {
+        if (days.isEmpty()) {
+            return;
+        }
+        Set<LocalDate> distinctDays = new HashSet<>(days);
+        userRepository.findForUpdate(userId);
+
+        Map<RollupKey, TaskCounters> actual =
+                toCounters(taskRepository.aggregateRollupBucketsByUserIdAndDeadlineIn(userId, distinctDays));
+
+        List<DailyTaskRollup> changed = new ArrayList<>();
+        List<DailyTaskRollup> emptied = new ArrayList<>();
+        for (DailyTaskRollup rollup : dailyTaskRollupRepository.findAllByUserIdAndDayIn(userId, distinctDays)) {
+            TaskCounters counters = actual.remove(new RollupKey(rollup.getDay(), rollup.getLifeSphereId()));
+            if (counters == null) {
+                emptied.add(rollup);
+            } else if (!counters.equals(rollup.getCounters())) {
+                rollup.setCounters(counters);
+                changed.add(rollup);
+            }
+        }
+        actual.forEach((key, counters) -> changed.add(newRollup(userId, key, counters)));
+
+        dailyTaskRollupRepository.deleteAll(emptied);
+        dailyTaskRollupRepository.saveAll(changed);
+        log.debug("Task rollups refreshed for user ID: {}. Days: {}, rows written: {}, removed: {}",
+                userId, distinctDays.size(), changed.size(), emptied.size());
+    }
+
+    // Полностью перестроить агрегаты пользователя из таблицы задач; возвращает число строк агрегатов
+    public int rebuild(Long userId) {
+        log.debug("Rebuilding task rollups for user ID: {}", userId);
+        userRepository.findForUpdate(userId);
+
+        dailyTaskRollupRepository.deleteByUserId(userId);
+        List<DailyTaskRollup> rollups = toCounters(taskRepository.aggregateRollupBucketsByUserId(userId))
+                .entrySet().stream()
+                .map(entry -> newRollup(userId, entry.getKey(), entry.getValue()))
+                .toList();
+        dailyTaskRollupRepository.saveAll(rollups);
+
+        log.info("Task rollups rebuilt for user ID: {}. Rows: {}", userId, rollups.size());
+        return rollups.size();
+    }
+
+    // Сложить группы задач в счетчики по (день, сфера)
+    private Map<RollupKey, TaskCounters> toCounters(List<TaskRollupBucketDto> buckets) {
+        Map<RollupKey, TaskCounters> countersByKey = new HashMap<>();
+        for (TaskRollupBucketDto bucket : buckets) {
+            countersByKey.computeIfAbsent(new RollupKey(bucket.day(), bucket.lifeSphereId()), key -> new TaskCounters())
+                    .apply(bucket.priority(), bucket.type(), bucket.energyCost(), bucket.completed(),
+                            bucket.taskCount(), bucket.totalMinutes());
+        }
+        return countersByKey;
+    }
+
+    private static DailyTaskRollup newRollup(Long userId, RollupKey key, TaskCounters counters) {
+        DailyTaskRollup rollup = new DailyTaskRollup(userId, key.day(), key.lifeSphereId());
+        rollup.setCounters(counters);
+        return rollup;
+    }
+}
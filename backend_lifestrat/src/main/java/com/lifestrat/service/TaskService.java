@@ -1,26 +1,49 @@
 package com.lifestrat.service;
 
+import com.lifestrat.dto.CursorPage;
+import com.lifestrat.dto.PageCursor;
+import com.lifestrat.dto.TaskBucketDto;
+import com.lifestrat.dto.TaskSummary;
 import com.lifestrat.entity.Task;
 import com.lifestrat.entity.TaskType;
 import com.lifestrat.repository.TaskRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 @Slf4j
 public class TaskService {
 
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private final TaskRepository taskRepository;
+    private final StreakService streakService;
+    private final TaskStatsService taskStatsService;
+    private final SearchIndex searchIndex;
+    private final TaskRollupService taskRollupService;
 
     @Autowired
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, StreakService streakService,
+                       TaskStatsService taskStatsService, SearchIndex searchIndex,
+                       TaskRollupService taskRollupService) {
         this.taskRepository = taskRepository;
+        this.streakService = streakService;
+        this.taskStatsService = taskStatsService;
+        this.searchIndex = searchIndex;
+        this.taskRollupService = taskRollupService;
     }
 
     // Получить все задачи пользователя
@@ -29,6 +52,24 @@ public class TaskService {
         return taskRepository.findAllByUserId(userId);
     }
 
+    // Получить страницу задач пользователя (keyset по дедлайну и id) в виде кратких представлений
+    public CursorPage<TaskSummary> findPageByUserId(Long userId, String cursor, int size) {
+        log.debug("Getting tasks page for user ID: {}, size: {}", userId, size);
+        CursorPage.validateSize(size);
+
+        // Запрашиваем на одну строку больше, чтобы узнать, есть ли следующая страница
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<TaskSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = taskRepository.findPageByUserId(userId, limit);
+        } else {
+            PageCursor position = PageCursor.decodeWithDeadline(cursor);
+            rows = taskRepository.findPageByUserIdAfter(userId, position.deadline(), position.id(), limit);
+        }
+
+        return CursorPage.of(rows, size, task -> new PageCursor(task.deadline(), task.id()));
+    }
+
     // Получить задачи пользователя по типу
     public List<Task> findAllByUserIdAndType(Long userId, TaskType type) {
         log.debug("Getting tasks for user ID: {} and type: {}", userId, type);
@@ -38,9 +79,7 @@ public class TaskService {
     // Найти задачу по ID, убедившись, что она принадлежит пользователю
     public Optional<Task> findByIdAndUserId(Long taskId, Long userId) {
         log.debug("Finding task by ID: {} for user ID: {}", taskId, userId);
-        return findAllByUserId(userId).stream()
-                .filter(task -> task.getId().equals(taskId))
-                .findFirst();
+        return taskRepository.findByIdAndUserId(taskId, userId);
     }
 
     // Сохранить новую задачу
@@ -55,14 +94,67 @@ public class TaskService {
         }
 
         Task savedTask = taskRepository.save(task);
+
+        taskStatsService.addTask(savedTask);
+        if (savedTask.isCompleted()) {
+            streakService.onTaskCompleted(userId, savedTask.getDeadline());
+        }
+        taskRollupService.refreshDays(userId, List.of(savedTask.getDeadline()));
+        searchIndex.onTaskSaved(savedTask);
+
         log.info("Task created successfully with ID: {} for user ID: {}", savedTask.getId(), userId);
         return savedTask;
     }
 
+    // Сохранить пачку новых задач пользователя (синхронизация офлайн-клиентов).
+    // Принадлежность проверяется один раз для всей пачки в памяти, вставки уходят JDBC batch-ами,
+    // счетчики и серии обновляются одной операцией на пачку
+    public List<Task> createAll(List<Task> tasks, Long userId) {
+        log.debug("Creating {} tasks for user ID: {}", tasks.size(), userId);
+
+        if (tasks.isEmpty() || tasks.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " tasks");
+        }
+
+        for (Task task : tasks) {
+            if (task.getUser() == null || !userId.equals(task.getUser().getId())) {
+                log.warn("Task user association mismatch in batch for user ID: {}", userId);
+                throw new IllegalArgumentException("Task must be associated with the correct user");
+            }
+            if (task.getLifeSphere() == null || !userId.equals(task.getLifeSphere().getUser().getId())) {
+                log.warn("Task life sphere association mismatch in batch for user ID: {}", userId);
+                throw new IllegalArgumentException("Task life sphere must belong to the user");
+            }
+            if (task.getProject() != null && !userId.equals(task.getProject().getUser().getId())) {
+                log.warn("Task project association mismatch in batch for user ID: {}", userId);
+                throw new IllegalArgumentException("Task project must belong to the user");
+            }
+        }
+
+        List<Task> savedTasks = taskRepository.saveAll(tasks);
+
+        taskStatsService.addTasks(userId, savedTasks);
+        Set<LocalDate> completedDays = savedTasks.stream()
+                .filter(Task::isCompleted)
+                .map(Task::getDeadline)
+                .collect(Collectors.toSet());
+        streakService.onTasksCompleted(userId, completedDays);
+        taskRollupService.refreshDays(userId, savedTasks.stream().map(Task::getDeadline).collect(Collectors.toSet()));
+        searchIndex.onTasksSaved(userId, savedTasks);
+
+        log.info("Created {} tasks in batch for user ID: {}", savedTasks.size(), userId);
+        return savedTasks;
+    }
+
     // Обновить данные задачи
     public Task update(Task taskFromDb, Task taskFromRequest) {
         log.debug("Updating task ID: {}", taskFromDb.getId());
 
+        // Запоминаем состояние до изменения для инкрементального пересчета серий и счетчиков
+        boolean wasCompleted = taskFromDb.isCompleted();
+        LocalDate previousDeadline = taskFromDb.getDeadline();
+        taskStatsService.removeTask(taskFromDb);
+
         // Копируем все поля из taskFromRequest в taskFromDb
         taskFromDb.setTitle(taskFromRequest.getTitle());
         taskFromDb.setDescription(taskFromRequest.getDescription());
@@ -73,6 +165,14 @@ public class TaskService {
         taskFromDb.setCompleted(taskFromRequest.isCompleted());
 
         Task updatedTask = taskRepository.save(taskFromDb);
+
+        taskStatsService.addTask(updatedTask);
+        streakService.onTaskChanged(updatedTask.getUser().getId(), wasCompleted, previousDeadline,
+                updatedTask.isCompleted(), updatedTask.getDeadline());
+        taskRollupService.refreshDays(updatedTask.getUser().getId(),
+                List.of(previousDeadline, updatedTask.getDeadline()));
+        searchIndex.onTaskSaved(updatedTask);
+
         log.info("Task updated successfully with ID: {}", updatedTask.getId());
         return updatedTask;
     }
@@ -81,6 +181,14 @@ public class TaskService {
     public void delete(Task task) {
         log.debug("Deleting task ID: {}", task.getId());
         taskRepository.delete(task);
+
+        taskStatsService.removeTask(task);
+        if (task.isCompleted()) {
+            streakService.onTaskUncompleted(task.getUser().getId(), task.getDeadline());
+        }
+        taskRollupService.refreshDays(task.getUser().getId(), List.of(task.getDeadline()));
+        searchIndex.onTasksDeleted(task.getUser().getId(), List.of(task.getId()));
+
         log.info("Task deleted successfully with ID: {}", task.getId());
     }
 
@@ -94,9 +202,98 @@ public class TaskService {
                     return new RuntimeException("Task not found or access denied");
                 });
 
+        boolean wasCompleted = task.isCompleted();
+        if (!wasCompleted) {
+            taskStatsService.removeTask(task);
+        }
+
         task.setCompleted(true);
         Task completedTask = taskRepository.save(task);
+
+        if (!wasCompleted) {
+            taskStatsService.addTask(completedTask);
+            streakService.onTaskCompleted(userId, completedTask.getDeadline());
+            taskRollupService.refreshDays(userId, List.of(completedTask.getDeadline()));
+        }
+
         log.info("Task marked as completed - Task ID: {}, User ID: {}", taskId, userId);
         return completedTask;
     }
-}
\ No newline at end of file
+
+    // Отметить выполненными задачи пользователя из списка одним UPDATE; возвращает число измененных задач.
+    // Уже выполненные и чужие задачи пропускаются
+    public int markAllAsCompleted(Collection<Long> taskIds, Long userId) {
+        log.debug("Marking {} tasks as completed for user ID: {}", taskIds.size(), userId);
+        validateBulkIds(taskIds);
+
+        // Состояние затрагиваемых задач до изменения - для дельты счетчиков и серий
+        List<TaskBucketDto> pendingBuckets = taskRepository.aggregateBucketsByUserIdAndIdIn(userId, taskIds).stream()
+                .filter(bucket -> !bucket.completed())
+                .toList();
+        List<LocalDate> completedDays = taskRepository.findDeadlinesByUserIdAndIdIn(userId, taskIds, false);
+
+        int updated = taskRepository.markCompletedByUserIdAndIdIn(userId, taskIds);
+
+        List<TaskBucketDto> completedBuckets = pendingBuckets.stream()
+                .map(bucket -> new TaskBucketDto(bucket.priority(), bucket.type(), bucket.energyCost(), true,
+                        bucket.taskCount(), bucket.totalMinutes()))
+                .toList();
+        taskStatsService.applyBulkChange(userId, pendingBuckets, completedBuckets, updated);
+        streakService.onTasksCompleted(userId, completedDays);
+        taskRollupService.refreshDays(userId, completedDays);
+
+        log.info("Marked {} tasks as completed for user ID: {}", updated, userId);
+        return updated;
+    }
+
+    // Сдвинуть дедлайны задач пользователя из списка на days дней одним UPDATE; возвращает число измененных задач
+    public int shiftDeadlines(Collection<Long> taskIds, int days, Long userId) {
+        log.debug("Shifting deadlines of {} tasks by {} days for user ID: {}", taskIds.size(), days, userId);
+        validateBulkIds(taskIds);
+        if (days == 0) {
+            throw new IllegalArgumentException("Deadline shift must not be zero");
+        }
+
+        // Счетчики от дедлайна не зависят; серии переносят дни выполненных задач, дневные агрегаты - всех
+        List<LocalDate> previousDays = taskRepository.findDeadlinesByUserIdAndIdIn(userId, taskIds, true);
+        List<LocalDate> affectedDays = taskRepository.findAllDeadlinesByUserIdAndIdIn(userId, taskIds);
+
+        int updated = taskRepository.shiftDeadlineByUserIdAndIdIn(userId, taskIds, days);
+
+        List<LocalDate> shiftedDays = previousDays.stream()
+                .map(day -> day.plusDays(days))
+                .toList();
+        streakService.onCompletionDaysChanged(userId, previousDays, shiftedDays);
+        taskRollupService.refreshDays(userId, Stream.concat(affectedDays.stream(),
+                affectedDays.stream().map(day -> day.plusDays(days))).toList());
+
+        log.info("Shifted deadlines of {} tasks by {} days for user ID: {}", updated, days, userId);
+        return updated;
+    }
+
+    // Удалить задачи пользователя из списка одним DELETE; возвращает число удаленных задач
+    public int deleteAll(Collection<Long> taskIds, Long userId) {
+        log.debug("Deleting {} tasks for user ID: {}", taskIds.size(), userId);
+        validateBulkIds(taskIds);
+
+        List<TaskBucketDto> buckets = taskRepository.aggregateBucketsByUserIdAndIdIn(userId, taskIds);
+        List<LocalDate> completedDays = taskRepository.findDeadlinesByUserIdAndIdIn(userId, taskIds, true);
+        List<LocalDate> affectedDays = taskRepository.findAllDeadlinesByUserIdAndIdIn(userId, taskIds);
+
+        int deleted = taskRepository.deleteByUserIdAndIdIn(userId, taskIds);
+
+        taskStatsService.applyBulkChange(userId, buckets, List.of(), deleted);
+        streakService.onCompletionDaysChanged(userId, completedDays, List.of());
+        taskRollupService.refreshDays(userId, affectedDays);
+        searchIndex.onTasksDeleted(userId, taskIds);
+
+        log.info("Deleted {} tasks for user ID: {}", deleted, userId);
+        return deleted;
+    }
+
+    private void validateBulkIds(Collection<Long> taskIds) {
+        if (taskIds.isEmpty() || taskIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " tasks");
+        }
+    }
+}
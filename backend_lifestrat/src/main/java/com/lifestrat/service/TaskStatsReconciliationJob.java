@@ -0,0 +1,67 @@
+package com.lifestrat.service;
+
+import com.lifestrat.dto.StatsReconciliationReport;
+import com.lifestrat.repository.UserTaskStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@Slf4j
+public class TaskStatsReconciliationJob {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final TaskStatsService taskStatsService;
+    private final UserTaskStatsRepository userTaskStatsRepository;
+
+    @Autowired
+    public TaskStatsReconciliationJob(TaskStatsService taskStatsService,
+                                      UserTaskStatsRepository userTaskStatsRepository) {
+        this.taskStatsService = taskStatsService;
+        this.userTaskStatsRepository = userTaskStatsRepository;
+    }
+
+    // Плановая сверка счетчиков (по умолчанию ежедневно в 03:30)
+    @Scheduled(cron = "${analytics.task-stats.reconcile-cron:0 30 3 * * *}")
+    public void runScheduled() {
+        reconcileAll();
+    }
+
+    // Сверить счетчики всех пользователей; каждый пользователь обрабатывается в своей транзакции
+    public StatsReconciliationReport reconcileAll() {
+        log.info("Starting task counters reconciliation");
+        long startTime = System.currentTimeMillis();
+
+        int usersChecked = 0;
+        List<Long> driftedUserIds = new ArrayList<>();
+        Long lastUserId = 0L;
+
+        List<Long> userIds;
+        do {
+            userIds = userTaskStatsRepository.findUserIdsAfter(lastUserId, PageRequest.of(0, PAGE_SIZE));
+            for (Long userId : userIds) {
+                try {
+                    if (taskStatsService.reconcile(userId)) {
+                        driftedUserIds.add(userId);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Task counters reconciliation failed for user ID: {}. Error: {}", userId, e.getMessage());
+                }
+                usersChecked++;
+                lastUserId = userId;
+            }
+        } while (userIds.size() == PAGE_SIZE);
+
+        StatsReconciliationReport report = new StatsReconciliationReport(
+                usersChecked, driftedUserIds, System.currentTimeMillis() - startTime);
+        log.info("Task counters reconciliation finished. Users checked: {}, with drift: {}, took {} ms",
+                report.usersChecked(), driftedUserIds.size(), report.durationMillis());
+        return report;
+    }
+}
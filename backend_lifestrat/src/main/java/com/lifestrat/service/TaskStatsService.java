@@ -0,0 +1,148 @@
+package com.lifestrat.service;
+
+import com.lifestrat.dto.TaskBucketDto;
+import com.lifestrat.entity.Task;
+import com.lifestrat.entity.TaskCounters;
+import com.lifestrat.entity.UserTaskStats;
+import com.lifestrat.repository.TaskRepository;
+import com.lifestrat.repository.UserRepository;
+import com.lifestrat.repository.UserTaskStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Материализованные счетчики задач пользователя для аналитики.
+ * Строка счетчиков создается лениво при первом чтении под блокировкой строки пользователя; пока ее нет,
+ * изменения задач не учитываются, так как при создании счетчики выводятся из таблицы tasks целиком.
+ */
+@Service
+@Transactional
+@Slf4j
+public class TaskStatsService {
+
+    private final UserTaskStatsRepository userTaskStatsRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+
+    @Autowired
+    public TaskStatsService(UserTaskStatsRepository userTaskStatsRepository, TaskRepository taskRepository,
+                            UserRepository userRepository) {
+        this.userTaskStatsRepository = userTaskStatsRepository;
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+    }
+
+    // Получить счетчики пользователя, построив их из таблицы задач при отсутствии
+    public UserTaskStats getStats(Long userId) {
+        log.debug("Getting task counters for user ID: {}", userId);
+        return userTaskStatsRepository.findById(userId)
+                .orElseGet(() -> rebuild(userId));
+    }
+
+    // Учесть новую (или измененную) задачу в счетчиках
+    public void addTask(Task task) {
+        apply(task, 1);
+    }
+
+    // Учесть пачку новых задач одного пользователя: одна блокировка и одно сохранение строки счетчиков
+    public void addTasks(Long userId, Collection<Task> tasks) {
+        userTaskStatsRepository.findForUpdate(userId).ifPresent(stats -> {
+            tasks.forEach(task -> stats.getCounters().apply(task, 1));
+            userTaskStatsRepository.save(stats);
+        });
+    }
+
+    // Учесть массовую операцию над задачами: группы removed исключаются из счетчиков, группы added добавляются.
+    // Если число затронутых строк не совпало с группами (те же задачи изменены параллельно),
+    // счетчики перестраиваются из таблицы
+    public void applyBulkChange(Long userId, Collection<TaskBucketDto> removed, Collection<TaskBucketDto> added,
+                                int affectedRows) {
+        userTaskStatsRepository.findForUpdate(userId).ifPresent(stats -> {
+            long expectedRows = removed.stream().mapToLong(TaskBucketDto::taskCount).sum();
+            if (expectedRows != affectedRows) {
+                log.warn("Bulk change for user ID: {} affected {} rows, expected {}. Rebuilding task counters",
+                        userId, affectedRows, expectedRows);
+                stats.setCounters(deriveCounters(userId));
+                stats.setReconciledAt(LocalDateTime.now());
+            } else {
+                TaskCounters counters = stats.getCounters();
+                removed.forEach(bucket -> counters.apply(bucket.priority(), bucket.type(), bucket.energyCost(),
+                        bucket.completed(), -bucket.taskCount(), -bucket.totalMinutes()));
+                added.forEach(bucket -> counters.apply(bucket.priority(), bucket.type(), bucket.energyCost(),
+                        bucket.completed(), bucket.taskCount(), bucket.totalMinutes()));
+            }
+            userTaskStatsRepository.save(stats);
+        });
+    }
+
+    // Исключить удаленную (или изменяемую) задачу из счетчиков
+    public void removeTask(Task task) {
+        apply(task, -1);
+    }
+
+    private void apply(Task task, int sign) {
+        Long userId = task.getUser().getId();
+        userTaskStatsRepository.findForUpdate(userId).ifPresent(stats -> {
+            stats.getCounters().apply(task, sign);
+            userTaskStatsRepository.save(stats);
+        });
+    }
+
+    // Полностью перестроить счетчики пользователя из таблицы задач.
+    // Отсутствующую строку счетчиков нельзя заблокировать, поэтому перед ее созданием блокируется строка
+    // пользователя и поиск повторяется: параллельное первое чтение ждет и обновляет уже созданную запись
+    public UserTaskStats rebuild(Long userId) {
+        log.debug("Rebuilding task counters for user ID: {}", userId);
+
+        UserTaskStats stats = userTaskStatsRepository.findForUpdate(userId)
+                .orElseGet(() -> {
+                    userRepository.findForUpdate(userId);
+                    return userTaskStatsRepository.findForUpdate(userId)
+                            .orElseGet(() -> new UserTaskStats(userId));
+                });
+        stats.setCounters(deriveCounters(userId));
+        stats.setReconciledAt(LocalDateTime.now());
+
+        UserTaskStats savedStats = userTaskStatsRepository.save(stats);
+        log.info("Task counters rebuilt for user ID: {}. Tasks: {}", userId, savedStats.getCounters().getTaskCount());
+        return savedStats;
+    }
+
+    // Сверить счетчики с таблицей задач и исправить их; возвращает true, если найдено расхождение
+    public boolean reconcile(Long userId) {
+        Optional<UserTaskStats> state = userTaskStatsRepository.findForUpdate(userId);
+        if (state.isEmpty()) {
+            return false;
+        }
+
+        UserTaskStats stats = state.get();
+        TaskCounters actualCounters = deriveCounters(userId);
+        boolean drift = !actualCounters.equals(stats.getCounters());
+
+        if (drift) {
+            log.warn("Task counters drift detected for user ID: {}. Stored: {}, actual: {}",
+                    userId, stats.getCounters(), actualCounters);
+            stats.setCounters(actualCounters);
+        }
+
+        stats.setReconciledAt(LocalDateTime.now());
+        userTaskStatsRepository.save(stats);
+        return drift;
+    }
+
+    // Вывести счетчики из агрегатов по таблице задач (одна группировка в БД)
+    private TaskCounters deriveCounters(Long userId) {
+        TaskCounters counters = new TaskCounters();
+        for (TaskBucketDto bucket : taskRepository.aggregateBucketsByUserId(userId)) {
+            counters.apply(bucket.priority(), bucket.type(), bucket.energyCost(), bucket.completed(),
+                    bucket.taskCount(), bucket.totalMinutes());
+        }
+        return counters;
+    }
+}
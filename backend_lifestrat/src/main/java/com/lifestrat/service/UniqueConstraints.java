@@ -0,0 +1,24 @@
+package com.lifestrat.service;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+// Распознавание нарушений именованных уникальных ограничений в исключениях JDBC-драйвера
+final class UniqueConstraints {
+
+    private UniqueConstraints() {
+    }
+
+    // true, если исключение вызвано нарушением ограничения constraintName (имя ищется в цепочке причин)
+    static boolean isViolated(DataIntegrityViolationException exception, String constraintName) {
+        String name = constraintName.toLowerCase(Locale.ROOT);
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.toLowerCase(Locale.ROOT).contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,7 @@
+package com.lifestrat.service;
+
+// Аккаунт заблокирован (начато удаление): кэши аутентификации должны забыть пользователя
+public record UserDisabledEvent(
+        Long userId
+) {
+}
@@ -0,0 +1,266 @@
+package com.lifestrat.service;
+
+import com.lifestrat.dto.UserImportError;
+import com.lifestrat.dto.UserImportReport;
+import com.lifestrat.dto.UserImportRow;
+import com.lifestrat.entity.User;
+import com.lifestrat.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Массовый импорт пользователей (подключение организации из CSV).
+ * Строки читаются потоком и обрабатываются пачками: проверка полей и занятости имен/email
+ * (два запроса на пачку), параллельное хэширование паролей в {@link PasswordHasher},
+ * вставка пользователей и их стандартных сфер JDBC batch-ами в одной транзакции на пачку.
+ * Ошибочные строки попадают в отчет и не прерывают импорт; если пачка не записалась целиком,
+ * ее строки записываются по одной, чтобы найти виновную.
+ * Импорт запускается офлайн: файл из users.import.file обрабатывается в фоне после старта приложения,
+ * прогресс пишется в лог после каждой пачки.
+ */
+@Component
+@Slf4j
+public class UserImportJob {
+
+    private final UserImportService userImportService;
+    private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
+    private final int batchSize;
+    private final int jdbcBatchSize;
+    private final String importFile;
+
+    @Autowired
+    public UserImportJob(UserImportService userImportService,
+                         UserRepository userRepository,
+                         PasswordHasher passwordHasher,
+                         @Value("${users.import.batch-size:1000}") int batchSize,
+                         @Value("${users.import.jdbc-batch-size:100}") int jdbcBatchSize,
+                         @Value("${users.import.file:}") String importFile) {
+        if (batchSize <= 0 || jdbcBatchSize <= 0) {
+            throw new IllegalArgumentException("Import batch sizes must be positive");
+        }
+        this.userImportService = userImportService;
+        this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.batchSize = batchSize;
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.importFile = importFile;
+    }
+
+    // Импорт файла из настройки users.import.file, не задерживает запуск приложения
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (importFile != null && !importFile.isBlank()) {
+            Thread thread = new Thread(() -> importFileQuietly(Path.of(importFile)), "user-import-startup");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    // Импортировать CSV-файл "username,email,password"
+    public UserImportReport importFile(Path path) throws IOException {
+        log.info("Importing users from file: {}", path);
+        return importCsv(Files.newInputStream(path));
+    }
+
+    private void importFileQuietly(Path path) {
+        try {
+            importFile(path);
+        } catch (IOException | RuntimeException e) {
+            log.error("User import from file {} failed. Error: {}", path, e.getMessage());
+        }
+    }
+
+    // Импортировать CSV "username,email,password" (строка заголовка и пустые строки пропускаются)
+    public UserImportReport importCsv(InputStream inputStream) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            AtomicInteger lineNumber = new AtomicInteger();
+            Stream<UserImportRow> rows = reader.lines()
+                    .map(line -> {
+                        int rowNumber = lineNumber.incrementAndGet();
+                        return line.isBlank() ? null : UserImportRow.parseCsvLine(rowNumber, line);
+                    })
+                    .filter(Objects::nonNull)
+                    .filter(row -> !isHeader(row));
+            return importUsers(rows);
+        }
+    }
+
+    // Импортировать поток строк
+    public UserImportReport importUsers(Stream<UserImportRow> rows) {
+        log.info("Starting user import in batches of {}", batchSize);
+        long startTime = System.currentTimeMillis();
+
+        ImportState state = new ImportState();
+        List<UserImportRow> batch = new ArrayList<>(batchSize);
+        Iterator<UserImportRow> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            if (batch.size() == batchSize) {
+                importBatch(batch, state);
+                logProgress(state);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, state);
+            logProgress(state);
+        }
+
+        UserImportReport report = UserImportReport.of(state.totalRows, state.imported, state.errors,
+                state.hashingMillis, state.insertMillis, System.currentTimeMillis() - startTime);
+        log.info("User import finished. Rows: {}, imported: {}, failed: {}, took {} ms ({} rows/s)",
+                report.totalRows(), report.imported(), report.errors().size(), report.durationMillis(),
+                String.format("%.1f", report.rowsPerSecond()));
+        return report;
+    }
+
+    private void importBatch(List<UserImportRow> batch, ImportState state) {
+        state.totalRows += batch.size();
+
+        List<UserImportRow> validRows = new ArrayList<>(batch.size());
+        for (UserImportRow row : batch) {
+            String error = validate(row, state);
+            if (error != null) {
+                state.errors.add(new UserImportError(row.rowNumber(), row.username(), error));
+            } else {
+                validRows.add(row);
+            }
+        }
+        validRows = excludeExisting(validRows, state);
+        if (validRows.isEmpty()) {
+            return;
+        }
+
+        long hashingStart = System.currentTimeMillis();
+        List<String> encodedPasswords = passwordHasher.encodeAll(validRows.stream()
+                .map(UserImportRow::password)
+                .toList());
+        state.hashingMillis += System.currentTimeMillis() - hashingStart;
+
+        List<User> users = new ArrayList<>(validRows.size());
+        for (int i = 0; i < validRows.size(); i++) {
+            UserImportRow row = validRows.get(i);
+            User user = new User();
+            user.setUsername(row.username());
+            user.setEmail(row.email());
+            user.setPassword(encodedPasswords.get(i));
+            users.add(user);
+        }
+
+        long insertStart = System.currentTimeMillis();
+        try {
+            userImportService.insertBatch(users, jdbcBatchSize);
+            state.imported += users.size();
+        } catch (RuntimeException e) {
+            log.warn("Import batch of {} users failed, retrying row by row. Error: {}", users.size(), e.getMessage());
+            insertOneByOne(validRows, users, state);
+        }
+        state.insertMillis += System.currentTimeMillis() - insertStart;
+    }
+
+    private void logProgress(ImportState state) {
+        log.info("User import progress. Rows: {}, imported: {}, failed: {}",
+                state.totalRows, state.imported, state.errors.size());
+    }
+
+    private void insertOneByOne(List<UserImportRow> rows, List<User> users, ImportState state) {
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            // ID, выданный в откатившейся транзакции, не используется повторно
+            user.setId(null);
+            try {
+                userImportService.insertBatch(List.of(user), jdbcBatchSize);
+                state.imported++;
+            } catch (RuntimeException e) {
+                UserImportRow row = rows.get(i);
+                state.errors.add(new UserImportError(row.rowNumber(), row.username(), "Insert failed: " + e.getMessage()));
+            }
+        }
+    }
+
+    // Проверка полей по правилам регистрации и уникальности внутри файла; null - строка корректна
+    private String validate(UserImportRow row, ImportState state) {
+        if (row.username() == null) {
+            return "Row must contain username, email and password";
+        }
+        if (row.username().length() < 3 || row.username().length() > 50) {
+            return "Username must be between 3 and 50 characters";
+        }
+        if (row.email().isEmpty() || row.email().length() > 100 || !row.email().contains("@")) {
+            return "Email should be valid";
+        }
+        if (row.password().length() < 6) {
+            return "Password must be at least 6 characters";
+        }
+        if (!state.seenUsernames.add(row.username())) {
+            return "Duplicate username in import";
+        }
+        if (!state.seenEmails.add(row.email())) {
+            return "Duplicate email in import";
+        }
+        return null;
+    }
+
+    // Исключить строки с уже занятыми username или email (два запроса на пачку)
+    private List<UserImportRow> excludeExisting(List<UserImportRow> rows, ImportState state) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        Set<String> existingUsernames = new HashSet<>(userRepository.findExistingUsernames(
+                rows.stream().map(UserImportRow::username).toList()));
+        Set<String> existingEmails = new HashSet<>(userRepository.findExistingEmails(
+                rows.stream().map(UserImportRow::email).toList()));
+
+        List<UserImportRow> newRows = new ArrayList<>(rows.size());
+        for (UserImportRow row : rows) {
+            if (existingUsernames.contains(row.username())) {
+                state.errors.add(new UserImportError(row.rowNumber(), row.username(),
+                        "User with username '" + row.username() + "' already exists"));
+            } else if (existingEmails.contains(row.email())) {
+                state.errors.add(new UserImportError(row.rowNumber(), row.username(),
+                        "User with email '" + row.email() + "' already exists"));
+            } else {
+                newRows.add(row);
+            }
+        }
+        return newRows;
+    }
+
+    private static boolean isHeader(UserImportRow row) {
+        return row.rowNumber() == 1
+                && "username".equalsIgnoreCase(row.username())
+                && "email".equalsIgnoreCase(row.email());
+    }
+
+    // Накопленные результаты импорта
+    private static final class ImportState {
+        private final Set<String> seenUsernames = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<UserImportError> errors = new ArrayList<>();
+        private int totalRows;
+        private int imported;
+        private long hashingMillis;
+        private long insertMillis;
+    }
+}
@@ -0,0 +1,45 @@
+package com.lifestrat.service;
+
+import com.lifestrat.entity.User;
+import com.lifestrat.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Запись пачки импортируемых пользователей и их стандартных сфер в одной транзакции
+@Service
+@Transactional
+@Slf4j
+public class UserImportService {
+
+    private final UserRepository userRepository;
+    private final LifeSphereService lifeSphereService;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public UserImportService(UserRepository userRepository, LifeSphereService lifeSphereService,
+                             EntityManager entityManager) {
+        this.userRepository = userRepository;
+        this.lifeSphereService = lifeSphereService;
+        this.entityManager = entityManager;
+    }
+
+    // Вставить пользователей с уже захэшированными паролями и шесть сфер для каждого;
+    // ID берутся из пулов последовательностей, поэтому вставки группируются в JDBC batch-и размера jdbcBatchSize
+    public List<User> insertBatch(List<User> users, int jdbcBatchSize) {
+        log.debug("Inserting {} imported users", users.size());
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+
+        List<User> savedUsers = userRepository.saveAll(users);
+        lifeSphereService.createDefaultLifeSpheres(savedUsers);
+        entityManager.flush();
+
+        log.debug("Inserted {} imported users", savedUsers.size());
+        return savedUsers;
+    }
+}
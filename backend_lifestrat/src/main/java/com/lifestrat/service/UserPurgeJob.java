@@ -0,0 +1,160 @@
+package com.lifestrat.service;
+
+import com.lifestrat.dto.UserPurgeProgress;
+import com.lifestrat.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Удаление аккаунта порциями: задачи, затем проекты, затем сферы, затем пользователь.
+ * До первой порции аккаунт блокируется и его проверенные токены сбрасываются ({@link UserDisabledEvent}),
+ * иначе задача, созданная во время удаления, сорвала бы удаление сфер по внешнему ключу.
+ * Каждая порция удаляется в своей транзакции, поэтому блокировки держатся недолго, а сбой
+ * не откатывает уже удаленное - повторный запуск продолжает с того же места.
+ * Фоновые удаления выполняются в отдельном пуле; прогресс хранится в памяти ограниченное время.
+ */
+@Component
+@Slf4j
+public class UserPurgeJob {
+
+    private final UserPurgeService userPurgeService;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final Duration retention;
+    private final ExecutorService executor;
+    private final Map<Long, UserPurgeProgress> purges = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UserPurgeJob(UserPurgeService userPurgeService,
+                        UserRepository userRepository,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${users.purge.chunk-size:500}") int chunkSize,
+                        @Value("${users.purge.threads:1}") int threads,
+                        @Value("${users.purge.progress-retention-minutes:60}") long retentionMinutes) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Purge chunk size must be positive");
+        }
+        this.userPurgeService = userPurgeService;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-purge-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Запустить удаление аккаунта в фоне; если удаление уже идет, возвращается его текущий прогресс.
+    // IllegalArgumentException - пользователь не найден
+    public UserPurgeProgress startPurge(Long userId) {
+        log.debug("Starting background purge for user ID: {}", userId);
+
+        if (!userRepository.existsById(userId)) {
+            log.error("User not found for purge - User ID: {}", userId);
+            throw new IllegalArgumentException("User not found");
+        }
+        removeExpired();
+
+        UserPurgeProgress pending = UserPurgeProgress.pending(userId);
+        UserPurgeProgress progress = purges.compute(userId,
+                (id, current) -> current != null && current.isActive() ? current : pending);
+        if (progress == pending) {
+            try {
+                executor.execute(() -> runInBackground(pending));
+            } catch (RejectedExecutionException e) {
+                // Незапущенное удаление не должно блокировать повторный запрос
+                purges.remove(userId, pending);
+                log.error("Background purge rejected for user ID: {}. Error: {}", userId, e.getMessage());
+                throw e;
+            }
+            log.info("Background purge scheduled for user ID: {}", userId);
+        }
+        return progress;
+    }
+
+    // Прогресс фонового удаления пользователя
+    public Optional<UserPurgeProgress> getProgress(Long userId) {
+        return Optional.ofNullable(purges.get(userId));
+    }
+
+    // Удалить аккаунт синхронно в текущем потоке
+    public UserPurgeProgress purge(Long userId) {
+        return run(UserPurgeProgress.pending(userId), progress -> { });
+    }
+
+    private void runInBackground(UserPurgeProgress pending) {
+        Long userId = pending.userId();
+        try {
+            purges.put(userId, run(pending, progress -> purges.put(userId, progress)));
+        } catch (RuntimeException e) {
+            log.error("Purge failed for user ID: {}. Error: {}", userId, e.getMessage());
+            purges.computeIfPresent(userId, (id, progress) -> progress.failed(e.getMessage()));
+        }
+    }
+
+    private UserPurgeProgress run(UserPurgeProgress initial, Consumer<UserPurgeProgress> listener) {
+        Long userId = initial.userId();
+        log.info("Purging user ID: {} in chunks of {}", userId, chunkSize);
+        long startTime = System.currentTimeMillis();
+
+        long tasks = 0;
+        long projects = 0;
+        long lifeSpheres = 0;
+        int deleted;
+        listener.accept(initial.running(tasks, projects, lifeSpheres));
+
+        // Блокировка фиксируется до сброса кэша токенов, чтобы повторная проверка уже видела ее
+        userPurgeService.disableUser(userId);
+        eventPublisher.publishEvent(new UserDisabledEvent(userId));
+
+        while ((deleted = userPurgeService.deleteTaskChunk(userId, chunkSize)) > 0) {
+            tasks += deleted;
+            listener.accept(initial.running(tasks, projects, lifeSpheres));
+        }
+        while ((deleted = userPurgeService.deleteProjectChunk(userId, chunkSize)) > 0) {
+            projects += deleted;
+            listener.accept(initial.running(tasks, projects, lifeSpheres));
+        }
+        while ((deleted = userPurgeService.deleteLifeSphereChunk(userId, chunkSize)) > 0) {
+            lifeSpheres += deleted;
+            listener.accept(initial.running(tasks, projects, lifeSpheres));
+        }
+        userPurgeService.deleteUserRow(userId);
+
+        UserPurgeProgress completed = initial.running(tasks, projects, lifeSpheres).completed();
+        log.info("User ID: {} purged. Tasks: {}, projects: {}, life spheres: {}, took {} ms",
+                userId, tasks, projects, lifeSpheres, System.currentTimeMillis() - startTime);
+        return completed;
+    }
+
+    // Забыть завершенные удаления старше срока хранения
+    private void removeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        purges.values().removeIf(progress -> !progress.isActive() && progress.finishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,116 @@
+package com.lifestrat.service;
+
+import com.lifestrat.repository.DailyTaskRollupRepository;
+import com.lifestrat.repository.LifeSphereRepository;
+import com.lifestrat.repository.ProjectRepository;
+import com.lifestrat.repository.TaskRepository;
+import com.lifestrat.repository.UserRepository;
+import com.lifestrat.repository.UserStreakRepository;
+import com.lifestrat.repository.UserTaskStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Шаги удаления аккаунта пакетными DELETE без загрузки сущностей.
+ * Первым шагом аккаунт блокируется, чтобы во время удаления не появлялись новые данные.
+ * Каждый метод - отдельная короткая транзакция над одной порцией строк; порядок вызова
+ * (блокировка, задачи, проекты, сферы, пользователь) соблюдает {@link UserPurgeJob}.
+ */
+@Service
+@Transactional
+@Slf4j
+public class UserPurgeService {
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final LifeSphereRepository lifeSphereRepository;
+    private final UserStreakRepository userStreakRepository;
+    private final UserTaskStatsRepository userTaskStatsRepository;
+    private final DailyTaskRollupRepository dailyTaskRollupRepository;
+    private final UserRepository userRepository;
+    private final LifeSphereCache lifeSphereCache;
+    private final SearchIndex searchIndex;
+
+    @Autowired
+    public UserPurgeService(TaskRepository taskRepository,
+                            ProjectRepository projectRepository,
+                            LifeSphereRepository lifeSphereRepository,
+                            UserStreakRepository userStreakRepository,
+                            UserTaskStatsRepository userTaskStatsRepository,
+                            DailyTaskRollupRepository dailyTaskRollupRepository,
+                            UserRepository userRepository,
+                            LifeSphereCache lifeSphereCache,
+                            SearchIndex searchIndex) {
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.lifeSphereRepository = lifeSphereRepository;
+        this.userStreakRepository = userStreakRepository;
+        this.userTaskStatsRepository = userTaskStatsRepository;
+        this.dailyTaskRollupRepository = dailyTaskRollupRepository;
+        this.userRepository = userRepository;
+        this.lifeSphereCache = lifeSphereCache;
+        this.searchIndex = searchIndex;
+    }
+
+    // Заблокировать аккаунт: JWT-фильтр перестает аутентифицировать запросы пользователя
+    public boolean disableUser(Long userId) {
+        boolean disabled = userRepository.disableById(userId) > 0;
+        if (disabled) {
+            log.info("User account disabled before purge for user ID: {}", userId);
+        }
+        return disabled;
+    }
+
+    // Удалить очередную порцию задач пользователя; 0 - задач не осталось
+    public int deleteTaskChunk(Long userId, int chunkSize) {
+        List<Long> ids = taskRepository.findIdsByUserId(userId, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int deleted = taskRepository.deleteByUserIdAndIdIn(userId, ids);
+        searchIndex.evict(userId);
+        return deleted;
+    }
+
+    // Удалить очередную порцию проектов пользователя (после всех его задач)
+    public int deleteProjectChunk(Long userId, int chunkSize) {
+        List<Long> ids = projectRepository.findIdsByUserId(userId, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int deleted = projectRepository.deleteByUserIdAndIdIn(userId, ids);
+        searchIndex.evict(userId);
+        return deleted;
+    }
+
+    // Удалить очередную порцию сфер пользователя (после всех его задач и проектов)
+    public int deleteLifeSphereChunk(Long userId, int chunkSize) {
+        List<Long> ids = lifeSphereRepository.findIdsByUserId(userId, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int deleted = lifeSphereRepository.deleteByUserIdAndIdIn(userId, ids);
+        lifeSphereCache.evict(userId);
+        return deleted;
+    }
+
+    // Удалить производные данные (серии, счетчики, дневные агрегаты) и саму строку пользователя
+    public boolean deleteUserRow(Long userId) {
+        userStreakRepository.deleteByUserId(userId);
+        userTaskStatsRepository.deleteByUserId(userId);
+        dailyTaskRollupRepository.deleteByUserId(userId);
+        boolean deleted = userRepository.deleteRowById(userId) > 0;
+        lifeSphereCache.evict(userId);
+        searchIndex.evict(userId);
+
+        if (deleted) {
+            log.info("User row deleted for user ID: {}", userId);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,368 @@
+package com.lifestrat.service;
+
+import com.lifestrat.dto.SearchHit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс по названиям и описаниям задач и проектов одного пользователя.
+ * Словарь термов отсортирован: префиксный поиск - это диапазон ключей, нечеткий поиск перебирает
+ * термы с той же первой буквой и близкой длиной (расстояние Левенштейна до 1 или 2 правок).
+ * Документ найден, если совпал каждый терм запроса; оценка - сумма idf совпавших термов с весом
+ * типа совпадения (точное, префикс, нечеткое) и поля (название весомее описания).
+ * Постинги хранятся массивами int (слот документа и признаки полей), слоты удаленных документов
+ * переиспользуются. Чтение и изменение разделены ReadWriteLock.
+ */
+final class UserSearchIndex {
+
+    static final int MAX_QUERY_TERMS = 8;
+    static final int MAX_DESCRIPTION_TERMS = 256;
+    static final int MAX_TERM_LENGTH = 40;
+
+    private static final int MAX_PREFIX_EXPANSIONS = 128;
+    private static final int MAX_FUZZY_EXPANSIONS = 64;
+
+    private static final int IN_DESCRIPTION = 1;
+    private static final int IN_TITLE = 2;
+    private static final int FIELD_BITS = 2;
+
+    private static final float TITLE_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float EXACT_WEIGHT = 1f;
+    private static final float PREFIX_WEIGHT = 0.6f;
+    private static final float FUZZY_WEIGHT = 0.4f;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> slotByKey = new HashMap<>();
+    private Document[] documents = new Document[64];
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+
+    private record Document(SearchHit.Type type, long id, String title, String[] terms) {
+    }
+
+    // Список слотов документов, содержащих терм; порядок не важен
+    private static final class Postings {
+        final String term;
+        int[] entries = new int[4];
+        int size;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void add(int slot, int fields) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = slot << FIELD_BITS | fields;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (entries[i] >>> FIELD_BITS == slot) {
+                    entries[i] = entries[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    // Добавить или заменить документ
+    void put(SearchHit.Type type, long id, String title, String description) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(key(type, id));
+            addInternal(type, id, title, description);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Удалить документ, если он есть в индексе
+    void remove(SearchHit.Type type, long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(key(type, id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Количество документов в индексе
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slotByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Лучшие limit документов, совпавших со всеми термами запроса, по убыванию оценки
+    List<SearchHit> search(String query, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        if (queryTerms.size() > MAX_QUERY_TERMS) {
+            queryTerms = queryTerms.subList(0, MAX_QUERY_TERMS);
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = slotByKey.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+
+            float[] totals = new float[slotCount];
+            byte[] matchedTerms = new byte[slotCount];
+            float[] best = new float[slotCount];
+            int[] touched = new int[slotCount];
+
+            for (int termIndex = 0; termIndex < queryTerms.size(); termIndex++) {
+                int touchedCount = 0;
+                for (Map.Entry<Postings, Float> expansion : expand(queryTerms.get(termIndex)).entrySet()) {
+                    Postings postings = expansion.getKey();
+                    float weight = expansion.getValue() * idf(documentCount, postings.size);
+                    for (int i = 0; i < postings.size; i++) {
+                        int entry = postings.entries[i];
+                        int slot = entry >>> FIELD_BITS;
+                        // Документ уже не совпал с одним из предыдущих термов
+                        if (matchedTerms[slot] != termIndex) {
+                            continue;
+                        }
+                        float score = weight * fieldWeight(entry);
+                        if (best[slot] == 0f) {
+                            touched[touchedCount++] = slot;
+                        }
+                        if (score > best[slot]) {
+                            best[slot] = score;
+                        }
+                    }
+                }
+                if (touchedCount == 0) {
+                    return List.of();
+                }
+                for (int i = 0; i < touchedCount; i++) {
+                    int slot = touched[i];
+                    totals[slot] += best[slot];
+                    matchedTerms[slot]++;
+                    best[slot] = 0f;
+                }
+            }
+
+            return topHits(totals, matchedTerms, queryTerms.size(), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Термы текста: последовательности букв и цифр в нижнем регистре, слишком длинные обрезаются
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lowerCase.length(); i++) {
+            boolean termChar = i < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(i));
+            if (termChar && start < 0) {
+                start = i;
+            } else if (!termChar && start >= 0) {
+                tokens.add(lowerCase.substring(start, Math.min(i, start + MAX_TERM_LENGTH)));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Допустимое число правок для нечеткого совпадения: короткие термы только точно или по префиксу
+    static int maxEdits(String term) {
+        if (term.length() < 4) {
+            return 0;
+        }
+        return term.length() < 8 ? 1 : 2;
+    }
+
+    // Расстояние Левенштейна, если оно не больше max; иначе max + 1
+    static int boundedDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j] + 1, current[j - 1] + 1));
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    // Термы словаря, подходящие под терм запроса, с весом типа совпадения (лучший вес на терм)
+    private Map<Postings, Float> expand(String queryTerm) {
+        Map<Postings, Float> expansions = new LinkedHashMap<>();
+
+        Postings exact = terms.get(queryTerm);
+        if (exact != null) {
+            expansions.put(exact, EXACT_WEIGHT);
+        }
+
+        // Продолжения префикса; чем короче продолжение, тем ближе вес к точному совпадению
+        int prefixExpansions = 0;
+        for (Postings postings : terms.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).values()) {
+            if (prefixExpansions++ == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            float completeness = (float) queryTerm.length() / postings.term.length();
+            expansions.put(postings, PREFIX_WEIGHT * (0.5f + 0.5f * completeness));
+        }
+
+        int maxEdits = maxEdits(queryTerm);
+        if (maxEdits > 0) {
+            String firstChar = queryTerm.substring(0, 1);
+            NavigableMap<String, Postings> candidates =
+                    terms.subMap(firstChar, true, firstChar + Character.MAX_VALUE, false);
+            int fuzzyExpansions = 0;
+            for (Postings postings : candidates.values()) {
+                if (expansions.containsKey(postings)) {
+                    continue;
+                }
+                int distance = boundedDistance(queryTerm, postings.term, maxEdits);
+                if (distance <= maxEdits) {
+                    expansions.put(postings, FUZZY_WEIGHT / distance);
+                    if (++fuzzyExpansions == MAX_FUZZY_EXPANSIONS) {
+                        break;
+                    }
+                }
+            }
+        }
+        return expansions;
+    }
+
+    private List<SearchHit> topHits(float[] totals, byte[] matchedTerms, int termCount, int limit) {
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1,
+                (left, right) -> Float.compare(totals[left], totals[right]));
+        for (int slot = 0; slot < totals.length; slot++) {
+            if (matchedTerms[slot] != termCount) {
+                continue;
+            }
+            if (top.size() < limit) {
+                top.add(slot);
+            } else if (totals[slot] > totals[top.peek()]) {
+                top.poll();
+                top.add(slot);
+            }
+        }
+
+        SearchHit[] hits = new SearchHit[top.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            int slot = top.poll();
+            Document document = documents[slot];
+            hits[i] = new SearchHit(document.type(), document.id(), document.title(), totals[slot]);
+        }
+        return List.of(hits);
+    }
+
+    private void addInternal(SearchHit.Type type, long id, String title, String description) {
+        Map<String, Integer> fieldsByTerm = new LinkedHashMap<>();
+        for (String term : tokenize(title)) {
+            fieldsByTerm.put(term, IN_TITLE);
+        }
+        int descriptionTerms = 0;
+        for (String term : tokenize(description)) {
+            Integer fields = fieldsByTerm.get(term);
+            if (fields == null) {
+                if (descriptionTerms++ == MAX_DESCRIPTION_TERMS) {
+                    break;
+                }
+                fieldsByTerm.put(term, IN_DESCRIPTION);
+            } else {
+                fieldsByTerm.put(term, fields | IN_DESCRIPTION);
+            }
+        }
+
+        int slot = allocateSlot();
+        String[] documentTerms = new String[fieldsByTerm.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : fieldsByTerm.entrySet()) {
+            Postings postings = terms.computeIfAbsent(entry.getKey(), Postings::new);
+            postings.add(slot, entry.getValue());
+            documentTerms[i++] = postings.term;
+        }
+        documents[slot] = new Document(type, id, title, documentTerms);
+        slotByKey.put(key(type, id), slot);
+    }
+
+    private void removeInternal(long key) {
+        Integer slot = slotByKey.remove(key);
+        if (slot == null) {
+            return;
+        }
+        for (String term : documents[slot].terms()) {
+            Postings postings = terms.get(term);
+            postings.remove(slot);
+            if (postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+        documents[slot] = null;
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotCount == documents.length) {
+            documents = Arrays.copyOf(documents, slotCount * 2);
+        }
+        return slotCount++;
+    }
+
+    private static float fieldWeight(int entry) {
+        return ((entry & IN_TITLE) != 0 ? TITLE_WEIGHT : 0f) + ((entry & IN_DESCRIPTION) != 0 ? DESCRIPTION_WEIGHT : 0f);
+    }
+
+    private static float idf(int documentCount, int documentFrequency) {
+        return (float) Math.log(1.0 + (double) documentCount / documentFrequency);
+    }
+
+    // Задачи и проекты имеют независимые последовательности id, поэтому тип входит в ключ
+    private static long key(SearchHit.Type type, long id) {
+        return id << 1 | type.ordinal();
+    }
+}
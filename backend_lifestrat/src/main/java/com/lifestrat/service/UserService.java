@@ -4,8 +4,9 @@ import com.lifestrat.entity.User;
 import com.lifestrat.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
@@ -16,12 +17,17 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final UserPurgeJob userPurgeJob;
+    private final LifeSphereService lifeSphereService;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PasswordHasher passwordHasher, UserPurgeJob userPurgeJob,
+                       LifeSphereService lifeSphereService) {
         this.userRepository = userRepository;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.passwordHasher = passwordHasher;
+        this.userPurgeJob = userPurgeJob;
+        this.lifeSphereService = lifeSphereService;
     }
 
     // Найти пользователя по ID
@@ -62,11 +68,22 @@ public class UserService {
         return savedUser;
     }
 
-    // Создать нового пользователя с хешированием пароля
+    // Создать нового пользователя с хешированием пароля.
+    // Без общей транзакции: на время хэширования соединение с БД не удерживается
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User createUser(String username, String email, String password) {
         log.debug("Creating new user with username: {}", username);
 
-        // Проверяем, не существует ли уже пользователь с таким username или email
+        validateNewUser(username, email);
+
+        // Хешируем пароль в пуле хэширования
+        String encodedPassword = passwordHasher.encode(password);
+
+        return createUserWithEncodedPassword(username, email, encodedPassword);
+    }
+
+    // Проверить, что username и email еще не заняты
+    public void validateNewUser(String username, String email) {
         if (existsByUsername(username)) {
             log.warn("User with username '{}' already exists", username);
             throw new IllegalArgumentException("User with username '" + username + "' already exists");
@@ -76,11 +93,12 @@ public class UserService {
             log.warn("User with email '{}' already exists", email);
             throw new IllegalArgumentException("User with email '" + email + "' already exists");
         }
+    }
 
-        // Хешируем пароль
-        String encodedPassword = passwordEncoder.encode(password);
+    // Сохранить нового пользователя с уже захэшированным паролем
+    public User createUserWithEncodedPassword(String username, String email, String encodedPassword) {
+        log.debug("Saving new user with username: {}", username);
 
-        // Создаем нового пользователя
         User user = new User();
         user.setUsername(username);
         user.setEmail(email);
@@ -91,20 +109,57 @@ public class UserService {
         return savedUser;
     }
 
-    // Удалить пользователя
+    // Зарегистрировать пользователя с уже захэшированным паролем и создать его стандартные сферы в одной транзакции
+    public User registerUser(String username, String email, String encodedPassword) {
+        log.debug("Registering new user with username: {}", username);
+
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword(encodedPassword);
+
+        User savedUser = saveWithUniqueCredentials(user);
+        lifeSphereService.createDefaultLifeSpheres(savedUser);
+        log.info("User registered successfully with ID: {} and username: {}", savedUser.getId(), username);
+        return savedUser;
+    }
+
+    // Сохранить с немедленной проверкой уникальных username и email: параллельная регистрация
+    // с теми же данными дает то же исключение, что и validateNewUser
+    private User saveWithUniqueCredentials(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, User.UK_USERNAME)) {
+                log.warn("Concurrent duplicate username '{}' rejected by the database", user.getUsername());
+                throw new IllegalArgumentException("User with username '" + user.getUsername() + "' already exists");
+            }
+            if (UniqueConstraints.isViolated(e, User.UK_EMAIL)) {
+                log.warn("Concurrent duplicate email '{}' rejected by the database", user.getEmail());
+                throw new IllegalArgumentException("User with email '" + user.getEmail() + "' already exists");
+            }
+            throw e;
+        }
+    }
+
+    // Удалить пользователя со всеми данными пакетными DELETE порциями.
+    // Без общей транзакции: каждая порция фиксируется отдельно и не удерживает блокировки до конца удаления
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void delete(User user) {
         log.debug("Deleting user with ID: {} and username: {}", user.getId(), user.getUsername());
-        userRepository.delete(user);
+        userPurgeJob.purge(user.getId());
         log.info("User deleted successfully with ID: {}", user.getId());
     }
 
     // Проверить пароль
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean checkPassword(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        return passwordHasher.matches(rawPassword, encodedPassword);
     }
 
     // Хешировать пароль
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String encodePassword(String rawPassword) {
-        return passwordEncoder.encode(rawPassword);
+        return passwordHasher.encode(rawPassword);
     }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+-- Переход tasks, users и life_spheres с IDENTITY на пулы последовательностей (allocationSize = 50).
+-- Выполнить на существующей БД до запуска новой версии: Hibernate берет из последовательности
+-- верхнюю границу пула и выдает id из диапазона (nextval - 50, nextval], поэтому первое значение
+-- должно быть не меньше max(id) + 50, иначе новые строки получат уже занятые id.
+-- Столбцы id остаются с прежним DEFAULT/IDENTITY: приложение всегда передает id явно.
+
+CREATE SEQUENCE IF NOT EXISTS tasks_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS life_spheres_seq INCREMENT BY 50;
+
+SELECT setval('tasks_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM tasks), false);
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users), false);
+SELECT setval('life_spheres_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM life_spheres), false);
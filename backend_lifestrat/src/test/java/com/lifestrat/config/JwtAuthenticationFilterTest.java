@@ -0,0 +1,215 @@
+package com.lifestrat.config;
+
+import com.lifestrat.dto.TokenDetails;
+import com.lifestrat.entity.User;
+import com.lifestrat.repository.UserRepository;
+import com.lifestrat.service.JwtService;
+import com.lifestrat.service.UserDisabledEvent;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private JwtAuthenticationFilter filter;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(jwtService, userRepository, 100, 15);
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private TokenDetails validDetails() {
+        Date expiration = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        return new TokenDetails("testuser", expiration, Jwts.claims().setSubject("testuser").setExpiration(expiration));
+    }
+
+    private Authentication filter(String authorizationHeader) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        if (authorizationHeader != null) {
+            request.addHeader("Authorization", authorizationHeader);
+        }
+        MockFilterChain chain = new MockFilterChain();
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            assertNotNull(chain.getRequest(), "filter chain must always continue");
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void doFilter_ValidToken_ShouldAuthenticateAndCacheVerification() throws Exception {
+        // Arrange
+        when(jwtService.parseToken(TOKEN)).thenReturn(Optional.of(validDetails()));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // Act
+        Authentication first = filter("Bearer " + TOKEN);
+        Authentication second = filter("Bearer " + TOKEN);
+
+        // Assert
+        assertEquals(new AuthenticatedUser(1L, "testuser"), first.getPrincipal());
+        assertEquals(first.getPrincipal(), second.getPrincipal());
+        verify(jwtService, times(1)).parseToken(TOKEN);
+        verify(userRepository, times(1)).findByUsername("testuser");
+        assertEquals(1, filter.cacheStats().hitCount());
+    }
+
+    @Test
+    void doFilter_InvalidToken_ShouldNotAuthenticateOrCache() throws Exception {
+        // Arrange
+        when(jwtService.parseToken(TOKEN)).thenReturn(Optional.empty());
+
+        // Act
+        Authentication first = filter("Bearer " + TOKEN);
+        Authentication second = filter("Bearer " + TOKEN);
+
+        // Assert
+        assertNull(first);
+        assertNull(second);
+        verify(jwtService, times(2)).parseToken(TOKEN);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void doFilter_UnknownUser_ShouldNotAuthenticate() throws Exception {
+        // Arrange
+        when(jwtService.parseToken(TOKEN)).thenReturn(Optional.of(validDetails()));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.empty());
+
+        // Act
+        Authentication authentication = filter("Bearer " + TOKEN);
+
+        // Assert
+        assertNull(authentication);
+    }
+
+    @Test
+    void doFilter_DisabledUser_ShouldNotAuthenticate() throws Exception {
+        // Arrange
+        testUser.setDisabled(true);
+        when(jwtService.parseToken(TOKEN)).thenReturn(Optional.of(validDetails()));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // Act
+        Authentication authentication = filter("Bearer " + TOKEN);
+
+        // Assert
+        assertNull(authentication);
+    }
+
+    @Test
+    void onUserDisabled_CachedToken_ShouldBeVerifiedAgainAndRejected() throws Exception {
+        // Arrange
+        when(jwtService.parseToken(TOKEN)).thenReturn(Optional.of(validDetails()));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        assertNotNull(filter("Bearer " + TOKEN));
+
+        // Act
+        testUser.setDisabled(true);
+        filter.onUserDisabled(new UserDisabledEvent(1L));
+        Authentication authentication = filter("Bearer " + TOKEN);
+
+        // Assert
+        assertNull(authentication);
+        verify(jwtService, times(2)).parseToken(TOKEN);
+    }
+
+    @Test
+    void doFilter_NoBearerHeader_ShouldSkipVerification() throws Exception {
+        // Act
+        Authentication withoutHeader = filter(null);
+        Authentication basicHeader = filter("Basic dXNlcjpwYXNz");
+
+        // Assert
+        assertNull(withoutHeader);
+        assertNull(basicHeader);
+        verifyNoInteractions(jwtService, userRepository);
+    }
+
+    @Test
+    void doFilter_SameTokenFromManyThreads_ShouldVerifyOnce() throws Exception {
+        // Arrange
+        int threads = 32;
+        int requestsPerThread = 500;
+        when(jwtService.parseToken(TOKEN)).thenReturn(Optional.of(validDetails()));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // Act
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int authenticated = 0;
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        Authentication authentication = filter("Bearer " + TOKEN);
+                        if (authentication != null
+                                && new AuthenticatedUser(1L, "testuser").equals(authentication.getPrincipal())) {
+                            authenticated++;
+                        }
+                    }
+                    return authenticated;
+                }));
+            }
+            start.countDown();
+
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(30, TimeUnit.SECONDS);
+            }
+
+            // Assert
+            assertEquals(threads * requestsPerThread, total);
+            verify(jwtService, times(1)).parseToken(TOKEN);
+            verify(userRepository, times(1)).findByUsername("testuser");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
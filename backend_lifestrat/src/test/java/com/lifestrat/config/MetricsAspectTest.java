@@ -0,0 +1,92 @@
+package com.lifestrat.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MetricsAspect metricsAspect;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metricsAspect = new MetricsAspect(meterRegistry);
+    }
+
+    private ProceedingJoinPoint joinPoint(String method, Object result) throws Throwable {
+        Signature signature = mock(Signature.class);
+        when(signature.getName()).thenReturn(method);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenReturn(result);
+        return joinPoint;
+    }
+
+    @Test
+    void rowCount_ShouldCountCollectionsPagesAndOptionals() {
+        // Act & Assert
+        assertEquals(3, MetricsAspect.rowCount(List.of(1, 2, 3)));
+        assertEquals(2, MetricsAspect.rowCount(new PageImpl<>(List.of(1, 2))));
+        assertEquals(1, MetricsAspect.rowCount(Optional.of(1)));
+        assertEquals(0, MetricsAspect.rowCount(Optional.empty()));
+        assertEquals(0, MetricsAspect.rowCount(null));
+    }
+
+    @Test
+    void rowCount_Stream_ShouldBeSkipped() {
+        // Act & Assert
+        assertEquals(-1, MetricsAspect.rowCount(Stream.of(1)));
+    }
+
+    @Test
+    void recordTaskRepositoryRead_ShouldRegisterTimerAndRowSummary() throws Throwable {
+        // Arrange
+        List<Integer> rows = List.of(1, 2, 3);
+
+        // Act
+        Object result = metricsAspect.recordTaskRepositoryRead(joinPoint("findAllByUserId", rows));
+        metricsAspect.recordTaskRepositoryRead(joinPoint("findAllByUserId", List.of()));
+
+        // Assert
+        assertSame(rows, result);
+        Timer timer = meterRegistry.find("lifestrat.repository.calls")
+                .tags("class", "TaskRepository", "method", "findAllByUserId", "exception", "none")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+        DistributionSummary summary = meterRegistry.find("lifestrat.repository.rows")
+                .tags("class", "TaskRepository", "method", "findAllByUserId")
+                .summary();
+        assertNotNull(summary);
+        assertEquals(2, summary.count());
+        assertEquals(3.0, summary.totalAmount());
+    }
+
+    @Test
+    void recordProjectRepositoryRead_Exception_ShouldTagTimerAndRethrow() throws Throwable {
+        // Arrange
+        ProceedingJoinPoint joinPoint = joinPoint("findPage", null);
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> metricsAspect.recordProjectRepositoryRead(joinPoint));
+        assertNotNull(meterRegistry.find("lifestrat.repository.calls")
+                .tags("class", "ProjectRepository", "exception", "IllegalStateException")
+                .timer());
+        assertNull(meterRegistry.find("lifestrat.repository.rows").summary());
+    }
+}
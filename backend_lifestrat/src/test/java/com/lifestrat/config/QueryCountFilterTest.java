@@ -0,0 +1,78 @@
+package com.lifestrat.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCountFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueryCounter queryCounter;
+    private QueryCountFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        queryCounter = new QueryCounter();
+        filter = new QueryCountFilter(queryCounter, meterRegistry, 50);
+    }
+
+    private DistributionSummary summary(String name) {
+        return meterRegistry.find(name)
+                .tags("method", "GET", "uri", "/api/tasks/{id}")
+                .summary();
+    }
+
+    @Test
+    void doFilter_ShouldRecordStatementsAndLoadsByUriPattern() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/42");
+        FilterChain chain = (servletRequest, servletResponse) -> {
+            servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/tasks/{id}");
+            queryCounter.inspect("select 1");
+            queryCounter.inspect("select 2");
+            queryCounter.onLoad(new Object(), (Object) 1L, null, null, null);
+        };
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertEquals(1, summary("lifestrat.http.queries").count());
+        assertEquals(2.0, summary("lifestrat.http.queries").totalAmount());
+        assertEquals(1.0, summary("lifestrat.http.entities.loaded").totalAmount());
+    }
+
+    @Test
+    void inspect_OutsideRequest_ShouldNotCount() throws Exception {
+        // Arrange
+        queryCounter.inspect("select outside");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/42");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/tasks/{id}");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+        });
+        queryCounter.inspect("select after");
+
+        // Assert
+        assertEquals(0.0, summary("lifestrat.http.queries").totalAmount());
+    }
+
+    @Test
+    void doFilter_ActuatorRequest_ShouldBeSkipped() throws Exception {
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/prometheus"), new MockHttpServletResponse(),
+                (servletRequest, servletResponse) -> queryCounter.inspect("select 1"));
+
+        // Assert
+        assertTrue(meterRegistry.find("lifestrat.http.queries").summaries().isEmpty());
+    }
+}
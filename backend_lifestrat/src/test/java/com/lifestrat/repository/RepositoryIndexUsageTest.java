@@ -0,0 +1,380 @@
+package com.lifestrat.repository;
+
+import com.lifestrat.dto.PageCursor;
+import com.lifestrat.dto.ProjectQuery;
+import com.lifestrat.dto.ProjectSummary;
+import com.lifestrat.dto.SearchDocument;
+import com.lifestrat.entity.*;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверка схемы: каждый пользовательский запрос репозиториев должен обслуживаться индексом.
+ * SQL, сгенерированный Hibernate, перехватывается и прогоняется через EXPLAIN в H2;
+ * тест падает, если в плане есть полный проход по таблице (tableScan).
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.lifestrat.repository.RepositoryIndexUsageTest$CapturingStatementInspector"
+})
+class RepositoryIndexUsageTest {
+
+    private static final int USERS = 20;
+    private static final int TASKS_PER_USER = 20;
+
+    @Configuration
+    @EntityScan("com.lifestrat.entity")
+    @EnableJpaRepositories("com.lifestrat.repository")
+    static class Config {
+    }
+
+    // Сохраняет SQL всех выполняемых Hibernate запросов
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @FunctionalInterface
+    interface RepositoryCall {
+        void invoke(RepositoryIndexUsageTest test);
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private LifeSphereRepository lifeSphereRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserStreakRepository userStreakRepository;
+
+    @Autowired
+    private UserTaskStatsRepository userTaskStatsRepository;
+
+    @Autowired
+    private DailyTaskRollupRepository dailyTaskRollupRepository;
+
+    private Long userId;
+    private Long taskId;
+    private Long projectId;
+    private Long lifeSphereId;
+
+    @BeforeEach
+    void setUp() {
+        for (int u = 0; u < USERS; u++) {
+            User user = new User();
+            user.setUsername("user" + u);
+            user.setEmail("user" + u + "@example.com");
+            user.setPassword("password");
+            entityManager.persist(user);
+
+            LifeSphere sphere = new LifeSphere();
+            sphere.setName("Work");
+            sphere.setColor("#FF6B6B");
+            sphere.setUser(user);
+            entityManager.persist(sphere);
+
+            Project project = new Project();
+            project.setTitle("Project " + u);
+            project.setDeadline(LocalDate.now().plusDays(u));
+            project.setPriority(Priority.HIGH);
+            project.setLifeSphere(sphere);
+            project.setUser(user);
+            entityManager.persist(project);
+
+            for (int t = 0; t < TASKS_PER_USER; t++) {
+                Task task = new Task();
+                task.setTitle("Task " + t);
+                task.setCompleted(t % 2 == 0);
+                task.setDeadline(LocalDate.now().minusDays(t));
+                task.setPriority(Priority.values()[t % Priority.values().length]);
+                task.setEstimatedTimeMinutes(30);
+                task.setEnergyCost(EnergyCost.MEDIUM);
+                task.setType(TaskType.values()[t % TaskType.values().length]);
+                task.setProject(t % 3 == 0 ? project : null);
+                task.setLifeSphere(sphere);
+                task.setUser(user);
+                entityManager.persist(task);
+                taskId = task.getId();
+            }
+
+            entityManager.persist(new DailyTaskRollup(user.getId(), LocalDate.now(), sphere.getId()));
+
+            userId = user.getId();
+            projectId = project.getId();
+            lifeSphereId = sphere.getId();
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        CapturingStatementInspector.STATEMENTS.clear();
+    }
+
+    static Stream<Arguments> repositoryMethods() {
+        return Stream.of(
+                call("TaskRepository.findAllByUserId", t -> t.taskRepository.findAllByUserId(t.userId)),
+                call("TaskRepository.findByIdAndUserId", t -> t.taskRepository.findByIdAndUserId(t.taskId, t.userId)),
+                call("TaskRepository.streamAllByUserId", t -> {
+                    try (Stream<Task> tasks = t.taskRepository.streamAllByUserId(t.userId)) {
+                        tasks.forEach(task -> { });
+                    }
+                }),
+                call("TaskRepository.streamSearchDocumentsByUserId", t -> {
+                    try (Stream<SearchDocument> documents = t.taskRepository.streamSearchDocumentsByUserId(t.userId)) {
+                        documents.forEach(document -> { });
+                    }
+                }),
+                call("TaskRepository.findPageByUserId",
+                        t -> t.taskRepository.findPageByUserId(t.userId, PageRequest.of(0, 10))),
+                call("TaskRepository.findPageByUserIdAfter",
+                        t -> t.taskRepository.findPageByUserIdAfter(t.userId, LocalDate.now().minusDays(10),
+                                t.taskId, PageRequest.of(0, 10))),
+                call("TaskRepository.findAllByUserIdAndType",
+                        t -> t.taskRepository.findAllByUserIdAndType(t.userId, TaskType.STEP)),
+                call("TaskRepository.findAllByProjectId", t -> t.taskRepository.findAllByProjectId(t.projectId)),
+                call("TaskRepository.findAllByLifeSphereId",
+                        t -> t.taskRepository.findAllByLifeSphereId(t.lifeSphereId)),
+                call("TaskRepository.sumEstimatedMinutesBySphere",
+                        t -> t.taskRepository.sumEstimatedMinutesBySphere(t.userId, true,
+                                LocalDate.now().minusDays(30), LocalDate.now())),
+                call("TaskRepository.sumCompletedMinutesBySphereSince",
+                        t -> t.taskRepository.sumCompletedMinutesBySphereSince(t.userId, LocalDate.now().minusDays(30))),
+                call("TaskRepository.existsByUserIdAndCompletedTrueAndDeadline",
+                        t -> t.taskRepository.existsByUserIdAndCompletedTrueAndDeadline(t.userId, LocalDate.now())),
+                call("TaskRepository.findCompletedDaysByUserId",
+                        t -> t.taskRepository.findCompletedDaysByUserId(t.userId)),
+                call("TaskRepository.aggregateBucketsByUserId",
+                        t -> t.taskRepository.aggregateBucketsByUserId(t.userId)),
+                call("TaskRepository.aggregateBucketsByUserIdAndIdIn",
+                        t -> t.taskRepository.aggregateBucketsByUserIdAndIdIn(t.userId, List.of(t.taskId))),
+                call("TaskRepository.findDeadlinesByUserIdAndIdIn",
+                        t -> t.taskRepository.findDeadlinesByUserIdAndIdIn(t.userId, List.of(t.taskId), true)),
+                call("TaskRepository.findCompletedDaysByUserIdAndDeadlineIn",
+                        t -> t.taskRepository.findCompletedDaysByUserIdAndDeadlineIn(t.userId,
+                                List.of(LocalDate.now()))),
+                call("TaskRepository.findAllDeadlinesByUserIdAndIdIn",
+                        t -> t.taskRepository.findAllDeadlinesByUserIdAndIdIn(t.userId, List.of(t.taskId))),
+                call("TaskRepository.aggregateRollupBucketsByUserId",
+                        t -> t.taskRepository.aggregateRollupBucketsByUserId(t.userId)),
+                call("TaskRepository.aggregateRollupBucketsByUserIdAndDeadlineIn",
+                        t -> t.taskRepository.aggregateRollupBucketsByUserIdAndDeadlineIn(t.userId,
+                                List.of(LocalDate.now(), LocalDate.now().minusDays(1)))),
+                call("TaskRepository.markCompletedByUserIdAndIdIn",
+                        t -> t.taskRepository.markCompletedByUserIdAndIdIn(t.userId, List.of(t.taskId))),
+                call("TaskRepository.shiftDeadlineByUserIdAndIdIn",
+                        t -> t.taskRepository.shiftDeadlineByUserIdAndIdIn(t.userId, List.of(t.taskId), 7)),
+                call("TaskRepository.deleteByUserIdAndIdIn",
+                        t -> t.taskRepository.deleteByUserIdAndIdIn(t.userId, List.of(t.taskId))),
+                call("TaskRepository.findIdsByUserId",
+                        t -> t.taskRepository.findIdsByUserId(t.userId, PageRequest.of(0, 10))),
+                call("ProjectRepository.findAllByUserId", t -> t.projectRepository.findAllByUserId(t.userId)),
+                call("ProjectRepository.findByIdAndUserId",
+                        t -> t.projectRepository.findByIdAndUserId(t.projectId, t.userId)),
+                call("ProjectRepository.existsByUserIdAndTitleIgnoreCase",
+                        t -> t.projectRepository.existsByUserIdAndTitleIgnoreCase(t.userId, "PROJECT 1")),
+                call("ProjectRepository.streamSearchDocumentsByUserId", t -> {
+                    try (Stream<SearchDocument> documents =
+                                 t.projectRepository.streamSearchDocumentsByUserId(t.userId)) {
+                        documents.forEach(document -> { });
+                    }
+                }),
+                call("ProjectRepository.findPageByUserId",
+                        t -> t.projectRepository.findPageByUserId(t.userId, PageRequest.of(0, 10))),
+                call("ProjectRepository.findPageByUserIdAfter",
+                        t -> t.projectRepository.findPageByUserIdAfter(t.userId, LocalDate.now(),
+                                t.projectId, PageRequest.of(0, 10))),
+                call("ProjectRepository.findPage(ProjectQuery)",
+                        t -> t.projectRepository.findPage(ProjectSpecifications.matching(t.userId,
+                                new ProjectQuery(t.lifeSphereId, "project", LocalDate.now().minusDays(30),
+                                        LocalDate.now().plusDays(30), EnumSet.of(Priority.HIGH, Priority.CRITICAL))),
+                                10)),
+                call("ProjectRepository.findPage(ProjectQuery, after)",
+                        t -> t.projectRepository.findPage(ProjectSpecifications.matching(t.userId, ProjectQuery.all())
+                                .and(ProjectSpecifications.after(new PageCursor(LocalDate.now(), t.projectId))), 10)),
+                call("ProjectRepository.findAll(ProjectQuery.overdue)",
+                        t -> t.projectRepository.findAll(ProjectSpecifications.matching(t.userId,
+                                ProjectQuery.overdue(LocalDate.now())), ProjectSpecifications.DEADLINE_ORDER)),
+                call("ProjectRepository.findProjectProgressByUserId",
+                        t -> t.projectRepository.findProjectProgressByUserId(t.userId)),
+                call("ProjectRepository.findProjectProgressByUserId(Pageable)",
+                        t -> t.projectRepository.findProjectProgressByUserId(t.userId, PageRequest.of(0, 10))),
+                call("ProjectRepository.findIdsByUserId",
+                        t -> t.projectRepository.findIdsByUserId(t.userId, PageRequest.of(0, 10))),
+                call("LifeSphereRepository.findAllByUserId", t -> t.lifeSphereRepository.findAllByUserId(t.userId)),
+                call("LifeSphereRepository.findByIdAndUserId",
+                        t -> t.lifeSphereRepository.findByIdAndUserId(t.lifeSphereId, t.userId)),
+                call("LifeSphereRepository.existsByUserIdAndNameIgnoreCase",
+                        t -> t.lifeSphereRepository.existsByUserIdAndNameIgnoreCase(t.userId, "WORK")),
+                call("LifeSphereRepository.findByUserIdAndIdGreaterThanOrderByIdAsc",
+                        t -> t.lifeSphereRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(t.userId, 0L,
+                                PageRequest.of(0, 10))),
+                call("LifeSphereRepository.findIdsByUserId",
+                        t -> t.lifeSphereRepository.findIdsByUserId(t.userId, PageRequest.of(0, 10))),
+                call("UserRepository.findByUsername", t -> t.userRepository.findByUsername("user1")),
+                call("UserRepository.findByEmail", t -> t.userRepository.findByEmail("user1@example.com")),
+                call("UserRepository.existsByUsername", t -> t.userRepository.existsByUsername("user1")),
+                call("UserRepository.existsByEmail", t -> t.userRepository.existsByEmail("user1@example.com")),
+                call("UserRepository.findExistingUsernames",
+                        t -> t.userRepository.findExistingUsernames(List.of("user1", "user2"))),
+                call("UserRepository.findExistingEmails",
+                        t -> t.userRepository.findExistingEmails(List.of("user1@example.com", "user2@example.com"))),
+                call("UserRepository.findForUpdate", t -> t.userRepository.findForUpdate(t.userId)),
+                call("UserRepository.findIdsAfter", t -> t.userRepository.findIdsAfter(t.userId, PageRequest.of(0, 10))),
+                call("DailyTaskRollupRepository.findAllByUserIdAndDayIn",
+                        t -> t.dailyTaskRollupRepository.findAllByUserIdAndDayIn(t.userId, List.of(LocalDate.now()))),
+                call("DailyTaskRollupRepository.findRange",
+                        t -> t.dailyTaskRollupRepository.findRange(t.userId, LocalDate.now().minusDays(30),
+                                LocalDate.now())),
+                call("DailyTaskRollupRepository.findRangeByLifeSphere",
+                        t -> t.dailyTaskRollupRepository.findRangeByLifeSphere(t.userId,
+                                LocalDate.now().minusDays(30), LocalDate.now(), t.lifeSphereId)),
+                call("DailyTaskRollupRepository.deleteByUserId",
+                        t -> t.dailyTaskRollupRepository.deleteByUserId(t.userId)),
+                call("UserStreakRepository.findForUpdate", t -> t.userStreakRepository.findForUpdate(t.userId)),
+                call("UserStreakRepository.deleteByUserId", t -> t.userStreakRepository.deleteByUserId(t.userId)),
+                call("UserTaskStatsRepository.findForUpdate", t -> t.userTaskStatsRepository.findForUpdate(t.userId)),
+                call("UserTaskStatsRepository.deleteByUserId",
+                        t -> t.userTaskStatsRepository.deleteByUserId(t.userId)),
+                call("UserTaskStatsRepository.findUserIdsAfter",
+                        t -> t.userTaskStatsRepository.findUserIdsAfter(0L, PageRequest.of(0, 10)))
+        );
+    }
+
+    private static Arguments call(String name, RepositoryCall repositoryCall) {
+        return Arguments.of(name, repositoryCall);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryMethods")
+    void repositoryMethod_ShouldNotFallBackToTableScan(String name, RepositoryCall repositoryCall) throws SQLException {
+        // Act
+        repositoryCall.invoke(this);
+        List<String> statements = new ArrayList<>(CapturingStatementInspector.STATEMENTS);
+
+        // Assert
+        assertFalse(statements.isEmpty(), name + " did not issue any SQL");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains(".tableScan"),
+                    name + " falls back to a full table scan.\nSQL: " + sql + "\nPlan: " + plan);
+        }
+    }
+
+    // Получить план выполнения запроса в H2; параметры не влияют на выбор индекса и передаются как NULL
+    private String explain(String sql) throws SQLException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameterCount = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameterCount; i++) {
+                statement.setObject(i, null);
+            }
+
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    @Test
+    void projectTitleKey_ShouldBeLowerCasedOnPersist() {
+        // Act
+        Project project = projectRepository.findByIdAndUserId(projectId, userId).orElseThrow();
+
+        // Assert
+        assertEquals(project.getTitle().toLowerCase(Locale.ROOT), project.getTitleKey());
+    }
+
+    @Test
+    void projectQuery_CombinedFilters_ShouldFilterInDatabase() {
+        // Arrange
+        Project sideProject = new Project();
+        sideProject.setTitle("Side 100%_plan");
+        sideProject.setDeadline(LocalDate.now().minusDays(2));
+        sideProject.setPriority(Priority.LOW);
+        sideProject.setLifeSphere(entityManager.find(LifeSphere.class, lifeSphereId));
+        sideProject.setUser(entityManager.find(User.class, userId));
+        entityManager.persistAndFlush(sideProject);
+
+        // Act
+        List<ProjectSummary> highPriority = projectRepository.findPage(ProjectSpecifications.matching(userId,
+                new ProjectQuery(lifeSphereId, "PROJECT", null, null, EnumSet.of(Priority.HIGH))), 10);
+        List<ProjectSummary> overdue = projectRepository.findPage(ProjectSpecifications.matching(userId,
+                ProjectQuery.overdue(LocalDate.now())), 10);
+        List<ProjectSummary> literalWildcards = projectRepository.findPage(ProjectSpecifications.matching(userId,
+                ProjectQuery.byTitle("100%_")), 10);
+        List<ProjectSummary> noWildcardMatch = projectRepository.findPage(ProjectSpecifications.matching(userId,
+                ProjectQuery.byTitle("1%p")), 10);
+
+        // Assert
+        assertEquals(List.of(projectId), highPriority.stream().map(ProjectSummary::id).toList());
+        assertEquals("Work", highPriority.get(0).lifeSphereName());
+        assertEquals("#FF6B6B", highPriority.get(0).lifeSphereColor());
+        assertEquals(List.of(sideProject.getId()), overdue.stream().map(ProjectSummary::id).toList());
+        assertEquals(List.of(sideProject.getId()), literalWildcards.stream().map(ProjectSummary::id).toList());
+        assertTrue(noWildcardMatch.isEmpty());
+    }
+
+    @Test
+    void lifeSphereName_DuplicateInDifferentCase_ShouldViolateUniqueConstraint() {
+        // Arrange
+        LifeSphere duplicate = new LifeSphere();
+        duplicate.setName("WORK");
+        duplicate.setColor("#FFFFFF");
+        duplicate.setUser(entityManager.find(User.class, userId));
+
+        // Act & Assert
+        assertThrows(PersistenceException.class, () -> entityManager.persistAndFlush(duplicate));
+    }
+}
@@ -1,7 +1,11 @@
 package com.lifestrat.service;
 
 import com.lifestrat.dto.ProjectProgressDto;
+import com.lifestrat.dto.SphereTimeDto;
+import com.lifestrat.dto.TaskTrendPoint;
+import com.lifestrat.dto.TrendGranularity;
 import com.lifestrat.entity.*;
+import com.lifestrat.repository.DailyTaskRollupRepository;
 import com.lifestrat.repository.TaskRepository;
 import com.lifestrat.repository.ProjectRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +14,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -26,6 +35,15 @@ class AnalyticsServiceTest {
     @Mock
     private ProjectRepository projectRepository;
 
+    @Mock
+    private StreakService streakService;
+
+    @Mock
+    private TaskStatsService taskStatsService;
+
+    @Mock
+    private DailyTaskRollupRepository dailyTaskRollupRepository;
+
     @InjectMocks
     private AnalyticsService analyticsService;
 
@@ -77,21 +95,25 @@ class AnalyticsServiceTest {
         return task;
     }
 
+    private UserTaskStats statsOf(Task... tasks) {
+        UserTaskStats stats = new UserTaskStats(1L);
+        for (Task task : tasks) {
+            stats.getCounters().apply(task, 1);
+        }
+        return stats;
+    }
+
     @Test
     void getLifeSphereBalance_ShouldReturnCorrectBalance() {
         // Arrange
-        LocalDate today = LocalDate.now();
-        LocalDate within30Days = today.minusDays(15);
-
-        List<Task> tasks = Arrays.asList(
-                createTestTask(1L, workSphere, project1, true, within30Days, 120, TaskType.STEP),
-                createTestTask(2L, workSphere, project1, true, within30Days, 180, TaskType.ACTION),
-                createTestTask(3L, healthSphere, null, true, within30Days, 90, TaskType.RITUAL),
-                createTestTask(4L, workSphere, project2, false, within30Days, 60, TaskType.STEP),
-                createTestTask(5L, healthSphere, null, true, today.minusDays(35), 200, TaskType.ACTION)
+        LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
+
+        List<SphereTimeDto> totals = Arrays.asList(
+                new SphereTimeDto(1L, "Work", 300L),
+                new SphereTimeDto(2L, "Health", 90L)
         );
 
-        when(taskRepository.findAllByUserId(1L)).thenReturn(tasks);
+        when(taskRepository.sumCompletedMinutesBySphereSince(1L, thirtyDaysAgo)).thenReturn(totals);
 
         // Act
         Map<String, Double> result = analyticsService.getLifeSphereBalance(1L);
@@ -100,18 +122,15 @@ class AnalyticsServiceTest {
         assertEquals(2, result.size());
         assertEquals(300.0, result.get("Work"));
         assertEquals(90.0, result.get("Health"));
-        verify(taskRepository).findAllByUserId(1L);
+        verify(taskRepository).sumCompletedMinutesBySphereSince(1L, thirtyDaysAgo);
+        verify(taskRepository, never()).findAllByUserId(anyLong());
     }
 
     @Test
     void getLifeSphereBalance_NoCompletedTasks_ShouldReturnEmptyMap() {
         // Arrange
-        List<Task> tasks = Arrays.asList(
-                createTestTask(1L, workSphere, project1, false, LocalDate.now().minusDays(10), 120, TaskType.STEP),
-                createTestTask(2L, healthSphere, null, false, LocalDate.now().minusDays(5), 180, TaskType.ACTION)
-        );
-
-        when(taskRepository.findAllByUserId(1L)).thenReturn(tasks);
+        when(taskRepository.sumCompletedMinutesBySphereSince(eq(1L), any(LocalDate.class)))
+                .thenReturn(Collections.emptyList());
 
         // Act
         Map<String, Double> result = analyticsService.getLifeSphereBalance(1L);
@@ -121,23 +140,52 @@ class AnalyticsServiceTest {
     }
 
     @Test
-    void getMainProjectsProgress_ShouldCalculateProgressCorrectly() {
+    void getLifeSphereBalance_CustomWindow_ShouldUseWindowStart() {
         // Arrange
-        List<Project> projects = Arrays.asList(project1, project2);
+        LocalDate sevenDaysAgo = LocalDate.now().minusDays(7);
+        when(taskRepository.sumCompletedMinutesBySphereSince(1L, sevenDaysAgo))
+                .thenReturn(List.of(new SphereTimeDto(1L, "Work", 45L)));
 
-        List<Task> project1Tasks = Arrays.asList(
-                createTestTask(1L, workSphere, project1, true, LocalDate.now(), 60, TaskType.STEP),
-                createTestTask(2L, workSphere, project1, false, LocalDate.now().plusDays(1), 90, TaskType.STEP),
-                createTestTask(3L, workSphere, project1, true, LocalDate.now(), 30, TaskType.ACTION)
-        );
+        // Act
+        Map<String, Double> result = analyticsService.getLifeSphereBalance(1L, 7);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(45.0, result.get("Work"));
+    }
+
+    @Test
+    void getLifeSphereBalance_DateRange_ShouldQueryCompletedTasksInRange() {
+        // Arrange
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        when(taskRepository.sumEstimatedMinutesBySphere(1L, true, from, to))
+                .thenReturn(List.of(new SphereTimeDto(2L, "Health", 120L)));
+
+        // Act
+        Map<String, Double> result = analyticsService.getLifeSphereBalance(1L, from, to);
 
-        List<Task> project2Tasks = Arrays.asList(
-                createTestTask(4L, healthSphere, project2, true, LocalDate.now(), 45, TaskType.STEP)
+        // Assert
+        assertEquals(120.0, result.get("Health"));
+    }
+
+    @Test
+    void getLifeSphereBalance_InvalidRange_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            analyticsService.getLifeSphereBalance(1L, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1));
+        });
+    }
+
+    @Test
+    void getMainProjectsProgress_ShouldCalculateProgressCorrectly() {
+        // Arrange
+        List<ProjectProgressDto> progress = Arrays.asList(
+                new ProjectProgressDto(1L, "Project 1", 2L, 1L),
+                new ProjectProgressDto(2L, "Project 2", 1L, 1L)
         );
 
-        when(projectRepository.findAllByUserId(1L)).thenReturn(projects);
-        when(taskRepository.findAllByProjectId(1L)).thenReturn(project1Tasks);
-        when(taskRepository.findAllByProjectId(2L)).thenReturn(project2Tasks);
+        when(projectRepository.findProjectProgressByUserId(1L)).thenReturn(progress);
 
         // Act
         List<ProjectProgressDto> result = analyticsService.getMainProjectsProgress(1L);
@@ -156,20 +204,60 @@ class AnalyticsServiceTest {
         assertEquals(1, project2Progress.totalSteps());
         assertEquals(1, project2Progress.completedSteps());
         assertEquals(100.0, project2Progress.progressPercentage());
+        verify(taskRepository, never()).findAllByProjectId(anyLong());
     }
 
     @Test
-    void getProductivityStats_ShouldCalculateStreaksCorrectly() {
+    void getMainProjectsProgress_ProjectWithoutSteps_ShouldReturnZeroProgress() {
+        // Arrange
+        when(projectRepository.findProjectProgressByUserId(1L))
+                .thenReturn(List.of(new ProjectProgressDto(1L, "Project 1", 0L, null)));
+
+        // Act
+        List<ProjectProgressDto> result = analyticsService.getMainProjectsProgress(1L);
+
+        // Assert
+        assertEquals(0, result.get(0).totalSteps());
+        assertEquals(0, result.get(0).completedSteps());
+        assertEquals(0.0, result.get(0).progressPercentage());
+    }
+
+    @Test
+    void getMainProjectsProgress_Paged_ShouldDefaultToSortById() {
+        // Arrange
+        Pageable requested = PageRequest.of(1, 20);
+        Pageable expected = PageRequest.of(1, 20, Sort.by("id"));
+        Page<ProjectProgressDto> page = new PageImpl<>(
+                List.of(new ProjectProgressDto(21L, "Project 21", 4L, 3L)), expected, 21);
+
+        when(projectRepository.findProjectProgressByUserId(1L, expected)).thenReturn(page);
+
+        // Act
+        Page<ProjectProgressDto> result = analyticsService.getMainProjectsProgress(1L, requested);
+
+        // Assert
+        assertEquals(1, result.getNumberOfElements());
+        assertEquals(21, result.getTotalElements());
+        assertEquals(75.0, result.getContent().get(0).progressPercentage());
+    }
+
+    @Test
+    void getProductivityStats_ShouldReadStreakState() {
         // Arrange
         LocalDate today = LocalDate.now();
-        List<Task> completedTasks = Arrays.asList(
+        UserStreak streak = new UserStreak(1L);
+        streak.setCurrentStreak(4);
+        streak.setMaxStreak(4);
+        streak.setLastCompletionDay(today);
+
+        when(streakService.getStreak(1L)).thenReturn(streak);
+        when(streakService.getCurrentStreak(streak, today)).thenReturn(4L);
+        when(taskStatsService.getStats(1L)).thenReturn(statsOf(
                 createTestTask(1L, workSphere, project1, true, today.minusDays(3), 60, TaskType.STEP),
                 createTestTask(2L, workSphere, project1, true, today.minusDays(2), 90, TaskType.ACTION),
                 createTestTask(3L, healthSphere, null, true, today.minusDays(1), 45, TaskType.RITUAL),
                 createTestTask(4L, workSphere, project2, true, today, 120, TaskType.STEP)
-        );
-
-        when(taskRepository.findAllByUserId(1L)).thenReturn(completedTasks);
+        ));
 
         // Act
         Map<String, Object> result = analyticsService.getProductivityStats(1L);
@@ -179,18 +267,17 @@ class AnalyticsServiceTest {
         assertEquals(4L, result.get("maxStreak"));
         assertEquals(Integer.valueOf(4), result.get("totalCompletedTasks"));
         assertEquals(LocalDate.now(), result.get("analysisDate"));
+        verify(taskRepository, never()).findAllByUserId(anyLong());
     }
 
     @Test
     void getTimeStatistics_ShouldCalculateCorrectMetrics() {
         // Arrange
-        List<Task> tasks = Arrays.asList(
+        when(taskStatsService.getStats(1L)).thenReturn(statsOf(
                 createTestTask(1L, workSphere, project1, true, LocalDate.now(), 120, TaskType.STEP),
                 createTestTask(2L, workSphere, project1, false, LocalDate.now().plusDays(1), 180, TaskType.ACTION),
                 createTestTask(3L, healthSphere, null, true, LocalDate.now(), 90, TaskType.RITUAL)
-        );
-
-        when(taskRepository.findAllByUserId(1L)).thenReturn(tasks);
+        ));
 
         // Act
         Map<String, Object> result = analyticsService.getTimeStatistics(1L);
@@ -201,6 +288,21 @@ class AnalyticsServiceTest {
         assertEquals(53.85, result.get("completionRate"));
         assertEquals(Integer.valueOf(3), result.get("tasksCount"));
         assertEquals(2L, result.get("completedTasksCount"));
+        verify(taskRepository, never()).findAllByUserId(anyLong());
+    }
+
+    @Test
+    void getTimeStatistics_NoTasks_ShouldReturnZeroRate() {
+        // Arrange
+        when(taskStatsService.getStats(1L)).thenReturn(statsOf());
+
+        // Act
+        Map<String, Object> result = analyticsService.getTimeStatistics(1L);
+
+        // Assert
+        assertEquals(0, result.get("totalTimePlanned"));
+        assertEquals(0.0, result.get("completionRate"));
+        assertEquals(Integer.valueOf(0), result.get("tasksCount"));
     }
 
     @Test
@@ -218,11 +320,9 @@ class AnalyticsServiceTest {
         Task task4 = createTestTask(4L, healthSphere, null, false, LocalDate.now(), 60, TaskType.ACTION);
         task4.setPriority(Priority.LOW);
 
-        List<Task> tasks = Arrays.asList(task1, task2, task3, task4);
-
-        when(taskRepository.findAllByUserId(1L)).thenReturn(tasks);
+        when(taskStatsService.getStats(1L)).thenReturn(statsOf(task1, task2, task3, task4));
 
-        // Actt
+        // Act
         Map<String, Long> result = analyticsService.getPriorityDistribution(1L);
 
         // Assert
@@ -230,5 +330,77 @@ class AnalyticsServiceTest {
         assertEquals(2L, result.get("HIGH"));
         assertEquals(1L, result.get("MEDIUM"));
         assertEquals(1L, result.get("LOW"));
+        assertFalse(result.containsKey("CRITICAL"));
+    }
+
+    private DailyTaskRollup createRollup(LocalDate day, Long lifeSphereId, int taskCount, int completedCount) {
+        DailyTaskRollup rollup = new DailyTaskRollup(1L, day, lifeSphereId);
+        rollup.getCounters().apply(Priority.MEDIUM, TaskType.ACTION, EnergyCost.LOW, false,
+                taskCount - completedCount, (taskCount - completedCount) * 30L);
+        rollup.getCounters().apply(Priority.MEDIUM, TaskType.ACTION, EnergyCost.LOW, true,
+                completedCount, completedCount * 30L);
+        return rollup;
+    }
+
+    @Test
+    void getTaskTrend_Weekly_ShouldSumDailyRollupsAndFillEmptyWeeks() {
+        // Arrange
+        LocalDate from = LocalDate.of(2024, 3, 6);
+        LocalDate to = LocalDate.of(2024, 3, 20);
+        when(dailyTaskRollupRepository.findRange(1L, LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 24)))
+                .thenReturn(List.of(
+                        createRollup(LocalDate.of(2024, 3, 4), 1L, 2, 1),
+                        createRollup(LocalDate.of(2024, 3, 10), 2L, 3, 3),
+                        createRollup(LocalDate.of(2024, 3, 24), 1L, 1, 0)));
+
+        // Act
+        List<TaskTrendPoint> result = analyticsService.getTaskTrend(1L, TrendGranularity.WEEK, from, to, null);
+
+        // Assert
+        assertEquals(3, result.size());
+        assertEquals(LocalDate.of(2024, 3, 4), result.get(0).periodStart());
+        assertEquals(LocalDate.of(2024, 3, 10), result.get(0).periodEnd());
+        assertEquals(5, result.get(0).counters().getTaskCount());
+        assertEquals(4, result.get(0).counters().getCompletedCount());
+        assertEquals(150, result.get(0).counters().getPlannedMinutes());
+        assertEquals(0, result.get(1).counters().getTaskCount());
+        assertEquals(LocalDate.of(2024, 3, 18), result.get(2).periodStart());
+        assertEquals(1, result.get(2).counters().getTaskCount());
+    }
+
+    @Test
+    void getTaskTrend_MonthlyByLifeSphere_ShouldQuerySphereRange() {
+        // Arrange
+        LocalDate from = LocalDate.of(2024, 1, 15);
+        LocalDate to = LocalDate.of(2024, 2, 10);
+        when(dailyTaskRollupRepository.findRangeByLifeSphere(1L, LocalDate.of(2024, 1, 1),
+                LocalDate.of(2024, 2, 29), 2L))
+                .thenReturn(List.of(createRollup(LocalDate.of(2024, 2, 29), 2L, 4, 2)));
+
+        // Act
+        List<TaskTrendPoint> result = analyticsService.getTaskTrend(1L, TrendGranularity.MONTH, from, to, 2L);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(0, result.get(0).counters().getTaskCount());
+        assertEquals(4, result.get(1).counters().getTaskCount());
+        assertEquals(2, result.get(1).counters().getCompletedCount());
+        verify(dailyTaskRollupRepository, never()).findRange(any(), any(), any());
+    }
+
+    @Test
+    void getTaskTrend_FromAfterTo_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getTaskTrend(1L, TrendGranularity.DAY,
+                LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 1), null));
+        verifyNoInteractions(dailyTaskRollupRepository);
+    }
+
+    @Test
+    void getTaskTrend_TooManyPoints_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getTaskTrend(1L, TrendGranularity.DAY,
+                LocalDate.of(2022, 1, 1), LocalDate.of(2024, 1, 1), null));
+        verifyNoInteractions(dailyTaskRollupRepository);
     }
-}
\ No newline at end of file
+}
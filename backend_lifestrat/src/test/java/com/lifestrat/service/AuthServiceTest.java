@@ -0,0 +1,147 @@
+package com.lifestrat.service;
+
+import com.lifestrat.dto.AuthResponse;
+import com.lifestrat.dto.LoginRequest;
+import com.lifestrat.dto.RegisterRequest;
+import com.lifestrat.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    private AuthService authService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        authService = new AuthService(userService, jwtService, passwordHasher, Runnable::run);
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("$2a$10$hash");
+    }
+
+    private RegisterRequest registerRequest() {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername("testuser");
+        request.setEmail("test@example.com");
+        request.setPassword("password");
+        return request;
+    }
+
+    private LoginRequest loginRequest(String password) {
+        LoginRequest request = new LoginRequest();
+        request.setUsername("testuser");
+        request.setPassword(password);
+        return request;
+    }
+
+    @Test
+    void register_ValidRequest_ShouldHashCreateUserAndIssueToken() {
+        // Arrange
+        when(passwordHasher.encodeAsync("password")).thenReturn(CompletableFuture.completedFuture("$2a$10$hash"));
+        when(userService.registerUser("testuser", "test@example.com", "$2a$10$hash")).thenReturn(testUser);
+        when(jwtService.generateToken("testuser")).thenReturn("token");
+
+        // Act
+        AuthResponse response = authService.register(registerRequest()).join();
+
+        // Assert
+        assertEquals(1L, response.getUserId());
+        assertEquals("token", response.getToken());
+        verify(userService).validateNewUser("testuser", "test@example.com");
+    }
+
+    @Test
+    void register_ConcurrentDuplicateUser_ShouldFailWithIllegalArgument() {
+        // Arrange
+        when(passwordHasher.encodeAsync("password")).thenReturn(CompletableFuture.completedFuture("$2a$10$hash"));
+        when(userService.registerUser("testuser", "test@example.com", "$2a$10$hash"))
+                .thenThrow(new IllegalArgumentException("User with username 'testuser' already exists"));
+
+        // Act
+        CompletableFuture<AuthResponse> result = authService.register(registerRequest());
+
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        verifyNoInteractions(jwtService);
+    }
+
+    @Test
+    void register_DuplicateUser_ShouldNotHashPassword() {
+        // Arrange
+        doThrow(new IllegalArgumentException("exists"))
+                .when(userService).validateNewUser("testuser", "test@example.com");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> authService.register(registerRequest()));
+        verifyNoInteractions(passwordHasher);
+    }
+
+    @Test
+    void login_CorrectPassword_ShouldIssueToken() {
+        // Arrange
+        when(userService.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordHasher.matchesAsync("password", "$2a$10$hash")).thenReturn(CompletableFuture.completedFuture(true));
+        when(jwtService.generateToken("testuser")).thenReturn("token");
+
+        // Act
+        AuthResponse response = authService.login(loginRequest("password")).join();
+
+        // Assert
+        assertEquals("token", response.getToken());
+    }
+
+    @Test
+    void login_WrongPassword_ShouldFail() {
+        // Arrange
+        when(userService.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordHasher.matchesAsync("wrong", "$2a$10$hash")).thenReturn(CompletableFuture.completedFuture(false));
+
+        // Act
+        CompletableFuture<AuthResponse> result = authService.login(loginRequest("wrong"));
+
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        verifyNoInteractions(jwtService);
+    }
+
+    @Test
+    void login_UnknownUser_ShouldFailWithoutHashing() {
+        // Arrange
+        when(userService.findByUsername("testuser")).thenReturn(Optional.empty());
+        when(userService.findByEmail("testuser")).thenReturn(Optional.empty());
+
+        // Act
+        CompletableFuture<AuthResponse> result = authService.login(loginRequest("password"));
+
+        // Assert
+        assertTrue(result.isCompletedExceptionally());
+        verifyNoInteractions(passwordHasher);
+    }
+}
@@ -1,22 +1,22 @@
 package com.lifestrat.service;
 
+import com.lifestrat.dto.TokenDetails;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Date;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
 class JwtServiceTest {
 
-    @InjectMocks
     private JwtService jwtService;
 
     private final String secretKey = "testSecretKey12345678901234567890123456789012345678901234567890";
@@ -24,8 +24,7 @@ class JwtServiceTest {
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(jwtService, "secretKey", secretKey);
-        ReflectionTestUtils.setField(jwtService, "expirationTime", expirationTime);
+        jwtService = new JwtService(secretKey, expirationTime);
     }
 
     @Test
@@ -141,6 +140,44 @@ class JwtServiceTest {
         assertFalse(isValid);
     }
 
+    @Test
+    void parseToken_WithValidToken_ShouldReturnSubjectAndExpiration() {
+        // Arrange
+        String token = jwtService.generateToken("testuser");
+
+        // Act
+        Optional<TokenDetails> details = jwtService.parseToken(token);
+
+        // Assert
+        assertTrue(details.isPresent());
+        assertEquals("testuser", details.get().subject());
+        assertTrue(details.get().expiration().after(new Date()));
+        assertEquals("testuser", details.get().claims().getSubject());
+    }
+
+    @Test
+    void parseToken_WithInvalidOrExpiredToken_ShouldReturnEmpty() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtService, "expirationTime", -1000L);
+        String expiredToken = jwtService.generateToken("testuser");
+
+        // Act & Assert
+        assertTrue(jwtService.parseToken(expiredToken).isEmpty());
+        assertTrue(jwtService.parseToken("invalid.token.here").isEmpty());
+    }
+
+    @Test
+    void parseToken_WithTokenSignedByAnotherKey_ShouldReturnEmpty() {
+        // Arrange
+        JwtService otherService = new JwtService(
+                "b3RoZXJTZWNyZXRLZXkxMjM0NTY3ODkwMTIzNDU2Nzg5MDEyMzQ1Njc4OTA=", expirationTime);
+        String foreignToken = otherService.generateToken("testuser");
+
+        // Act & Assert
+        assertTrue(jwtService.parseToken(foreignToken).isEmpty());
+        assertFalse(jwtService.validateToken(foreignToken));
+    }
+
     @Test
     void getRemainingTime_ShouldReturnPositiveValue() {
         // Arrange
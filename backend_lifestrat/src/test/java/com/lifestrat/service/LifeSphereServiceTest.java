@@ -1,5 +1,8 @@
 package com.lifestrat.service;
 
+import com.lifestrat.dto.CursorPage;
+import com.lifestrat.dto.PageCursor;
+import com.lifestrat.dto.SphereSummary;
 import com.lifestrat.entity.LifeSphere;
 import com.lifestrat.entity.User;
 import com.lifestrat.repository.LifeSphereRepository;
@@ -8,10 +11,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,6 +29,9 @@ class LifeSphereServiceTest {
     @Mock
     private LifeSphereRepository lifeSphereRepository;
 
+    @Spy
+    private LifeSphereCache lifeSphereCache = new LifeSphereCache(100, 10);
+
     @InjectMocks
     private LifeSphereService lifeSphereService;
 
@@ -64,25 +73,97 @@ class LifeSphereServiceTest {
         verify(lifeSphereRepository).findAllByUserId(1L);
     }
 
+    @Test
+    void findAllByUserId_RepeatedCalls_ShouldHitCache() {
+        // Arrange
+        when(lifeSphereRepository.findAllByUserId(1L)).thenReturn(Arrays.asList(workSphere, healthSphere));
+
+        // Act
+        lifeSphereService.findAllByUserId(1L);
+        List<LifeSphere> result = lifeSphereService.findAllByUserId(1L);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), result.stream().map(LifeSphere::getId).toList());
+        verify(lifeSphereRepository, times(1)).findAllByUserId(1L);
+        assertEquals(1, lifeSphereCache.stats().hitCount());
+        assertEquals(1, lifeSphereCache.stats().missCount());
+    }
+
+    @Test
+    void findAllByUserId_CallerModifiesResult_ShouldNotAffectCache() {
+        // Arrange
+        when(lifeSphereRepository.findAllByUserId(1L)).thenReturn(Arrays.asList(workSphere));
+
+        // Act
+        lifeSphereService.findAllByUserId(1L).get(0).setName("Changed");
+        List<LifeSphere> result = lifeSphereService.findAllByUserId(1L);
+
+        // Assert
+        assertEquals("Work", result.get(0).getName());
+    }
+
+    @Test
+    void findPageByUserId_WithCursor_ShouldSeekAfterId() {
+        // Arrange
+        String cursor = new PageCursor(null, 1L).encode();
+        when(lifeSphereRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(1L, 1L, PageRequest.of(0, 11)))
+                .thenReturn(List.of(new SphereSummary(2L, "Health", "#4ECDC4")));
+
+        // Act
+        CursorPage<SphereSummary> result = lifeSphereService.findPageByUserId(1L, cursor, 10);
+
+        // Assert
+        assertEquals(List.of(new SphereSummary(2L, "Health", "#4ECDC4")), result.items());
+        assertFalse(result.hasNext());
+    }
+
     @Test
     void findByIdAndUserId_SphereExists_ShouldReturnSphere() {
         // Arrange
-        List<LifeSphere> userSpheres = Arrays.asList(workSphere, healthSphere);
-        when(lifeSphereRepository.findAllByUserId(1L)).thenReturn(userSpheres);
+        when(lifeSphereRepository.findAllByUserId(1L)).thenReturn(Arrays.asList(workSphere, healthSphere));
 
         // Act
         Optional<LifeSphere> result = lifeSphereService.findByIdAndUserId(1L, 1L);
 
         // Assert
         assertTrue(result.isPresent());
-        assertEquals(workSphere, result.get());
+        assertEquals("Work", result.get().getName());
+        verify(lifeSphereRepository, never()).findByIdAndUserId(anyLong(), anyLong());
+    }
+
+    @Test
+    void findByIdAndUserId_CachedCopy_ShouldReferenceUserByIdOnly() {
+        // Arrange
+        when(lifeSphereRepository.findAllByUserId(1L)).thenReturn(Arrays.asList(workSphere));
+
+        // Act
+        LifeSphere result = lifeSphereService.findByIdAndUserId(1L, 1L).orElseThrow();
+
+        // Assert
+        assertNotSame(testUser, result.getUser());
+        assertEquals(1L, result.getUser().getId());
+        assertNull(result.getUser().getUsername());
+    }
+
+    @Test
+    void getReferencesByUserId_ShouldMapCachedIdsToReferences() {
+        // Arrange
+        when(lifeSphereRepository.findAllByUserId(1L)).thenReturn(Arrays.asList(workSphere, healthSphere));
+        when(lifeSphereRepository.getReferenceById(1L)).thenReturn(workSphere);
+        when(lifeSphereRepository.getReferenceById(2L)).thenReturn(healthSphere);
+
+        // Act
+        Map<Long, LifeSphere> result = lifeSphereService.getReferencesByUserId(1L);
+
+        // Assert
+        assertSame(workSphere, result.get(1L));
+        assertSame(healthSphere, result.get(2L));
     }
 
     @Test
     void findByIdAndUserId_SphereNotFound_ShouldReturnEmpty() {
         // Arrange
-        List<LifeSphere> userSpheres = Arrays.asList(workSphere, healthSphere);
-        when(lifeSphereRepository.findAllByUserId(1L)).thenReturn(userSpheres);
+        when(lifeSphereRepository.findAllByUserId(1L)).thenReturn(Arrays.asList(workSphere, healthSphere));
 
         // Act
         Optional<LifeSphere> result = lifeSphereService.findByIdAndUserId(3L, 1L);
@@ -99,8 +180,8 @@ class LifeSphereServiceTest {
         newSphere.setColor("#FFFFFF");
         newSphere.setUser(testUser);
 
-        when(lifeSphereRepository.findAllByUserId(1L)).thenReturn(Arrays.asList());
-        when(lifeSphereRepository.save(newSphere)).thenReturn(newSphere);
+        when(lifeSphereRepository.existsByUserIdAndNameIgnoreCase(1L, "New Sphere")).thenReturn(false);
+        when(lifeSphereRepository.saveAndFlush(newSphere)).thenReturn(newSphere);
 
         // Act
         LifeSphere result = lifeSphereService.create(newSphere, 1L);
@@ -108,7 +189,7 @@ class LifeSphereServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("New Sphere", result.getName());
-        verify(lifeSphereRepository).save(newSphere);
+        verify(lifeSphereRepository).saveAndFlush(newSphere);
     }
 
     @Test
@@ -127,6 +208,48 @@ class LifeSphereServiceTest {
         });
     }
 
+    @Test
+    void create_ValidLifeSphere_ShouldInvalidateCachedSpheres() {
+        // Arrange
+        LifeSphere newSphere = new LifeSphere();
+        newSphere.setId(3L);
+        newSphere.setName("Hobby");
+        newSphere.setColor("#FFFFFF");
+        newSphere.setUser(testUser);
+
+        when(lifeSphereRepository.findAllByUserId(1L))
+                .thenReturn(Arrays.asList(workSphere))
+                .thenReturn(Arrays.asList(workSphere, newSphere));
+        when(lifeSphereRepository.existsByUserIdAndNameIgnoreCase(1L, "Hobby")).thenReturn(false);
+        when(lifeSphereRepository.saveAndFlush(newSphere)).thenReturn(newSphere);
+
+        // Act
+        lifeSphereService.findAllByUserId(1L);
+        lifeSphereService.create(newSphere, 1L);
+        Optional<LifeSphere> result = lifeSphereService.findByIdAndUserId(3L, 1L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        verify(lifeSphereCache).evict(1L);
+        verify(lifeSphereRepository, times(2)).findAllByUserId(1L);
+    }
+
+    @Test
+    void create_DuplicateNameDifferentCase_ShouldThrowException() {
+        // Arrange
+        LifeSphere newSphere = new LifeSphere();
+        newSphere.setName("WORK");
+        newSphere.setUser(testUser);
+
+        when(lifeSphereRepository.existsByUserIdAndNameIgnoreCase(1L, "WORK")).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            lifeSphereService.create(newSphere, 1L);
+        });
+        verify(lifeSphereRepository, never()).saveAndFlush(any());
+    }
+
     @Test
     void create_DuplicateName_ShouldThrowException() {
         // Arrange
@@ -134,7 +257,7 @@ class LifeSphereServiceTest {
         newSphere.setName("Work");
         newSphere.setUser(testUser);
 
-        when(lifeSphereRepository.findAllByUserId(1L)).thenReturn(Arrays.asList(workSphere));
+        when(lifeSphereRepository.existsByUserIdAndNameIgnoreCase(1L, "Work")).thenReturn(true);
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> {
@@ -149,15 +272,19 @@ class LifeSphereServiceTest {
         updatedSphere.setName("Updated Work");
         updatedSphere.setColor("#000000");
 
-        when(lifeSphereRepository.save(workSphere)).thenReturn(workSphere);
+        LifeSphere cachedCopy = new LifeSphere(1L, "Work", "work", "#FF6B6B", new User());
+
+        when(lifeSphereRepository.findById(1L)).thenReturn(Optional.of(workSphere));
+        when(lifeSphereRepository.existsByUserIdAndNameIgnoreCase(1L, "Updated Work")).thenReturn(false);
+        when(lifeSphereRepository.saveAndFlush(workSphere)).thenReturn(workSphere);
 
         // Act
-        LifeSphere result = lifeSphereService.update(workSphere, updatedSphere);
+        LifeSphere result = lifeSphereService.update(cachedCopy, updatedSphere);
 
         // Assert
         assertEquals("Updated Work", result.getName());
         assertEquals("#000000", result.getColor());
-        verify(lifeSphereRepository).save(workSphere);
+        verify(lifeSphereRepository).saveAndFlush(workSphere);
     }
 
     @Test
@@ -166,7 +293,8 @@ class LifeSphereServiceTest {
         lifeSphereService.delete(workSphere);
 
         // Assert
-        verify(lifeSphereRepository).delete(workSphere);
+        verify(lifeSphereRepository).deleteById(1L);
+        verify(lifeSphereCache).evict(1L);
     }
 
     @Test
@@ -183,4 +311,20 @@ class LifeSphereServiceTest {
         assertEquals("Финансы", result.get(1).getName());
         verify(lifeSphereRepository).saveAll(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void createDefaultLifeSpheres_SeveralUsers_ShouldSaveAllInOneCall() {
+        // Arrange
+        User secondUser = new User();
+        secondUser.setId(2L);
+        when(lifeSphereRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<LifeSphere> result = lifeSphereService.createDefaultLifeSpheres(List.of(testUser, secondUser));
+
+        // Assert
+        assertEquals(12, result.size());
+        assertEquals(6, result.stream().filter(sphere -> sphere.getUser() == secondUser).count());
+        verify(lifeSphereRepository, times(1)).saveAll(any());
+    }
+}
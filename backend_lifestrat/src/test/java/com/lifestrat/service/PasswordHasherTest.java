@@ -0,0 +1,90 @@
+package com.lifestrat.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    void setUp() {
+        passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(4), 2, 4, 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void encodeAsync_ShouldProduceVerifiableHash() {
+        // Act
+        String hash = passwordHasher.encodeAsync("secret").join();
+
+        // Assert
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(passwordHasher.matchesAsync("secret", hash).join());
+        assertFalse(passwordHasher.matches("wrong", hash));
+    }
+
+    @Test
+    void encodeAsync_QueueFull_ShouldRejectImmediately() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        passwordHasher.shutdown();
+        passwordHasher = new PasswordHasher(blockingEncoder, 1, 2, 7);
+
+        // 1 задача выполняется, 2 ждут в очереди
+        CompletableFuture<String> running = passwordHasher.encodeAsync("one");
+        passwordHasher.encodeAsync("two");
+        passwordHasher.encodeAsync("three");
+
+        // Act & Assert
+        PasswordHashingRejectedException exception = assertThrows(PasswordHashingRejectedException.class,
+                () -> passwordHasher.encodeAsync("four"));
+        assertEquals(7, exception.getRetryAfterSeconds());
+
+        release.countDown();
+        assertNotNull(running.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void encodeAll_MoreRowsThanQueue_ShouldHashEveryPasswordInOrder() {
+        // Arrange
+        List<String> passwords = IntStream.range(0, 20)
+                .mapToObj(i -> "password" + i)
+                .toList();
+
+        // Act
+        List<String> hashes = passwordHasher.encodeAll(passwords);
+
+        // Assert
+        assertEquals(20, hashes.size());
+        for (int i = 0; i < passwords.size(); i++) {
+            assertTrue(passwordHasher.matches(passwords.get(i), hashes.get(i)));
+        }
+    }
+}
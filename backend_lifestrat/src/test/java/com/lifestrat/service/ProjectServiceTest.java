@@ -1,19 +1,28 @@
 package com.lifestrat.service;
 
+import com.lifestrat.dto.CursorPage;
+import com.lifestrat.dto.PageCursor;
+import com.lifestrat.dto.ProjectQuery;
+import com.lifestrat.dto.ProjectSummary;
 import com.lifestrat.entity.Project;
 import com.lifestrat.entity.LifeSphere;
 import com.lifestrat.entity.User;
 import com.lifestrat.entity.Priority;
 import com.lifestrat.repository.ProjectRepository;
+import com.lifestrat.repository.ProjectSpecifications;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +35,12 @@ class ProjectServiceTest {
     @Mock
     private ProjectRepository projectRepository;
 
+    @Mock
+    private LifeSphereService lifeSphereService;
+
+    @Mock
+    private SearchIndex searchIndex;
+
     @InjectMocks
     private ProjectService projectService;
 
@@ -77,11 +92,29 @@ class ProjectServiceTest {
         verify(projectRepository).findAllByUserId(1L);
     }
 
+    private ProjectSummary summary(Project project) {
+        return new ProjectSummary(project.getId(), project.getTitle(), project.getDeadline(), project.getPriority(),
+                workSphere.getId(), workSphere.getName(), workSphere.getColor());
+    }
+
+    @Test
+    void findPageByUserId_ShouldPageByDeadlineAndId() {
+        // Arrange
+        when(projectRepository.findPageByUserId(1L, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(summary(project2), summary(project1)));
+
+        // Act
+        CursorPage<ProjectSummary> result = projectService.findPageByUserId(1L, null, 1);
+
+        // Assert
+        assertEquals(List.of(summary(project2)), result.items());
+        assertEquals(new PageCursor(project2.getDeadline(), 2L), PageCursor.decode(result.nextCursor()));
+    }
+
     @Test
     void findByIdAndUserId_ProjectExists_ShouldReturnProject() {
         // Arrange
-        List<Project> userProjects = Arrays.asList(project1, project2);
-        when(projectRepository.findAllByUserId(1L)).thenReturn(userProjects);
+        when(projectRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(project1));
 
         // Act
         Optional<Project> result = projectService.findByIdAndUserId(1L, 1L);
@@ -89,6 +122,7 @@ class ProjectServiceTest {
         // Assert
         assertTrue(result.isPresent());
         assertEquals(project1, result.get());
+        verify(projectRepository, never()).findAllByUserId(anyLong());
     }
 
     @Test
@@ -101,8 +135,9 @@ class ProjectServiceTest {
         newProject.setPriority(Priority.LOW);
         newProject.setDeadline(LocalDate.now().plusDays(10));
 
-        when(projectRepository.findAllByUserId(1L)).thenReturn(Arrays.asList());
-        when(projectRepository.save(newProject)).thenReturn(newProject);
+        when(lifeSphereService.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(workSphere));
+        when(projectRepository.existsByUserIdAndTitleIgnoreCase(1L, "New Project")).thenReturn(false);
+        when(projectRepository.saveAndFlush(newProject)).thenReturn(newProject);
 
         // Act
         Project result = projectService.create(newProject, 1L);
@@ -110,7 +145,8 @@ class ProjectServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("New Project", result.getTitle());
-        verify(projectRepository).save(newProject);
+        verify(projectRepository).saveAndFlush(newProject);
+        verify(projectRepository, never()).findAllByUserId(anyLong());
     }
 
     @Test
@@ -148,6 +184,27 @@ class ProjectServiceTest {
         });
     }
 
+    @Test
+    void create_LifeSphereOfAnotherUser_ShouldThrowException() {
+        // Arrange
+        LifeSphere foreignSphere = new LifeSphere();
+        foreignSphere.setId(5L);
+        foreignSphere.setUser(testUser);
+
+        Project newProject = new Project();
+        newProject.setTitle("New Project");
+        newProject.setUser(testUser);
+        newProject.setLifeSphere(foreignSphere);
+
+        when(lifeSphereService.findByIdAndUserId(5L, 1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            projectService.create(newProject, 1L);
+        });
+        verify(projectRepository, never()).save(any());
+    }
+
     @Test
     void create_DuplicateTitle_ShouldThrowException() {
         // Arrange
@@ -156,12 +213,51 @@ class ProjectServiceTest {
         newProject.setUser(testUser);
         newProject.setLifeSphere(workSphere);
 
-        when(projectRepository.findAllByUserId(1L)).thenReturn(Arrays.asList(project1));
+        when(lifeSphereService.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(workSphere));
+        when(projectRepository.existsByUserIdAndTitleIgnoreCase(1L, "Project 1")).thenReturn(true);
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> {
             projectService.create(newProject, 1L);
         });
+        verify(projectRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void create_ConcurrentDuplicateTitle_ShouldTranslateConstraintViolation() {
+        // Arrange
+        Project newProject = new Project();
+        newProject.setTitle("PROJECT 1");
+        newProject.setUser(testUser);
+        newProject.setLifeSphere(workSphere);
+
+        when(lifeSphereService.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(workSphere));
+        when(projectRepository.existsByUserIdAndTitleIgnoreCase(1L, "PROJECT 1")).thenReturn(false);
+        when(projectRepository.saveAndFlush(newProject)).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new RuntimeException("Unique index or primary key violation: \"PUBLIC.UK_PROJECTS_USER_ID_TITLE_KEY\"")));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> projectService.create(newProject, 1L));
+        assertEquals("Project with title 'PROJECT 1' already exists", exception.getMessage());
+    }
+
+    @Test
+    void create_OtherIntegrityViolation_ShouldRethrow() {
+        // Arrange
+        Project newProject = new Project();
+        newProject.setTitle("New Project");
+        newProject.setUser(testUser);
+        newProject.setLifeSphere(workSphere);
+
+        when(lifeSphereService.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(workSphere));
+        when(projectRepository.existsByUserIdAndTitleIgnoreCase(1L, "New Project")).thenReturn(false);
+        when(projectRepository.saveAndFlush(newProject))
+                .thenThrow(new DataIntegrityViolationException("NULL not allowed for column \"DEADLINE\""));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> projectService.create(newProject, 1L));
     }
 
     @Test
@@ -174,14 +270,15 @@ class ProjectServiceTest {
         updatedProject.setPriority(Priority.CRITICAL);
         updatedProject.setLifeSphere(workSphere);
 
-        when(projectRepository.save(project1)).thenReturn(project1);
+        when(projectRepository.existsByUserIdAndTitleIgnoreCase(1L, "Updated Project")).thenReturn(false);
+        when(projectRepository.saveAndFlush(project1)).thenReturn(project1);
 
         // Act
         Project result = projectService.update(project1, updatedProject);
 
         // Assert
         assertEquals("Updated Project", result.getTitle());
-        verify(projectRepository).save(project1);
+        verify(projectRepository).saveAndFlush(project1);
     }
 
     @Test
@@ -194,31 +291,30 @@ class ProjectServiceTest {
     }
 
     @Test
-    void findAllByUserIdAndLifeSphereId_ShouldReturnFilteredProjects() {
+    @SuppressWarnings("unchecked")
+    void findAllByUserIdAndLifeSphereId_ShouldQueryDatabase() {
         // Arrange
-        List<Project> userProjects = Arrays.asList(project1, project2);
-        when(projectRepository.findAllByUserId(1L)).thenReturn(userProjects);
+        when(projectRepository.findAll(any(Specification.class), eq(ProjectSpecifications.DEADLINE_ORDER)))
+                .thenReturn(Arrays.asList(project2, project1));
 
         // Act
         List<Project> result = projectService.findAllByUserIdAndLifeSphereId(1L, 1L);
 
         // Assert
-        assertEquals(2, result.size());
-        assertTrue(result.stream().allMatch(p -> p.getLifeSphere().getId().equals(1L)));
+        assertEquals(List.of(project2, project1), result);
+        verify(projectRepository, never()).findAllByUserId(anyLong());
     }
 
     @Test
-    void findOverdueProjectsByUserId_ShouldReturnOverdueProjects() {
+    @SuppressWarnings("unchecked")
+    void findOverdueProjectsByUserId_ShouldQueryDatabase() {
         // Arrange
         Project overdueProject = new Project();
         overdueProject.setId(3L);
         overdueProject.setTitle("Overdue Project");
-        overdueProject.setUser(testUser);
-        overdueProject.setLifeSphere(workSphere);
         overdueProject.setDeadline(LocalDate.now().minusDays(1));
-
-        List<Project> userProjects = Arrays.asList(project1, project2, overdueProject);
-        when(projectRepository.findAllByUserId(1L)).thenReturn(userProjects);
+        when(projectRepository.findAll(any(Specification.class), eq(ProjectSpecifications.DEADLINE_ORDER)))
+                .thenReturn(List.of(overdueProject));
 
         // Act
         List<Project> result = projectService.findOverdueProjectsByUserId(1L);
@@ -226,5 +322,55 @@ class ProjectServiceTest {
         // Assert
         assertEquals(1, result.size());
         assertEquals("Overdue Project", result.get(0).getTitle());
+        verify(projectRepository, never()).findAllByUserId(anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void search_MoreRowsThanPage_ShouldReturnCursor() {
+        // Arrange
+        ProjectQuery query = new ProjectQuery(1L, "project", null, null, EnumSet.of(Priority.HIGH, Priority.MEDIUM));
+        when(projectRepository.findPage(any(Specification.class), eq(2)))
+                .thenReturn(Arrays.asList(summary(project2), summary(project1)));
+
+        // Act
+        CursorPage<ProjectSummary> result = projectService.search(1L, query, null, 1);
+
+        // Assert
+        assertEquals(List.of(summary(project2)), result.items());
+        assertTrue(result.hasNext());
+        assertEquals(new PageCursor(project2.getDeadline(), 2L), PageCursor.decode(result.nextCursor()));
+    }
+
+    @Test
+    void searchAndPage_InvalidCursor_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> projectService.search(1L, ProjectQuery.all(), "not a cursor", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> projectService.search(1L, ProjectQuery.all(), new PageCursor(null, 2L).encode(), 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> projectService.findPageByUserId(1L, new PageCursor(null, 2L).encode(), 10));
+        verifyNoInteractions(projectRepository);
+    }
+
+    @Test
+    void projectQuery_DeadlineRangeReversed_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ProjectQuery(null, null,
+                LocalDate.now(), LocalDate.now().minusDays(1), null));
+    }
+
+    @Test
+    void update_TitleTakenByAnotherProject_ShouldThrowException() {
+        // Arrange
+        Project updatedProject = new Project();
+        updatedProject.setTitle("project 2");
+
+        when(projectRepository.existsByUserIdAndTitleIgnoreCase(1L, "project 2")).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> projectService.update(project1, updatedProject));
+        verify(projectRepository, never()).saveAndFlush(any());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,188 @@
+package com.lifestrat.service;
+
+import com.lifestrat.dto.SearchHit;
+import com.lifestrat.entity.Project;
+import com.lifestrat.entity.Task;
+import com.lifestrat.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexTest {
+
+    private SearchIndex searchIndex;
+    private AtomicInteger loads;
+    private Function<Long, UserSearchIndex> loader;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new SearchIndex(1000, 10);
+        loads = new AtomicInteger();
+        loader = userId -> {
+            loads.incrementAndGet();
+            UserSearchIndex index = new UserSearchIndex();
+            index.put(SearchHit.Type.TASK, 1L, "Buy groceries", "Milk, bread and coffee beans");
+            index.put(SearchHit.Type.TASK, 2L, "Prepare presentation", "Slides for the quarterly review");
+            index.put(SearchHit.Type.TASK, 3L, "Review budget", "Quarterly budget for groceries");
+            index.put(SearchHit.Type.PROJECT, 1L, "Marathon training", "Run a marathon in spring");
+            return index;
+        };
+
+        testUser = new User();
+        testUser.setId(1L);
+    }
+
+    private List<String> titles(String query) {
+        return searchIndex.search(1L, query, 10, loader).stream()
+                .map(SearchHit::title)
+                .toList();
+    }
+
+    @Test
+    void search_TitleMatch_ShouldRankAboveDescriptionMatch() {
+        // Act
+        List<String> result = titles("groceries");
+
+        // Assert
+        assertEquals(List.of("Buy groceries", "Review budget"), result);
+    }
+
+    @Test
+    void search_Prefix_ShouldMatchTermStart() {
+        // Act & Assert
+        assertEquals(List.of("Prepare presentation"), titles("presen"));
+        assertEquals(List.of("Marathon training"), titles("MARA"));
+    }
+
+    @Test
+    void search_Typo_ShouldMatchFuzzy() {
+        // Act & Assert
+        assertEquals(List.of("Marathon training"), titles("maraton"));
+        assertEquals(List.of("Prepare presentation"), titles("presentaiton"));
+    }
+
+    @Test
+    void search_SeveralTerms_ShouldRequireEveryTerm() {
+        // Act & Assert
+        assertEquals(List.of("Review budget"), titles("quarterly budget"));
+        assertTrue(titles("quarterly marathon").isEmpty());
+    }
+
+    @Test
+    void search_TasksAndProjectsWithSameId_ShouldBeSeparateDocuments() {
+        // Act
+        List<SearchHit> hits = searchIndex.search(1L, "buy marathon groceries training", 10, loader);
+        List<SearchHit> taskHits = searchIndex.search(1L, "groceries", 10, loader);
+        List<SearchHit> projectHits = searchIndex.search(1L, "spring", 10, loader);
+
+        // Assert
+        assertTrue(hits.isEmpty());
+        assertEquals(SearchHit.Type.TASK, taskHits.get(0).type());
+        assertEquals(List.of(new SearchHit(SearchHit.Type.PROJECT, 1L, "Marathon training",
+                projectHits.get(0).score())), projectHits);
+    }
+
+    @Test
+    void search_RepeatedQueries_ShouldBuildIndexOnce() {
+        // Act
+        titles("groceries");
+        titles("budget");
+
+        // Assert
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onTaskSaved_IndexBuilt_ShouldReplaceDocument() {
+        // Arrange
+        titles("groceries");
+        Task task = new Task();
+        task.setId(1L);
+        task.setTitle("Buy tickets");
+        task.setDescription("Concert on Friday");
+        task.setUser(testUser);
+
+        // Act
+        searchIndex.onTaskSaved(task);
+
+        // Assert
+        assertEquals(List.of("Review budget"), titles("groceries"));
+        assertEquals(List.of("Buy tickets"), titles("concert"));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onTasksDeleted_ShouldRemoveDocumentsAndSkipUnknownIds() {
+        // Arrange
+        titles("budget");
+
+        // Act
+        searchIndex.onTasksDeleted(1L, List.of(3L, 99L));
+
+        // Assert
+        assertTrue(titles("budget").isEmpty());
+        assertEquals(List.of("Buy groceries"), titles("groceries"));
+    }
+
+    @Test
+    void onProjectSaved_IndexNotBuilt_ShouldSkipUpdate() {
+        // Arrange
+        Project project = new Project();
+        project.setId(2L);
+        project.setTitle("Garden");
+        project.setUser(testUser);
+
+        // Act
+        searchIndex.onProjectSaved(project);
+
+        // Assert
+        assertTrue(titles("garden").isEmpty());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onProjectDeleted_ShouldRemoveProjectOnly() {
+        // Arrange
+        titles("marathon");
+
+        // Act
+        searchIndex.onProjectDeleted(1L, 1L);
+
+        // Assert
+        assertTrue(titles("marathon").isEmpty());
+        assertEquals(List.of("Buy groceries"), titles("buy"));
+    }
+
+    @Test
+    void evict_ShouldRebuildOnNextSearch() {
+        // Arrange
+        titles("groceries");
+
+        // Act
+        searchIndex.evict(1L);
+        titles("groceries");
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void boundedDistance_ShouldStopAboveLimit() {
+        // Act & Assert
+        assertEquals(1, UserSearchIndex.boundedDistance("maraton", "marathon", 1));
+        assertEquals(2, UserSearchIndex.boundedDistance("presentaiton", "presentation", 2));
+        assertEquals(2, UserSearchIndex.boundedDistance("budget", "bridge", 1));
+    }
+
+    @Test
+    void tokenize_ShouldSplitOnPunctuationAndLowerCase() {
+        // Act & Assert
+        assertEquals(List.of("milk", "bread", "и", "кофе", "2"), UserSearchIndex.tokenize("Milk, bread И кофе #2"));
+    }
+}
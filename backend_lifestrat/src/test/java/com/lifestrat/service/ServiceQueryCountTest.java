@@ -0,0 +1,441 @@
+package com.lifestrat.service;
+
+import com.lifestrat.config.QueryCounter;
+import com.lifestrat.dto.CursorPage;
+import com.lifestrat.dto.ProjectQuery;
+import com.lifestrat.dto.ProjectSummary;
+import com.lifestrat.dto.SphereSummary;
+import com.lifestrat.dto.TaskSummary;
+import com.lifestrat.dto.TrendGranularity;
+import com.lifestrat.entity.*;
+import com.lifestrat.repository.LifeSphereRepository;
+import com.lifestrat.repository.ProjectRepository;
+import com.lifestrat.repository.TaskRepository;
+import com.lifestrat.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Регрессионные тесты числа SQL-запросов: каждый публичный метод AnalyticsService, TaskService,
+ * ProjectService и LifeSphereService вызывается на реальной схеме (H2) и должен выполнить не больше
+ * заданного числа запросов. Запросы считает тот же {@link QueryCounter}, что пишет метрику
+ * lifestrat.http.queries; один JDBC batch считается одним запросом.
+ * Данные пользователя (30 задач, 5 проектов, 3 сферы) больше любого лимита, поэтому N+1 по задачам
+ * или проектам (например, обращение к ленивой связи в цикле) сразу выводит вызов за лимит.
+ * Тест не транзакционный: каждый вызов сервиса фиксирует свою транзакцию, и в счет попадают
+ * все INSERT/UPDATE, которые выполнятся при фиксации.
+ */
+@SpringBootTest
+class ServiceQueryCountTest {
+
+    private static final int SPHERES = 3;
+    private static final int PROJECTS = 5;
+    private static final int TASKS = 30;
+
+    private static final AtomicInteger USER_SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private LifeSphereService lifeSphereService;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private StreakService streakService;
+
+    @Autowired
+    private TaskRollupService taskRollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LifeSphereRepository lifeSphereRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private LocalDate today;
+    private User user;
+    private Long userId;
+    private List<LifeSphere> spheres;
+    private List<Project> projects;
+    private List<Task> tasks;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now();
+        user = userRepository.save(newUser());
+        userId = user.getId();
+
+        spheres = new ArrayList<>();
+        for (int i = 0; i < SPHERES; i++) {
+            spheres.add(newSphere("Sphere " + i));
+        }
+        spheres = lifeSphereRepository.saveAll(spheres);
+
+        projects = new ArrayList<>();
+        for (int i = 0; i < PROJECTS; i++) {
+            projects.add(newProject("Project " + i, today.plusDays(i * 10L - 20), spheres.get(i % 2)));
+        }
+        projects = projectRepository.saveAll(projects);
+
+        // Шаги проектов, разовые дела и ритуалы; дедлайны в прошлом и будущем, половина выполнена
+        tasks = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            TaskType type = TaskType.values()[i % 3];
+            Project project = type == TaskType.STEP ? projects.get(i % PROJECTS) : null;
+            LifeSphere sphere = project != null ? project.getLifeSphere() : spheres.get(i % SPHERES);
+            tasks.add(newTask("Task " + i, type, today.minusDays(15).plusDays(i), i % 2 == 0, sphere, project));
+        }
+        tasks = taskRepository.saveAll(tasks);
+
+        taskStatsService.rebuild(userId);
+        streakService.rebuild(userId);
+        taskRollupService.rebuild(userId);
+    }
+
+    // Выполнить вызов и проверить, что он выполнил не больше max SQL-запросов
+    private <T> T atMost(int max, Supplier<T> call) {
+        QueryCounter.Counts counts = queryCounter.start();
+        T result;
+        try {
+            result = call.get();
+        } finally {
+            queryCounter.stop();
+        }
+        assertTrue(counts.getStatements() <= max, () -> "Expected at most " + max + " SQL statements, but "
+                + counts.getStatements() + " were executed (" + counts.getEntitiesLoaded() + " entities loaded)");
+        return result;
+    }
+
+    private void atMost(int max, Runnable call) {
+        atMost(max, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private User newUser() {
+        int number = USER_SEQUENCE.incrementAndGet();
+        User newUser = new User();
+        newUser.setUsername("query-count-" + number);
+        newUser.setEmail("query-count-" + number + "@example.com");
+        newUser.setPassword("hash");
+        return newUser;
+    }
+
+    private LifeSphere newSphere(String name) {
+        LifeSphere sphere = new LifeSphere();
+        sphere.setName(name);
+        sphere.setColor("#FF6B6B");
+        sphere.setUser(user);
+        return sphere;
+    }
+
+    private Project newProject(String title, LocalDate deadline, LifeSphere sphere) {
+        Project project = new Project();
+        project.setTitle(title);
+        project.setDescription("Description of " + title);
+        project.setDeadline(deadline);
+        project.setPriority(Priority.values()[Math.floorMod(title.hashCode(), Priority.values().length)]);
+        project.setLifeSphere(sphere);
+        project.setUser(user);
+        return project;
+    }
+
+    private Task newTask(String title, TaskType type, LocalDate deadline, boolean completed,
+                         LifeSphere sphere, Project project) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription("Description of " + title);
+        task.setType(type);
+        task.setDeadline(deadline);
+        task.setCompleted(completed);
+        task.setPriority(Priority.values()[Math.floorMod(title.hashCode(), Priority.values().length)]);
+        task.setEstimatedTimeMinutes(30);
+        task.setEnergyCost(EnergyCost.MEDIUM);
+        task.setLifeSphere(sphere);
+        task.setProject(project);
+        task.setUser(user);
+        return task;
+    }
+
+    private List<Long> taskIds(int count) {
+        return tasks.stream().limit(count).map(Task::getId).toList();
+    }
+
+    // ===== AnalyticsService =====
+
+    @Test
+    void analytics_LifeSphereBalance_ShouldAggregateInOneQuery() {
+        // Act
+        atMost(1, () -> analyticsService.getLifeSphereBalance(userId));
+        atMost(1, () -> analyticsService.getLifeSphereBalance(userId, 7));
+        Object balance = atMost(1, () -> analyticsService.getLifeSphereBalance(userId, today.minusDays(30), today));
+
+        // Assert
+        assertNotNull(balance);
+    }
+
+    @Test
+    void analytics_ProjectsProgress_ShouldNotLoadTasksPerProject() {
+        // Act
+        assertEquals(PROJECTS, atMost(1, () -> analyticsService.getMainProjectsProgress(userId)).size());
+        // Страница и COUNT
+        assertEquals(2, atMost(2, () -> analyticsService.getMainProjectsProgress(userId, PageRequest.of(0, 2)))
+                .getNumberOfElements());
+
+        List<Object> streamed = new ArrayList<>();
+        atMost(1, () -> analyticsService.forEachProjectProgress(userId, streamed::add));
+
+        // Assert
+        assertEquals(PROJECTS, streamed.size());
+    }
+
+    @Test
+    void analytics_Counters_ShouldReadMaterializedState() {
+        // Act
+        atMost(2, () -> analyticsService.getProductivityStats(userId));
+        atMost(1, () -> analyticsService.getTimeStatistics(userId));
+        atMost(1, () -> analyticsService.getPriorityDistribution(userId));
+
+        // Assert
+        assertEquals(TASKS, atMost(1, () -> analyticsService.getTimeStatistics(userId)).get("tasksCount"));
+    }
+
+    @Test
+    void analytics_TaskTrend_ShouldReadRollupsInOneQuery() {
+        // Act
+        atMost(1, () -> analyticsService.getTaskTrend(userId, TrendGranularity.DAY,
+                today.minusDays(30), today.plusDays(30), null));
+        atMost(1, () -> analyticsService.getTaskTrend(userId, TrendGranularity.WEEK, null, null,
+                spheres.get(0).getId()));
+
+        // Assert
+        assertEquals(12, atMost(1, () -> analyticsService.getTaskTrend(userId, TrendGranularity.MONTH,
+                null, null, null)).size());
+    }
+
+    // ===== TaskService =====
+
+    @Test
+    void tasks_Reads_ShouldUseOneQuery() {
+        // Act
+        assertEquals(TASKS, atMost(1, () -> taskService.findAllByUserId(userId)).size());
+        assertEquals(TASKS / 3, atMost(1, () -> taskService.findAllByUserIdAndType(userId, TaskType.STEP)).size());
+        assertTrue(atMost(1, () -> taskService.findByIdAndUserId(tasks.get(0).getId(), userId)).isPresent());
+
+        CursorPage<TaskSummary> firstPage = atMost(1, () -> taskService.findPageByUserId(userId, null, 10));
+        CursorPage<TaskSummary> secondPage = atMost(1, () -> taskService.findPageByUserId(userId, firstPage.nextCursor(), 10));
+
+        // Assert
+        assertEquals(10, secondPage.items().size());
+    }
+
+    @Test
+    void tasks_Create_ShouldNotDependOnTaskCount() {
+        // Arrange
+        Task task = newTask("New task", TaskType.STEP, today, true, projects.get(0).getLifeSphere(), projects.get(0));
+
+        // Act
+        Task created = atMost(9, () -> taskService.create(task, userId));
+
+        // Assert
+        assertNotNull(created.getId());
+    }
+
+    @Test
+    void tasks_CreateAll_ShouldBatchInserts() {
+        // Arrange
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            batch.add(newTask("Batch task " + i, TaskType.ACTION, today.plusDays(i % 5), i % 2 == 0,
+                    spheres.get(i % SPHERES), null));
+        }
+
+        // Act
+        List<Task> created = atMost(11, () -> taskService.createAll(batch, userId));
+
+        // Assert
+        assertEquals(TASKS, created.size());
+    }
+
+    @Test
+    void tasks_Update_ShouldNotDependOnTaskCount() {
+        // Arrange
+        Task taskFromDb = tasks.get(1);
+        Task request = newTask("Updated task", taskFromDb.getType(), taskFromDb.getDeadline().plusDays(3), true,
+                taskFromDb.getLifeSphere(), taskFromDb.getProject());
+
+        // Act
+        Task updated = atMost(12, () -> taskService.update(taskFromDb, request));
+
+        // Assert
+        assertTrue(updated.isCompleted());
+    }
+
+    @Test
+    void tasks_Delete_ShouldNotDependOnTaskCount() {
+        // Act
+        atMost(11, () -> taskService.delete(tasks.get(0)));
+
+        // Assert
+        assertEquals(TASKS - 1, taskRepository.findAllByUserId(userId).size());
+    }
+
+    @Test
+    void tasks_MarkAsCompleted_ShouldNotDependOnTaskCount() {
+        // Act
+        Task completed = atMost(12, () -> taskService.markAsCompleted(tasks.get(1).getId(), userId));
+
+        // Assert
+        assertTrue(completed.isCompleted());
+    }
+
+    @Test
+    void tasks_BulkOperations_ShouldNotDependOnBatchSize() {
+        // Act
+        int marked = atMost(11, () -> taskService.markAllAsCompleted(taskIds(20), userId));
+        int shifted = atMost(12, () -> taskService.shiftDeadlines(taskIds(20), 3, userId));
+        int deleted = atMost(14, () -> taskService.deleteAll(taskIds(20), userId));
+
+        // Assert
+        assertEquals(10, marked);
+        assertEquals(20, shifted);
+        assertEquals(20, deleted);
+    }
+
+    // ===== ProjectService =====
+
+    @Test
+    void projects_Reads_ShouldUseOneQuery() {
+        // Act
+        assertEquals(PROJECTS, atMost(1, () -> projectService.findAllByUserId(userId)).size());
+        assertEquals(2, atMost(1, () -> projectService.findAllByUserIdAndIdIn(userId,
+                List.of(projects.get(0).getId(), projects.get(1).getId()))).size());
+        assertTrue(atMost(1, () -> projectService.findByIdAndUserId(projects.get(0).getId(), userId)).isPresent());
+
+        CursorPage<ProjectSummary> firstPage = atMost(1, () -> projectService.findPageByUserId(userId, null, 2));
+        atMost(1, () -> projectService.findPageByUserId(userId, firstPage.nextCursor(), 2));
+
+        // Assert
+        assertEquals(2, firstPage.items().size());
+    }
+
+    @Test
+    void projects_Filters_ShouldUseOneQuery() {
+        // Act
+        CursorPage<ProjectSummary> page = atMost(1, () -> projectService.search(userId, ProjectQuery.all(), null, 3));
+        atMost(1, () -> projectService.search(userId, ProjectQuery.highPriority(), page.nextCursor(), 3));
+        atMost(1, () -> projectService.findAllByUserIdAndLifeSphereId(userId, spheres.get(0).getId()));
+        atMost(1, () -> projectService.findByTitleContainingAndUserId("project", userId));
+        atMost(1, () -> projectService.findOverdueProjectsByUserId(userId));
+        atMost(1, () -> projectService.findHighPriorityProjectsByUserId(userId));
+
+        // Assert
+        assertEquals(3, page.items().size());
+    }
+
+    @Test
+    void projects_Writes_ShouldNotDependOnProjectCount() {
+        // Arrange
+        Project project = newProject("New project", today.plusDays(30), spheres.get(2));
+
+        // Act
+        // Сфера (загрузка кэша сфер), проверка названия, INSERT
+        Project created = atMost(3, () -> projectService.create(project, userId));
+        // Проверка названия, загрузка для merge, UPDATE
+        Project updated = atMost(3, () -> projectService.update(created,
+                newProject("Renamed project", today.plusDays(40), spheres.get(1))));
+        atMost(2, () -> projectService.delete(updated));
+
+        // Assert
+        assertEquals(PROJECTS, projectRepository.findAllByUserId(userId).size());
+    }
+
+    // ===== LifeSphereService =====
+
+    @Test
+    void lifeSpheres_Reads_ShouldBeServedByCache() {
+        // Act
+        assertEquals(SPHERES, atMost(1, () -> lifeSphereService.findAllByUserId(userId)).size());
+        atMost(0, () -> lifeSphereService.findAllByUserId(userId));
+        atMost(0, () -> lifeSphereService.findByIdAndUserId(spheres.get(0).getId(), userId));
+        atMost(0, () -> lifeSphereService.findByNameAndUserId("Sphere 1", userId));
+        CursorPage<SphereSummary> page = atMost(1, () -> lifeSphereService.findPageByUserId(userId, null, 2));
+
+        // Assert
+        assertEquals(2, page.items().size());
+    }
+
+    @Test
+    void lifeSpheres_ManagedLoads_ShouldNotDependOnSphereCount() {
+        // Act
+        // Управляемая сущность всегда читается из БД одним запросом
+        assertTrue(atMost(1, () -> lifeSphereService.loadByIdAndUserId(spheres.get(0).getId(), userId)).isPresent());
+        // Владение проверяется по кэшу (один запрос при холодном кэше), ссылки не загружаются
+        Map<Long, LifeSphere> references = atMost(1, () -> lifeSphereService.getReferencesByUserId(userId));
+        atMost(0, () -> lifeSphereService.getReferencesByUserId(userId));
+
+        // Assert
+        assertEquals(SPHERES, references.size());
+    }
+
+    @Test
+    void lifeSpheres_Writes_ShouldNotDependOnSphereCount() {
+        // Act
+        // Проверка названия, INSERT
+        LifeSphere created = atMost(2, () -> lifeSphereService.create(newSphere("New sphere"), userId));
+        LifeSphere request = newSphere("Renamed sphere");
+        // Загрузка управляемой сферы, проверка названия, UPDATE
+        LifeSphere updated = atMost(3, () -> lifeSphereService.update(created, request));
+        atMost(2, () -> lifeSphereService.delete(updated));
+
+        // Assert
+        assertEquals(SPHERES, lifeSphereRepository.findAllByUserId(userId).size());
+    }
+
+    @Test
+    void lifeSpheres_CreateDefaults_ShouldBatchInserts() {
+        // Arrange
+        User single = userRepository.save(newUser());
+        List<User> users = userRepository.saveAll(List.of(newUser(), newUser(), newUser()));
+
+        // Act
+        // Один JDBC batch на все сферы, независимо от числа пользователей
+        List<LifeSphere> singleSpheres = atMost(1, () -> lifeSphereService.createDefaultLifeSpheres(single));
+        List<LifeSphere> batchSpheres = atMost(1, () -> lifeSphereService.createDefaultLifeSpheres(users));
+
+        // Assert
+        assertEquals(6, singleSpheres.size());
+        assertEquals(18, batchSpheres.size());
+    }
+}
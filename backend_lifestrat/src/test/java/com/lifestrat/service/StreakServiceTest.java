@@ -0,0 +1,323 @@
+package com.lifestrat.service;
+
+import com.lifestrat.entity.UserStreak;
+import com.lifestrat.repository.TaskRepository;
+import com.lifestrat.repository.UserRepository;
+import com.lifestrat.repository.UserStreakRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StreakServiceTest {
+
+    @Mock
+    private UserStreakRepository userStreakRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private StreakService streakService;
+
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now();
+    }
+
+    private UserStreak rebuildFrom(LocalDate... days) {
+        when(taskRepository.findCompletedDaysByUserId(1L)).thenReturn(Arrays.asList(days));
+        when(userStreakRepository.findForUpdate(1L)).thenReturn(Optional.empty());
+        when(userStreakRepository.save(any(UserStreak.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        return streakService.rebuild(1L);
+    }
+
+    @Test
+    void rebuild_ConsecutiveDays_ShouldCalculateStreaks() {
+        // Act
+        UserStreak streak = rebuildFrom(today.minusDays(3), today.minusDays(2), today.minusDays(1), today);
+
+        // Assert
+        assertEquals(4, streak.getCurrentStreak());
+        assertEquals(4, streak.getMaxStreak());
+        assertEquals(today, streak.getLastCompletionDay());
+        assertEquals(4L, streakService.getCurrentStreak(streak, today));
+    }
+
+    @Test
+    void rebuild_NoCompletedTasks_ShouldReturnEmptyState() {
+        // Act
+        UserStreak streak = rebuildFrom();
+
+        // Assert
+        assertEquals(0, streak.getCurrentStreak());
+        assertEquals(0, streak.getMaxStreak());
+        assertNull(streak.getLastCompletionDay());
+        assertEquals(0L, streakService.getCurrentStreak(streak, today));
+    }
+
+    @Test
+    void rebuild_GapBetweenDays_ShouldKeepLongestRunAsMax() {
+        // Act
+        UserStreak streak = rebuildFrom(today.minusDays(10), today.minusDays(9), today.minusDays(8),
+                today.minusDays(1), today);
+
+        // Assert
+        assertEquals(2, streak.getCurrentStreak());
+        assertEquals(3, streak.getMaxStreak());
+    }
+
+    @Test
+    void getStreak_StateMissing_ShouldRebuildFromHistory() {
+        // Arrange
+        when(userStreakRepository.findById(1L)).thenReturn(Optional.empty());
+        when(taskRepository.findCompletedDaysByUserId(1L)).thenReturn(Collections.singletonList(today));
+        when(userStreakRepository.findForUpdate(1L)).thenReturn(Optional.empty());
+        when(userStreakRepository.save(any(UserStreak.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        UserStreak streak = streakService.getStreak(1L);
+
+        // Assert
+        assertEquals(1, streak.getCurrentStreak());
+        verify(userStreakRepository).save(streak);
+    }
+
+    @Test
+    void getStreak_StateMissing_ShouldLockUserRowBeforeCreatingState() {
+        // Arrange
+        when(userStreakRepository.findById(1L)).thenReturn(Optional.empty());
+        when(taskRepository.findCompletedDaysByUserId(1L)).thenReturn(Collections.singletonList(today));
+        when(userStreakRepository.findForUpdate(1L)).thenReturn(Optional.empty());
+        when(userStreakRepository.save(any(UserStreak.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        streakService.getStreak(1L);
+
+        // Assert
+        InOrder inOrder = inOrder(userRepository, userStreakRepository);
+        inOrder.verify(userRepository).findForUpdate(1L);
+        inOrder.verify(userStreakRepository).findForUpdate(1L);
+        inOrder.verify(userStreakRepository).save(any(UserStreak.class));
+    }
+
+    @Test
+    void rebuild_FarFutureDeadline_ShouldIgnoreDayOutsideWindow() {
+        // Act
+        UserStreak streak = rebuildFrom(today.minusDays(1), today, today.plusYears(500));
+
+        // Assert
+        assertEquals(today, streak.getLastCompletionDay());
+        assertEquals(2, streak.getCurrentStreak());
+        assertTrue(streak.getDayBitmap().length <= UserStreak.MAX_BITMAP_BYTES);
+    }
+
+    @Test
+    void onTaskCompleted_FarPastDay_ShouldKeepBitmapWithinColumn() {
+        // Arrange
+        UserStreak streak = rebuildFrom(today);
+        when(userStreakRepository.findForUpdate(1L)).thenReturn(Optional.of(streak));
+
+        // Act
+        streakService.onTaskCompleted(1L, today.minusYears(300));
+
+        // Assert
+        assertEquals(today, streak.getBitmapOrigin());
+        assertEquals(1, streak.getMaxStreak());
+        assertTrue(streak.getDayBitmap().length <= UserStreak.MAX_BITMAP_BYTES);
+    }
+
+    @Test
+    void getCurrentStreak_LastCompletionBeforeToday_ShouldReturnZero() {
+        // Arrange
+        UserStreak streak = rebuildFrom(today.minusDays(3), today.minusDays(2));
+
+        // Act & Assert
+        assertEquals(0L, streakService.getCurrentStreak(streak, today));
+        assertEquals(2, streak.getMaxStreak());
+    }
+
+    @Test
+    void getCurrentStreak_FutureCompletions_ShouldCountRunEndingToday() {
+        // Arrange
+        UserStreak streak = rebuildFrom(today.minusDays(1), today, today.plusDays(3));
+
+        // Act & Assert
+        assertEquals(2L, streakService.getCurrentStreak(streak, today));
+    }
+
+    @Test
+    void onTaskCompleted_NextDay_ShouldExtendStreak() {
+        // Arrange
+        UserStreak streak = rebuildFrom(today.minusDays(2), today.minusDays(1));
+        when(userStreakRepository.findForUpdate(1L)).thenReturn(Optional.of(streak));
+
+        // Act
+        streakService.onTaskCompleted(1L, today);
+
+        // Assert
+        assertEquals(3, streak.getCurrentStreak());
+        assertEquals(3, streak.getMaxStreak());
+        assertEquals(today, streak.getLastCompletionDay());
+    }
+
+    @Test
+    void onTaskCompleted_DayBeforeOrigin_ShouldShiftBitmap() {
+        // Arrange
+        UserStreak streak = rebuildFrom(today.minusDays(1), today);
+        when(userStreakRepository.findForUpdate(1L)).thenReturn(Optional.of(streak));
+
+        // Act
+        streakService.onTaskCompleted(1L, today.minusDays(2));
+
+        // Assert
+        assertEquals(today.minusDays(2), streak.getBitmapOrigin());
+        assertEquals(3, streak.getCurrentStreak());
+        assertEquals(3, streak.getMaxStreak());
+    }
+
+    @Test
+    void onTasksCompleted_SeveralDays_ShouldApplyInOneUpdate() {
+        // Arrange
+        UserStreak streak = rebuildFrom(today.minusDays(1));
+        when(userStreakRepository.findForUpdate(1L)).thenReturn(Optional.of(streak));
+
+        // Act
+        streakService.onTasksCompleted(1L, Arrays.asList(today.minusDays(3), today.minusDays(2), today));
+
+        // Assert
+        assertEquals(today.minusDays(3), streak.getBitmapOrigin());
+        assertEquals(4, streak.getCurrentStreak());
+        assertEquals(4, streak.getMaxStreak());
+        verify(userStreakRepository, times(2)).save(streak);
+    }
+
+    @Test
+    void onTaskUncompleted_LastTaskOfDay_ShouldBreakStreak() {
+        // Arrange
+        UserStreak streak = rebuildFrom(today.minusDays(2), today.minusDays(1), today);
+        when(userStreakRepository.findForUpdate(1L)).thenReturn(Optional.of(streak));
+        when(taskRepository.existsByUserIdAndCompletedTrueAndDeadline(1L, today.minusDays(1))).thenReturn(false);
+
+        // Act
+        streakService.onTaskUncompleted(1L, today.minusDays(1));
+
+        // Assert
+        assertEquals(1, streak.getCurrentStreak());
+        assertEquals(1, streak.getMaxStreak());
+    }
+
+    @Test
+    void onTaskUncompleted_OtherTaskSameDay_ShouldKeepStreak() {
+        // Arrange
+        UserStreak streak = rebuildFrom(today.minusDays(1), today);
+        when(userStreakRepository.findForUpdate(1L)).thenReturn(Optional.of(streak));
+        when(taskRepository.existsByUserIdAndCompletedTrueAndDeadline(1L, today)).thenReturn(true);
+
+        // Act
+        streakService.onTaskUncompleted(1L, today);
+
+        // Assert
+        assertEquals(2, streak.getCurrentStreak());
+        verify(userStreakRepository, times(1)).save(streak);
+    }
+
+    @Test
+    void onTaskUncompleted_OnlyDay_ShouldResetState() {
+        // Arrange
+        UserStreak streak = rebuildFrom(today);
+        when(userStreakRepository.findForUpdate(1L)).thenReturn(Optional.of(streak));
+        when(taskRepository.existsByUserIdAndCompletedTrueAndDeadline(1L, today)).thenReturn(false);
+
+        // Act
+        streakService.onTaskUncompleted(1L, today);
+
+        // Assert
+        assertEquals(0, streak.getCurrentStreak());
+        assertEquals(0, streak.getMaxStreak());
+        assertNull(streak.getBitmapOrigin());
+    }
+
+    @Test
+    void onTaskCompleted_StateMissing_ShouldSkipUpdate() {
+        // Arrange
+        when(userStreakRepository.findForUpdate(1L)).thenReturn(Optional.empty());
+
+        // Act
+        streakService.onTaskCompleted(1L, today);
+
+        // Assert
+        verify(userStreakRepository, never()).save(any(UserStreak.class));
+    }
+
+    @Test
+    void onTaskChanged_DeadlineMoved_ShouldMoveCompletionDay() {
+        // Arrange
+        UserStreak streak = rebuildFrom(today.minusDays(5), today.minusDays(1));
+        when(userStreakRepository.findForUpdate(1L)).thenReturn(Optional.of(streak));
+        when(taskRepository.existsByUserIdAndCompletedTrueAndDeadline(1L, today.minusDays(5))).thenReturn(false);
+
+        // Act
+        streakService.onTaskChanged(1L, true, today.minusDays(5), true, today);
+
+        // Assert
+        assertEquals(2, streak.getCurrentStreak());
+        assertEquals(today.minusDays(1), streak.getBitmapOrigin());
+    }
+
+    @Test
+    void onCompletionDaysChanged_DaysShifted_ShouldMoveCompletionDays() {
+        // Arrange
+        UserStreak streak = rebuildFrom(today.minusDays(4), today.minusDays(3));
+        when(userStreakRepository.findForUpdate(1L)).thenReturn(Optional.of(streak));
+        when(taskRepository.findCompletedDaysByUserIdAndDeadlineIn(eq(1L), anyCollection()))
+                .thenReturn(Collections.emptyList());
+
+        // Act
+        streakService.onCompletionDaysChanged(1L,
+                Arrays.asList(today.minusDays(4), today.minusDays(3)),
+                Arrays.asList(today.minusDays(1), today));
+
+        // Assert
+        assertEquals(today.minusDays(1), streak.getBitmapOrigin());
+        assertEquals(2, streak.getCurrentStreak());
+        assertEquals(2, streak.getMaxStreak());
+        assertEquals(today, streak.getLastCompletionDay());
+    }
+
+    @Test
+    void onCompletionDaysChanged_DayStillCompleted_ShouldKeepDay() {
+        // Arrange
+        UserStreak streak = rebuildFrom(today.minusDays(2), today.minusDays(1), today);
+        when(userStreakRepository.findForUpdate(1L)).thenReturn(Optional.of(streak));
+        when(taskRepository.findCompletedDaysByUserIdAndDeadlineIn(eq(1L), anyCollection()))
+                .thenReturn(List.of(today.minusDays(1)));
+
+        // Act
+        streakService.onCompletionDaysChanged(1L,
+                Arrays.asList(today.minusDays(2), today.minusDays(1)), Collections.emptyList());
+
+        // Assert
+        assertEquals(2, streak.getCurrentStreak());
+        assertEquals(2, streak.getMaxStreak());
+        assertEquals(today.minusDays(1), streak.getBitmapOrigin());
+    }
+}
@@ -0,0 +1,133 @@
+package com.lifestrat.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lifestrat.entity.*;
+import com.lifestrat.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskExportServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private TaskExportService taskExportService;
+
+    private Task task1;
+    private Task task2;
+
+    @BeforeEach
+    void setUp() {
+        // Настройки как у ObjectMapper Spring Boot: даты ISO-строками, а не массивами
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        taskExportService = new TaskExportService(taskRepository, entityManager, objectMapper);
+
+        LifeSphere workSphere = new LifeSphere();
+        workSphere.setId(3L);
+
+        Project project = new Project();
+        project.setId(7L);
+
+        task1 = new Task();
+        task1.setId(1L);
+        task1.setTitle("Plan, then \"ship\"");
+        task1.setCompleted(true);
+        task1.setDeadline(LocalDate.of(2024, 5, 1));
+        task1.setPriority(Priority.HIGH);
+        task1.setEstimatedTimeMinutes(60);
+        task1.setEnergyCost(EnergyCost.MEDIUM);
+        task1.setType(TaskType.STEP);
+        task1.setProject(project);
+        task1.setLifeSphere(workSphere);
+
+        task2 = new Task();
+        task2.setId(2L);
+        task2.setTitle("Workout");
+        task2.setDescription("Line one\nline two");
+        task2.setDeadline(LocalDate.of(2024, 5, 2));
+        task2.setPriority(Priority.LOW);
+        task2.setEstimatedTimeMinutes(30);
+        task2.setEnergyCost(EnergyCost.HIGH);
+        task2.setType(TaskType.RITUAL);
+        task2.setLifeSphere(workSphere);
+    }
+
+    @Test
+    void exportNdjson_ShouldWriteOneObjectPerLineAndDetachEntities() throws Exception {
+        // Arrange
+        AtomicBoolean closed = new AtomicBoolean();
+        when(taskRepository.streamAllByUserId(1L))
+                .thenReturn(Stream.of(task1, task2).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long exported = taskExportService.exportNdjson(1L, output);
+
+        // Assert
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, exported);
+        assertEquals(2, lines.length);
+
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertEquals("Plan, then \"ship\"", first.get("title").asText());
+        assertEquals(7L, first.get("projectId").asLong());
+        assertEquals("2024-05-01", first.get("deadline").asText());
+        assertTrue(new ObjectMapper().readTree(lines[1]).get("projectId").isNull());
+
+        verify(entityManager).detach(task1);
+        verify(entityManager).detach(task2);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportCsv_ShouldWriteHeaderAndEscapeValues() throws Exception {
+        // Arrange
+        when(taskRepository.streamAllByUserId(1L)).thenReturn(Stream.of(task1, task2));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long exported = taskExportService.exportCsv(1L, output);
+
+        // Assert
+        String csv = output.toString(StandardCharsets.UTF_8);
+        assertEquals(2, exported);
+        assertTrue(csv.startsWith(TaskExportService.CSV_HEADER + "\r\n"));
+        assertTrue(csv.contains("1,\"Plan, then \"\"ship\"\"\",,true,2024-05-01,HIGH,60,MEDIUM,STEP,7,3\r\n"));
+        assertTrue(csv.contains("2,Workout,\"Line one\nline two\",false,2024-05-02,LOW,30,HIGH,RITUAL,,3\r\n"));
+    }
+
+    @Test
+    void exportNdjson_NoTasks_ShouldWriteNothing() throws Exception {
+        // Arrange
+        when(taskRepository.streamAllByUserId(1L)).thenReturn(Stream.empty());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long exported = taskExportService.exportNdjson(1L, output);
+
+        // Assert
+        assertEquals(0, exported);
+        assertEquals(0, output.size());
+        verifyNoInteractions(entityManager);
+    }
+}
@@ -0,0 +1,114 @@
+package com.lifestrat.service;
+
+import com.lifestrat.dto.TaskRollupBucketDto;
+import com.lifestrat.entity.*;
+import com.lifestrat.repository.DailyTaskRollupRepository;
+import com.lifestrat.repository.TaskRepository;
+import com.lifestrat.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskRollupServiceTest {
+
+    @Mock
+    private DailyTaskRollupRepository dailyTaskRollupRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private TaskRollupService taskRollupService;
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 3, 4);
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+    private DailyTaskRollup createRollup(Long id, LocalDate day, Long lifeSphereId, long taskCount) {
+        DailyTaskRollup rollup = new DailyTaskRollup(1L, day, lifeSphereId);
+        rollup.setId(id);
+        rollup.getCounters().apply(Priority.HIGH, TaskType.STEP, EnergyCost.MEDIUM, false, taskCount, taskCount * 60);
+        return rollup;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void refreshDays_ShouldUpdateChangedInsertNewAndDeleteEmptiedRows() {
+        // Arrange
+        DailyTaskRollup unchanged = createRollup(1L, MONDAY, 1L, 1);
+        DailyTaskRollup changed = createRollup(2L, MONDAY, 2L, 1);
+        DailyTaskRollup emptied = createRollup(3L, TUESDAY, 1L, 2);
+        when(taskRepository.aggregateRollupBucketsByUserIdAndDeadlineIn(eq(1L), anyCollection())).thenReturn(List.of(
+                new TaskRollupBucketDto(1L, MONDAY, Priority.HIGH, TaskType.STEP, EnergyCost.MEDIUM, false, 1L, 60L),
+                new TaskRollupBucketDto(2L, MONDAY, Priority.HIGH, TaskType.STEP, EnergyCost.MEDIUM, false, 1L, 60L),
+                new TaskRollupBucketDto(2L, MONDAY, Priority.LOW, TaskType.RITUAL, EnergyCost.LOW, true, 2L, 30L),
+                new TaskRollupBucketDto(3L, TUESDAY, Priority.LOW, TaskType.ACTION, EnergyCost.HIGH, true, 1L, 45L)));
+        when(dailyTaskRollupRepository.findAllByUserIdAndDayIn(eq(1L), anyCollection()))
+                .thenReturn(List.of(unchanged, changed, emptied));
+
+        // Act
+        taskRollupService.refreshDays(1L, List.of(MONDAY, TUESDAY, MONDAY));
+
+        // Assert
+        ArgumentCaptor<List<DailyTaskRollup>> saved = ArgumentCaptor.forClass(List.class);
+        verify(dailyTaskRollupRepository).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().size());
+        assertSame(changed, saved.getValue().get(0));
+        assertEquals(3, changed.getCounters().getTaskCount());
+        assertEquals(2, changed.getCounters().getCompletedCount());
+        DailyTaskRollup inserted = saved.getValue().get(1);
+        assertNull(inserted.getId());
+        assertEquals(TUESDAY, inserted.getDay());
+        assertEquals(3L, inserted.getLifeSphereId());
+        assertEquals(45, inserted.getCounters().getCompletedMinutes());
+
+        verify(dailyTaskRollupRepository).deleteAll(List.of(emptied));
+        verify(userRepository).findForUpdate(1L);
+        verify(taskRepository).aggregateRollupBucketsByUserIdAndDeadlineIn(1L, Set.of(MONDAY, TUESDAY));
+    }
+
+    @Test
+    void refreshDays_NoDays_ShouldDoNothing() {
+        // Act
+        taskRollupService.refreshDays(1L, List.of());
+
+        // Assert
+        verifyNoInteractions(userRepository, taskRepository, dailyTaskRollupRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void rebuild_ShouldReplaceAllRowsOfUser() {
+        // Arrange
+        when(taskRepository.aggregateRollupBucketsByUserId(1L)).thenReturn(List.of(
+                new TaskRollupBucketDto(1L, MONDAY, Priority.HIGH, TaskType.STEP, EnergyCost.MEDIUM, false, 1L, 60L),
+                new TaskRollupBucketDto(1L, MONDAY, Priority.LOW, TaskType.STEP, EnergyCost.MEDIUM, true, 1L, 30L),
+                new TaskRollupBucketDto(1L, TUESDAY, Priority.HIGH, TaskType.STEP, EnergyCost.MEDIUM, false, 2L, 90L)));
+
+        // Act
+        int rows = taskRollupService.rebuild(1L);
+
+        // Assert
+        assertEquals(2, rows);
+        ArgumentCaptor<List<DailyTaskRollup>> saved = ArgumentCaptor.forClass(List.class);
+        var order = inOrder(userRepository, dailyTaskRollupRepository);
+        order.verify(userRepository).findForUpdate(1L);
+        order.verify(dailyTaskRollupRepository).deleteByUserId(1L);
+        order.verify(dailyTaskRollupRepository).saveAll(saved.capture());
+        assertEquals(4, saved.getValue().stream().mapToLong(rollup -> rollup.getCounters().getTaskCount()).sum());
+    }
+}
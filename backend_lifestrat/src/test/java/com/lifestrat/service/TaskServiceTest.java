@@ -1,5 +1,9 @@
 package com.lifestrat.service;
 
+import com.lifestrat.dto.CursorPage;
+import com.lifestrat.dto.PageCursor;
+import com.lifestrat.dto.TaskBucketDto;
+import com.lifestrat.dto.TaskSummary;
 import com.lifestrat.entity.*;
 import com.lifestrat.repository.TaskRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,11 +12,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,6 +30,18 @@ class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private StreakService streakService;
+
+    @Mock
+    private TaskStatsService taskStatsService;
+
+    @Mock
+    private SearchIndex searchIndex;
+
+    @Mock
+    private TaskRollupService taskRollupService;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -91,6 +110,57 @@ class TaskServiceTest {
         verify(taskRepository).findAllByUserId(1L);
     }
 
+    private TaskSummary summary(Task task) {
+        return new TaskSummary(task.getId(), task.getTitle(), task.isCompleted(), task.getDeadline(),
+                task.getPriority(), task.getEstimatedTimeMinutes(), task.getEnergyCost(), task.getType(),
+                task.getProject() != null ? task.getProject().getId() : null,
+                workSphere.getId(), workSphere.getName(), "#FF6B6B");
+    }
+
+    @Test
+    void findPageByUserId_MoreRowsThanSize_ShouldReturnCursorToLastItem() {
+        // Arrange
+        when(taskRepository.findPageByUserId(1L, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(summary(task2), summary(task1)));
+
+        // Act
+        CursorPage<TaskSummary> result = taskService.findPageByUserId(1L, null, 1);
+
+        // Assert
+        assertEquals(List.of(summary(task2)), result.items());
+        assertTrue(result.hasNext());
+        assertEquals(new PageCursor(task2.getDeadline(), 2L), PageCursor.decode(result.nextCursor()));
+    }
+
+    @Test
+    void findPageByUserId_WithCursor_ShouldSeekAfterPosition() {
+        // Arrange
+        String cursor = new PageCursor(task2.getDeadline(), 2L).encode();
+        when(taskRepository.findPageByUserIdAfter(1L, task2.getDeadline(), 2L, PageRequest.of(0, 11)))
+                .thenReturn(List.of(summary(task1)));
+
+        // Act
+        CursorPage<TaskSummary> result = taskService.findPageByUserId(1L, cursor, 10);
+
+        // Assert
+        assertEquals(List.of(summary(task1)), result.items());
+        assertFalse(result.hasNext());
+        assertNull(result.nextCursor());
+        verify(taskRepository, never()).findPageByUserId(anyLong(), any());
+    }
+
+    @Test
+    void findPageByUserId_InvalidCursorOrSize_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> taskService.findPageByUserId(1L, "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.findPageByUserId(1L, new PageCursor(null, 2L).encode(), 10));
+        assertThrows(IllegalArgumentException.class, () -> taskService.findPageByUserId(1L, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.findPageByUserId(1L, null, CursorPage.MAX_SIZE + 1));
+        verifyNoInteractions(taskRepository);
+    }
+
     @Test
     void findAllByUserIdAndType_ShouldReturnFilteredTasks() {
         // Arrange
@@ -109,8 +179,7 @@ class TaskServiceTest {
     @Test
     void findByIdAndUserId_TaskExists_ShouldReturnTask() {
         // Arrange
-        List<Task> userTasks = Arrays.asList(task1, task2);
-        when(taskRepository.findAllByUserId(1L)).thenReturn(userTasks);
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(task1));
 
         // Act
         Optional<Task> result = taskService.findByIdAndUserId(1L, 1L);
@@ -118,13 +187,13 @@ class TaskServiceTest {
         // Assert
         assertTrue(result.isPresent());
         assertEquals(task1, result.get());
+        verify(taskRepository, never()).findAllByUserId(anyLong());
     }
 
     @Test
     void findByIdAndUserId_TaskNotFound_ShouldReturnEmpty() {
         // Arrange
-        List<Task> userTasks = Arrays.asList(task1, task2);
-        when(taskRepository.findAllByUserId(1L)).thenReturn(userTasks);
+        when(taskRepository.findByIdAndUserId(3L, 1L)).thenReturn(Optional.empty());
 
         // Act
         Optional<Task> result = taskService.findByIdAndUserId(3L, 1L);
@@ -157,6 +226,54 @@ class TaskServiceTest {
         assertNotNull(result);
         assertEquals("New Task", result.getTitle());
         verify(taskRepository).save(newTask);
+        verify(taskStatsService).addTask(newTask);
+        verify(taskRollupService).refreshDays(1L, List.of(newTask.getDeadline()));
+    }
+
+    @Test
+    void createAll_ValidBatch_ShouldSaveOnceAndUpdateCountersPerBatch() {
+        // Arrange
+        task1.setId(null);
+        task2.setId(null);
+        List<Task> batch = Arrays.asList(task1, task2);
+        when(taskRepository.saveAll(batch)).thenReturn(batch);
+
+        // Act
+        List<Task> result = taskService.createAll(batch, 1L);
+
+        // Assert
+        assertEquals(2, result.size());
+        verify(taskRepository, times(1)).saveAll(batch);
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(taskStatsService).addTasks(1L, batch);
+        verify(streakService).onTasksCompleted(1L, Set.of(task2.getDeadline()));
+    }
+
+    @Test
+    void createAll_ForeignProject_ShouldRejectWholeBatch() {
+        // Arrange
+        User otherUser = new User();
+        otherUser.setId(2L);
+        Project foreignProject = new Project();
+        foreignProject.setId(9L);
+        foreignProject.setUser(otherUser);
+        task2.setProject(foreignProject);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.createAll(Arrays.asList(task1, task2), 1L));
+        verifyNoInteractions(taskRepository, taskStatsService, streakService);
+    }
+
+    @Test
+    void createAll_EmptyOrOversizedBatch_ShouldThrowException() {
+        // Arrange
+        List<Task> oversized = Collections.nCopies(TaskService.MAX_BATCH_SIZE + 1, task1);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> taskService.createAll(List.of(), 1L));
+        assertThrows(IllegalArgumentException.class, () -> taskService.createAll(oversized, 1L));
+        verifyNoInteractions(taskRepository);
     }
 
     @Test
@@ -196,6 +313,10 @@ class TaskServiceTest {
         assertEquals("Updated Task", result.getTitle());
         assertTrue(result.isCompleted());
         verify(taskRepository).save(task1);
+        verify(taskStatsService).removeTask(task1);
+        verify(taskStatsService).addTask(task1);
+        verify(streakService).onTaskChanged(1L, false, LocalDate.now().plusDays(5),
+                true, LocalDate.now().plusDays(1));
     }
 
     @Test
@@ -205,13 +326,25 @@ class TaskServiceTest {
 
         // Assert
         verify(taskRepository).delete(task1);
+        verify(taskStatsService).removeTask(task1);
+        verify(streakService, never()).onTaskUncompleted(anyLong(), any());
+        verify(searchIndex).onTasksDeleted(1L, List.of(task1.getId()));
+    }
+
+    @Test
+    void delete_CompletedTask_ShouldUpdateStreak() {
+        // Act
+        taskService.delete(task2);
+
+        // Assert
+        verify(taskRepository).delete(task2);
+        verify(streakService).onTaskUncompleted(1L, task2.getDeadline());
     }
 
     @Test
     void markAsCompleted_ValidTask_ShouldMarkAsCompleted() {
         // Arrange
-        List<Task> userTasks = Arrays.asList(task1);
-        when(taskRepository.findAllByUserId(1L)).thenReturn(userTasks);
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(task1));
         when(taskRepository.save(task1)).thenReturn(task1);
 
         // Act
@@ -220,12 +353,15 @@ class TaskServiceTest {
         // Assert
         assertTrue(result.isCompleted());
         verify(taskRepository).save(task1);
+        verify(taskStatsService).removeTask(task1);
+        verify(taskStatsService).addTask(task1);
+        verify(streakService).onTaskCompleted(1L, task1.getDeadline());
     }
 
     @Test
     void markAsCompleted_TaskNotFound_ShouldThrowException() {
         // Arrange
-        when(taskRepository.findAllByUserId(1L)).thenReturn(Arrays.asList());
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> {
@@ -237,8 +373,7 @@ class TaskServiceTest {
     void markAsCompleted_TaskAlreadyCompleted_ShouldStillWork() {
         // Arrange
         task2.setCompleted(true);
-        List<Task> userTasks = Arrays.asList(task2);
-        when(taskRepository.findAllByUserId(1L)).thenReturn(userTasks);
+        when(taskRepository.findByIdAndUserId(2L, 1L)).thenReturn(Optional.of(task2));
         when(taskRepository.save(task2)).thenReturn(task2);
 
         // Act
@@ -247,5 +382,86 @@ class TaskServiceTest {
         // Assert
         assertTrue(result.isCompleted());
         verify(taskRepository).save(task2);
+        verifyNoInteractions(taskStatsService);
+        verify(streakService, never()).onTaskCompleted(anyLong(), any());
+    }
+
+    @Test
+    void markAllAsCompleted_ShouldUpdateInOneStatementAndApplyDelta() {
+        // Arrange
+        List<Long> ids = List.of(1L, 2L);
+        TaskBucketDto pending = new TaskBucketDto(Priority.HIGH, TaskType.STEP, EnergyCost.MEDIUM, false, 1L, 120L);
+        TaskBucketDto done = new TaskBucketDto(Priority.LOW, TaskType.ACTION, EnergyCost.LOW, true, 1L, 30L);
+        when(taskRepository.aggregateBucketsByUserIdAndIdIn(1L, ids)).thenReturn(List.of(pending, done));
+        when(taskRepository.findDeadlinesByUserIdAndIdIn(1L, ids, false)).thenReturn(List.of(task1.getDeadline()));
+        when(taskRepository.markCompletedByUserIdAndIdIn(1L, ids)).thenReturn(1);
+
+        // Act
+        int updated = taskService.markAllAsCompleted(ids, 1L);
+
+        // Assert
+        assertEquals(1, updated);
+        verify(taskStatsService).applyBulkChange(1L, List.of(pending),
+                List.of(new TaskBucketDto(Priority.HIGH, TaskType.STEP, EnergyCost.MEDIUM, true, 1L, 120L)), 1);
+        verify(streakService).onTasksCompleted(1L, List.of(task1.getDeadline()));
+        verify(taskRepository, never()).findByIdAndUserId(anyLong(), anyLong());
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void shiftDeadlines_ShouldMoveCompletionDays() {
+        // Arrange
+        List<Long> ids = List.of(1L, 2L);
+        LocalDate day = LocalDate.now();
+        when(taskRepository.findDeadlinesByUserIdAndIdIn(1L, ids, true)).thenReturn(List.of(day));
+        when(taskRepository.findAllDeadlinesByUserIdAndIdIn(1L, ids)).thenReturn(List.of(day));
+        when(taskRepository.shiftDeadlineByUserIdAndIdIn(1L, ids, 7)).thenReturn(2);
+
+        // Act
+        int updated = taskService.shiftDeadlines(ids, 7, 1L);
+
+        // Assert
+        assertEquals(2, updated);
+        verify(streakService).onCompletionDaysChanged(1L, List.of(day), List.of(day.plusDays(7)));
+        verify(taskRollupService).refreshDays(1L, List.of(day, day.plusDays(7)));
+        verifyNoInteractions(taskStatsService);
+    }
+
+    @Test
+    void shiftDeadlines_ZeroDays_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> taskService.shiftDeadlines(List.of(1L), 0, 1L));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void deleteAll_ShouldDeleteInOneStatementAndRemoveFromCounters() {
+        // Arrange
+        List<Long> ids = List.of(1L, 2L);
+        List<TaskBucketDto> buckets = List.of(
+                new TaskBucketDto(Priority.HIGH, TaskType.STEP, EnergyCost.MEDIUM, true, 2L, 150L));
+        LocalDate day = LocalDate.now();
+        when(taskRepository.aggregateBucketsByUserIdAndIdIn(1L, ids)).thenReturn(buckets);
+        when(taskRepository.findDeadlinesByUserIdAndIdIn(1L, ids, true)).thenReturn(List.of(day));
+        when(taskRepository.findAllDeadlinesByUserIdAndIdIn(1L, ids)).thenReturn(List.of(day));
+        when(taskRepository.deleteByUserIdAndIdIn(1L, ids)).thenReturn(2);
+
+        // Act
+        int deleted = taskService.deleteAll(ids, 1L);
+
+        // Assert
+        assertEquals(2, deleted);
+        verify(taskStatsService).applyBulkChange(1L, buckets, List.of(), 2);
+        verify(streakService).onCompletionDaysChanged(1L, List.of(day), List.of());
+        verify(searchIndex).onTasksDeleted(1L, ids);
+        verify(taskRollupService).refreshDays(1L, List.of(day));
+        verify(taskRepository, never()).delete(any(Task.class));
+    }
+
+    @Test
+    void deleteAll_EmptyIds_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> taskService.deleteAll(Collections.emptyList(), 1L));
+        verifyNoInteractions(taskRepository);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,279 @@
+package com.lifestrat.service;
+
+import com.lifestrat.dto.TaskBucketDto;
+import com.lifestrat.entity.*;
+import com.lifestrat.repository.TaskRepository;
+import com.lifestrat.repository.UserRepository;
+import com.lifestrat.repository.UserTaskStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStatsServiceTest {
+
+    @Mock
+    private UserTaskStatsRepository userTaskStatsRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private TaskStatsService taskStatsService;
+
+    private User testUser;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(1L);
+
+        task = new Task();
+        task.setId(1L);
+        task.setUser(testUser);
+        task.setCompleted(false);
+        task.setDeadline(LocalDate.now());
+        task.setEstimatedTimeMinutes(60);
+        task.setPriority(Priority.HIGH);
+        task.setEnergyCost(EnergyCost.LOW);
+        task.setType(TaskType.STEP);
+    }
+
+    @Test
+    void getStats_StateMissing_ShouldDeriveFromTasks() {
+        // Arrange
+        when(userTaskStatsRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userTaskStatsRepository.findForUpdate(1L)).thenReturn(Optional.empty());
+        when(taskRepository.aggregateBucketsByUserId(1L)).thenReturn(Arrays.asList(
+                new TaskBucketDto(Priority.HIGH, TaskType.STEP, EnergyCost.LOW, true, 2L, 120L),
+                new TaskBucketDto(Priority.LOW, TaskType.RITUAL, EnergyCost.HIGH, false, 3L, 90L)
+        ));
+        when(userTaskStatsRepository.save(any(UserTaskStats.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        TaskCounters counters = taskStatsService.getStats(1L).getCounters();
+
+        // Assert
+        assertEquals(210L, counters.getPlannedMinutes());
+        assertEquals(120L, counters.getCompletedMinutes());
+        assertEquals(5L, counters.getTaskCount());
+        assertEquals(2L, counters.getCompletedCount());
+        assertEquals(2L, counters.getPriorityCount(Priority.HIGH));
+        assertEquals(3L, counters.getTypeCount(TaskType.RITUAL));
+        assertEquals(3L, counters.getEnergyCostCount(EnergyCost.HIGH));
+    }
+
+    @Test
+    void getStats_StateMissing_ShouldLockUserRowBeforeCreatingState() {
+        // Arrange
+        when(userTaskStatsRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userTaskStatsRepository.findForUpdate(1L)).thenReturn(Optional.empty());
+        when(taskRepository.aggregateBucketsByUserId(1L)).thenReturn(List.of());
+        when(userTaskStatsRepository.save(any(UserTaskStats.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        taskStatsService.getStats(1L);
+
+        // Assert
+        InOrder inOrder = inOrder(userRepository, userTaskStatsRepository);
+        inOrder.verify(userTaskStatsRepository).findForUpdate(1L);
+        inOrder.verify(userRepository).findForUpdate(1L);
+        inOrder.verify(userTaskStatsRepository).findForUpdate(1L);
+        inOrder.verify(userTaskStatsRepository).save(any(UserTaskStats.class));
+    }
+
+    @Test
+    void getStats_StateCreatedConcurrently_ShouldUpdateExistingRow() {
+        // Arrange
+        UserTaskStats concurrentStats = new UserTaskStats(1L);
+        when(userTaskStatsRepository.findById(1L)).thenReturn(Optional.empty());
+        // Первый поиск не видит строку, повторный под блокировкой пользователя - видит созданную параллельно
+        when(userTaskStatsRepository.findForUpdate(1L)).thenReturn(Optional.empty(), Optional.of(concurrentStats));
+        when(taskRepository.aggregateBucketsByUserId(1L)).thenReturn(List.of());
+        when(userTaskStatsRepository.save(any(UserTaskStats.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        UserTaskStats stats = taskStatsService.getStats(1L);
+
+        // Assert
+        assertSame(concurrentStats, stats);
+        verify(userRepository).findForUpdate(1L);
+        verify(userTaskStatsRepository).save(concurrentStats);
+    }
+
+    @Test
+    void addTask_ShouldIncrementCounters() {
+        // Arrange
+        UserTaskStats stats = new UserTaskStats(1L);
+        when(userTaskStatsRepository.findForUpdate(1L)).thenReturn(Optional.of(stats));
+
+        // Act
+        taskStatsService.addTask(task);
+
+        // Assert
+        assertEquals(60L, stats.getCounters().getPlannedMinutes());
+        assertEquals(0L, stats.getCounters().getCompletedMinutes());
+        assertEquals(1L, stats.getCounters().getTaskCount());
+        assertEquals(1L, stats.getCounters().getPriorityCount(Priority.HIGH));
+        verify(userTaskStatsRepository).save(stats);
+    }
+
+    @Test
+    void removeAndAddTask_CompletionTransition_ShouldMoveToCompletedCounters() {
+        // Arrange
+        UserTaskStats stats = new UserTaskStats(1L);
+        stats.getCounters().apply(task, 1);
+        when(userTaskStatsRepository.findForUpdate(1L)).thenReturn(Optional.of(stats));
+
+        // Act
+        taskStatsService.removeTask(task);
+        task.setCompleted(true);
+        taskStatsService.addTask(task);
+
+        // Assert
+        assertEquals(1L, stats.getCounters().getTaskCount());
+        assertEquals(1L, stats.getCounters().getCompletedCount());
+        assertEquals(60L, stats.getCounters().getCompletedMinutes());
+        assertEquals(60L, stats.getCounters().getPlannedMinutes());
+    }
+
+    @Test
+    void addTasks_Batch_ShouldSaveCountersOnce() {
+        // Arrange
+        UserTaskStats stats = new UserTaskStats(1L);
+        when(userTaskStatsRepository.findForUpdate(1L)).thenReturn(Optional.of(stats));
+        Task completedTask = new Task();
+        completedTask.setUser(testUser);
+        completedTask.setCompleted(true);
+        completedTask.setEstimatedTimeMinutes(30);
+        completedTask.setPriority(Priority.LOW);
+        completedTask.setEnergyCost(EnergyCost.LOW);
+        completedTask.setType(TaskType.ACTION);
+
+        // Act
+        taskStatsService.addTasks(1L, Arrays.asList(task, completedTask));
+
+        // Assert
+        assertEquals(2L, stats.getCounters().getTaskCount());
+        assertEquals(1L, stats.getCounters().getCompletedCount());
+        assertEquals(90L, stats.getCounters().getPlannedMinutes());
+        verify(userTaskStatsRepository, times(1)).save(stats);
+    }
+
+    @Test
+    void addTask_StateMissing_ShouldSkipUpdate() {
+        // Arrange
+        when(userTaskStatsRepository.findForUpdate(1L)).thenReturn(Optional.empty());
+
+        // Act
+        taskStatsService.addTask(task);
+
+        // Assert
+        verify(userTaskStatsRepository, never()).save(any(UserTaskStats.class));
+    }
+
+    @Test
+    void reconcile_Drift_ShouldFixCountersAndReportDrift() {
+        // Arrange
+        UserTaskStats stats = new UserTaskStats(1L);
+        stats.getCounters().apply(task, 1);
+        stats.getCounters().apply(task, 1);
+        when(userTaskStatsRepository.findForUpdate(1L)).thenReturn(Optional.of(stats));
+        when(taskRepository.aggregateBucketsByUserId(1L)).thenReturn(Arrays.asList(
+                new TaskBucketDto(Priority.HIGH, TaskType.STEP, EnergyCost.LOW, false, 1L, 60L)
+        ));
+
+        // Act
+        boolean drift = taskStatsService.reconcile(1L);
+
+        // Assert
+        assertTrue(drift);
+        assertEquals(1L, stats.getCounters().getTaskCount());
+        assertNotNull(stats.getReconciledAt());
+        verify(userTaskStatsRepository).save(stats);
+    }
+
+    @Test
+    void reconcile_NoDrift_ShouldReportConsistent() {
+        // Arrange
+        UserTaskStats stats = new UserTaskStats(1L);
+        stats.getCounters().apply(task, 1);
+        when(userTaskStatsRepository.findForUpdate(1L)).thenReturn(Optional.of(stats));
+        when(taskRepository.aggregateBucketsByUserId(1L)).thenReturn(Arrays.asList(
+                new TaskBucketDto(Priority.HIGH, TaskType.STEP, EnergyCost.LOW, false, 1L, 60L)
+        ));
+
+        // Act & Assert
+        assertFalse(taskStatsService.reconcile(1L));
+    }
+
+    @Test
+    void reconcile_StateMissing_ShouldSkip() {
+        // Arrange
+        when(userTaskStatsRepository.findForUpdate(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertFalse(taskStatsService.reconcile(1L));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void applyBulkChange_RowsMatchBuckets_ShouldApplyDelta() {
+        // Arrange
+        UserTaskStats stats = new UserTaskStats(1L);
+        stats.getCounters().apply(Priority.HIGH, TaskType.STEP, EnergyCost.LOW, false, 3L, 180L);
+        when(userTaskStatsRepository.findForUpdate(1L)).thenReturn(Optional.of(stats));
+
+        // Act
+        taskStatsService.applyBulkChange(1L,
+                List.of(new TaskBucketDto(Priority.HIGH, TaskType.STEP, EnergyCost.LOW, false, 2L, 120L)),
+                List.of(new TaskBucketDto(Priority.HIGH, TaskType.STEP, EnergyCost.LOW, true, 2L, 120L)),
+                2);
+
+        // Assert
+        assertEquals(3L, stats.getCounters().getTaskCount());
+        assertEquals(2L, stats.getCounters().getCompletedCount());
+        assertEquals(120L, stats.getCounters().getCompletedMinutes());
+        assertEquals(180L, stats.getCounters().getPlannedMinutes());
+        verify(taskRepository, never()).aggregateBucketsByUserId(anyLong());
+        verify(userTaskStatsRepository).save(stats);
+    }
+
+    @Test
+    void applyBulkChange_RowsMismatch_ShouldRebuildFromTasks() {
+        // Arrange
+        UserTaskStats stats = new UserTaskStats(1L);
+        stats.getCounters().apply(Priority.HIGH, TaskType.STEP, EnergyCost.LOW, false, 3L, 180L);
+        when(userTaskStatsRepository.findForUpdate(1L)).thenReturn(Optional.of(stats));
+        when(taskRepository.aggregateBucketsByUserId(1L)).thenReturn(List.of(
+                new TaskBucketDto(Priority.HIGH, TaskType.STEP, EnergyCost.LOW, false, 2L, 120L)
+        ));
+
+        // Act
+        taskStatsService.applyBulkChange(1L,
+                List.of(new TaskBucketDto(Priority.HIGH, TaskType.STEP, EnergyCost.LOW, false, 2L, 120L)),
+                List.of(), 1);
+
+        // Assert
+        assertEquals(2L, stats.getCounters().getTaskCount());
+        assertEquals(120L, stats.getCounters().getPlannedMinutes());
+        assertNotNull(stats.getReconciledAt());
+        verify(userTaskStatsRepository).save(stats);
+    }
+}
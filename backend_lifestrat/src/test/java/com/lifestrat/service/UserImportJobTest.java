@@ -0,0 +1,180 @@
+package com.lifestrat.service;
+
+import com.lifestrat.dto.UserImportError;
+import com.lifestrat.dto.UserImportReport;
+import com.lifestrat.dto.UserImportRow;
+import com.lifestrat.entity.User;
+import com.lifestrat.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportJobTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final int JDBC_BATCH_SIZE = 50;
+
+    @Mock
+    private UserImportService userImportService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private PasswordHasher passwordHasher;
+    private UserImportJob userImportJob;
+
+    @BeforeEach
+    void setUp() {
+        passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(4), 2, 4, 5);
+        userImportJob = new UserImportJob(userImportService, userRepository, passwordHasher,
+                BATCH_SIZE, JDBC_BATCH_SIZE, "");
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    private void noExistingUsers() {
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Collections.emptyList());
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Collections.emptyList());
+    }
+
+    private static ByteArrayInputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importCsv_ValidRows_ShouldInsertInBatchesWithHashedPasswords() throws IOException {
+        // Arrange
+        noExistingUsers();
+        when(userImportService.insertBatch(anyList(), eq(JDBC_BATCH_SIZE)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        UserImportReport report = userImportJob.importCsv(csv(
+                "username,email,password\n" +
+                "alice,alice@example.com,secret1\n" +
+                "\n" +
+                "bob,bob@example.com,secret2\n" +
+                "carol,carol@example.com,\"se,cret3\"\n"));
+
+        // Assert
+        assertEquals(3, report.totalRows());
+        assertEquals(3, report.imported());
+        assertTrue(report.errors().isEmpty());
+        verify(userImportService, times(2)).insertBatch(anyList(), eq(JDBC_BATCH_SIZE));
+        verify(userImportService).insertBatch(argThat(users -> users.size() == 1
+                && passwordHasher.matches("se,cret3", users.get(0).getPassword())), eq(JDBC_BATCH_SIZE));
+    }
+
+    @Test
+    void importFile_CsvFile_ShouldImportRows(@TempDir Path directory) throws IOException {
+        // Arrange
+        noExistingUsers();
+        when(userImportService.insertBatch(anyList(), eq(JDBC_BATCH_SIZE)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        Path file = Files.writeString(directory.resolve("users.csv"),
+                "username,email,password\nalice,alice@example.com,secret1\n");
+
+        // Act
+        UserImportReport report = userImportJob.importFile(file);
+
+        // Assert
+        assertEquals(1, report.totalRows());
+        assertEquals(1, report.imported());
+    }
+
+    @Test
+    void importUsers_InvalidAndDuplicateRows_ShouldReportErrorsAndImportTheRest() {
+        // Arrange
+        noExistingUsers();
+        when(userImportService.insertBatch(anyList(), eq(JDBC_BATCH_SIZE)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        UserImportReport report = userImportJob.importUsers(Stream.of(
+                new UserImportRow(1, "alice", "alice@example.com", "secret1"),
+                new UserImportRow(2, "al", "al@example.com", "secret2"),
+                new UserImportRow(3, "alice", "other@example.com", "secret3"),
+                new UserImportRow(4, "dave", "dave@example.com", "123"),
+                new UserImportRow(5, null, null, null)
+        ));
+
+        // Assert
+        assertEquals(5, report.totalRows());
+        assertEquals(1, report.imported());
+        assertEquals(List.of(2, 3, 4, 5), report.errors().stream().map(UserImportError::rowNumber).toList());
+        assertEquals("Duplicate username in import", report.errors().get(1).error());
+    }
+
+    @Test
+    void importUsers_UsernameTaken_ShouldSkipRowWithoutHashing() {
+        // Arrange
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(List.of("alice"));
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Collections.emptyList());
+
+        // Act
+        UserImportReport report = userImportJob.importUsers(Stream.of(
+                new UserImportRow(1, "alice", "alice@example.com", "secret1")));
+
+        // Assert
+        assertEquals(0, report.imported());
+        assertEquals("User with username 'alice' already exists", report.errors().get(0).error());
+        verifyNoInteractions(userImportService);
+    }
+
+    @Test
+    void importUsers_BatchFails_ShouldRetryRowByRowAndKeepGoodRows() {
+        // Arrange
+        noExistingUsers();
+        when(userImportService.insertBatch(anyList(), eq(JDBC_BATCH_SIZE))).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            if (users.stream().anyMatch(user -> user.getUsername().equals("bob"))) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            return users;
+        });
+
+        // Act
+        UserImportReport report = userImportJob.importUsers(Stream.of(
+                new UserImportRow(1, "alice", "alice@example.com", "secret1"),
+                new UserImportRow(2, "bob", "bob@example.com", "secret2")));
+
+        // Assert
+        assertEquals(1, report.imported());
+        assertEquals(1, report.errors().size());
+        assertEquals(2, report.errors().get(0).rowNumber());
+        verify(userImportService, times(3)).insertBatch(anyList(), eq(JDBC_BATCH_SIZE));
+    }
+
+    @Test
+    void parseCsvLine_QuotedFields_ShouldUnescapeQuotes() {
+        // Act
+        UserImportRow row = UserImportRow.parseCsvLine(7, "\"eve\",eve@example.com,\"pa\"\"ss,word\"");
+
+        // Assert
+        assertEquals(7, row.rowNumber());
+        assertEquals("eve", row.username());
+        assertEquals("pa\"ss,word", row.password());
+    }
+}
@@ -0,0 +1,144 @@
+package com.lifestrat.service;
+
+import com.lifestrat.dto.UserPurgeProgress;
+import com.lifestrat.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserPurgeJobTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock
+    private UserPurgeService userPurgeService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private UserPurgeJob userPurgeJob;
+
+    @BeforeEach
+    void setUp() {
+        userPurgeJob = new UserPurgeJob(userPurgeService, userRepository, eventPublisher, CHUNK_SIZE, 1, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userPurgeJob.shutdown();
+    }
+
+    // Дождаться завершения фонового удаления
+    private UserPurgeProgress awaitFinished(Long userId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            UserPurgeProgress progress = userPurgeJob.getProgress(userId).orElseThrow();
+            if (!progress.isActive()) {
+                return progress;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Purge did not finish in time");
+    }
+
+    @Test
+    void purge_ShouldDeleteChildrenBeforeUserInChunks() {
+        // Arrange
+        when(userPurgeService.deleteTaskChunk(1L, CHUNK_SIZE)).thenReturn(2, 1, 0);
+        when(userPurgeService.deleteProjectChunk(1L, CHUNK_SIZE)).thenReturn(1, 0);
+        when(userPurgeService.deleteLifeSphereChunk(1L, CHUNK_SIZE)).thenReturn(2, 0);
+        when(userPurgeService.deleteUserRow(1L)).thenReturn(true);
+
+        // Act
+        UserPurgeProgress result = userPurgeJob.purge(1L);
+
+        // Assert
+        assertEquals(UserPurgeProgress.Status.COMPLETED, result.status());
+        assertEquals(3L, result.tasksDeleted());
+        assertEquals(1L, result.projectsDeleted());
+        assertEquals(2L, result.lifeSpheresDeleted());
+        assertNotNull(result.finishedAt());
+
+        InOrder inOrder = inOrder(userPurgeService, eventPublisher);
+        inOrder.verify(userPurgeService).disableUser(1L);
+        inOrder.verify(eventPublisher).publishEvent(new UserDisabledEvent(1L));
+        inOrder.verify(userPurgeService, times(3)).deleteTaskChunk(1L, CHUNK_SIZE);
+        inOrder.verify(userPurgeService, times(2)).deleteProjectChunk(1L, CHUNK_SIZE);
+        inOrder.verify(userPurgeService, times(2)).deleteLifeSphereChunk(1L, CHUNK_SIZE);
+        inOrder.verify(userPurgeService).deleteUserRow(1L);
+    }
+
+    @Test
+    void startPurge_ShouldRunInBackgroundAndReportCompletion() throws InterruptedException {
+        // Arrange
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userPurgeService.deleteTaskChunk(1L, CHUNK_SIZE)).thenReturn(2, 0);
+        when(userPurgeService.deleteProjectChunk(1L, CHUNK_SIZE)).thenReturn(0);
+        when(userPurgeService.deleteLifeSphereChunk(1L, CHUNK_SIZE)).thenReturn(1, 0);
+        when(userPurgeService.deleteUserRow(1L)).thenReturn(true);
+
+        // Act
+        UserPurgeProgress started = userPurgeJob.startPurge(1L);
+        UserPurgeProgress finished = awaitFinished(1L);
+
+        // Assert
+        assertEquals(1L, started.userId());
+        assertEquals(UserPurgeProgress.Status.COMPLETED, finished.status());
+        assertEquals(2L, finished.tasksDeleted());
+        assertEquals(1L, finished.lifeSpheresDeleted());
+    }
+
+    @Test
+    void startPurge_ChunkFails_ShouldReportFailureWithProgress() throws InterruptedException {
+        // Arrange
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userPurgeService.deleteTaskChunk(1L, CHUNK_SIZE)).thenReturn(2, 0);
+        when(userPurgeService.deleteProjectChunk(1L, CHUNK_SIZE)).thenThrow(new RuntimeException("Lock timeout"));
+
+        // Act
+        userPurgeJob.startPurge(1L);
+        UserPurgeProgress finished = awaitFinished(1L);
+
+        // Assert
+        assertEquals(UserPurgeProgress.Status.FAILED, finished.status());
+        assertEquals(2L, finished.tasksDeleted());
+        assertEquals("Lock timeout", finished.error());
+        verify(userPurgeService, never()).deleteUserRow(anyLong());
+    }
+
+    @Test
+    void startPurge_ExecutorRejects_ShouldPropagateAndAllowRetry() {
+        // Arrange
+        when(userRepository.existsById(1L)).thenReturn(true);
+        userPurgeJob.shutdown();
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> userPurgeJob.startPurge(1L));
+        assertTrue(userPurgeJob.getProgress(1L).isEmpty());
+    }
+
+    @Test
+    void startPurge_UserNotFound_ShouldThrowException() {
+        // Arrange
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> userPurgeJob.startPurge(1L));
+        assertTrue(userPurgeJob.getProgress(1L).isEmpty());
+        verifyNoInteractions(userPurgeService);
+    }
+}
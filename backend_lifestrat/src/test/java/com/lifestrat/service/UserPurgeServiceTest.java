@@ -0,0 +1,127 @@
+package com.lifestrat.service;
+
+import com.lifestrat.repository.DailyTaskRollupRepository;
+import com.lifestrat.repository.LifeSphereRepository;
+import com.lifestrat.repository.ProjectRepository;
+import com.lifestrat.repository.TaskRepository;
+import com.lifestrat.repository.UserRepository;
+import com.lifestrat.repository.UserStreakRepository;
+import com.lifestrat.repository.UserTaskStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserPurgeServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private LifeSphereRepository lifeSphereRepository;
+
+    @Mock
+    private UserStreakRepository userStreakRepository;
+
+    @Mock
+    private UserTaskStatsRepository userTaskStatsRepository;
+
+    @Mock
+    private DailyTaskRollupRepository dailyTaskRollupRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private LifeSphereCache lifeSphereCache;
+
+    @Mock
+    private SearchIndex searchIndex;
+
+    @InjectMocks
+    private UserPurgeService userPurgeService;
+
+    @Test
+    void deleteTaskChunk_ShouldDeleteSelectedIdsInOneStatement() {
+        // Arrange
+        when(taskRepository.findIdsByUserId(1L, PageRequest.of(0, 3))).thenReturn(List.of(10L, 11L, 12L));
+        when(taskRepository.deleteByUserIdAndIdIn(1L, List.of(10L, 11L, 12L))).thenReturn(3);
+
+        // Act
+        int deleted = userPurgeService.deleteTaskChunk(1L, 3);
+
+        // Assert
+        assertEquals(3, deleted);
+        verify(taskRepository, never()).findAllByUserId(anyLong());
+        verify(searchIndex).evict(1L);
+    }
+
+    @Test
+    void disableUser_ShouldBlockAccount() {
+        // Arrange
+        when(userRepository.disableById(1L)).thenReturn(1);
+
+        // Act
+        boolean disabled = userPurgeService.disableUser(1L);
+
+        // Assert
+        assertTrue(disabled);
+        verify(userRepository).disableById(1L);
+    }
+
+    @Test
+    void deleteProjectChunk_NothingLeft_ShouldSkipDelete() {
+        // Arrange
+        when(projectRepository.findIdsByUserId(1L, PageRequest.of(0, 3))).thenReturn(Collections.emptyList());
+
+        // Act
+        int deleted = userPurgeService.deleteProjectChunk(1L, 3);
+
+        // Assert
+        assertEquals(0, deleted);
+        verify(projectRepository, never()).deleteByUserIdAndIdIn(anyLong(), anyCollection());
+    }
+
+    @Test
+    void deleteLifeSphereChunk_ShouldEvictSphereCache() {
+        // Arrange
+        when(lifeSphereRepository.findIdsByUserId(1L, PageRequest.of(0, 3))).thenReturn(List.of(5L));
+        when(lifeSphereRepository.deleteByUserIdAndIdIn(1L, List.of(5L))).thenReturn(1);
+
+        // Act
+        int deleted = userPurgeService.deleteLifeSphereChunk(1L, 3);
+
+        // Assert
+        assertEquals(1, deleted);
+        verify(lifeSphereCache).evict(1L);
+    }
+
+    @Test
+    void deleteUserRow_ShouldRemoveDerivedStateAndUser() {
+        // Arrange
+        when(userRepository.deleteRowById(1L)).thenReturn(1);
+
+        // Act
+        boolean deleted = userPurgeService.deleteUserRow(1L);
+
+        // Assert
+        assertTrue(deleted);
+        verify(userStreakRepository).deleteByUserId(1L);
+        verify(userTaskStatsRepository).deleteByUserId(1L);
+        verify(dailyTaskRollupRepository).deleteByUserId(1L);
+        verify(userRepository, never()).delete(any());
+        verify(searchIndex).evict(1L);
+    }
+}
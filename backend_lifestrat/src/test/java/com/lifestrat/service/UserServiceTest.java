@@ -7,7 +7,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.time.LocalDateTime;
@@ -22,6 +24,16 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    // Реальный BCrypt с минимальной стоимостью, чтобы тесты оставались быстрыми
+    @Spy
+    private PasswordHasher passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(4), 2, 16, 5);
+
+    @Mock
+    private UserPurgeJob userPurgeJob;
+
+    @Mock
+    private LifeSphereService lifeSphereService;
+
     @InjectMocks
     private UserService userService;
 
@@ -158,6 +170,20 @@ class UserServiceTest {
         verify(userRepository).save(any(User.class));
     }
 
+    @Test
+    void createUser_HashingPoolSaturated_ShouldFailFastWithoutSaving() {
+        // Arrange
+        when(userRepository.existsByUsername("newuser")).thenReturn(false);
+        when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
+        doThrow(new PasswordHashingRejectedException(5)).when(passwordHasher).encode("plainPassword");
+
+        // Act & Assert
+        PasswordHashingRejectedException exception = assertThrows(PasswordHashingRejectedException.class,
+                () -> userService.createUser("newuser", "new@example.com", "plainPassword"));
+        assertEquals(5, exception.getRetryAfterSeconds());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
     @Test
     void createUser_DuplicateUsername_ShouldThrowException() {
         // Arrange
@@ -194,12 +220,44 @@ class UserServiceTest {
     }
 
     @Test
-    void delete_ShouldDeleteUser() {
+    void registerUser_ValidData_ShouldSaveUserAndDefaultSpheres() {
+        // Arrange
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(2L);
+            return user;
+        });
+
+        // Act
+        User result = userService.registerUser("newuser", "new@example.com", "$2a$10$hash");
+
+        // Assert
+        assertEquals(2L, result.getId());
+        assertEquals("$2a$10$hash", result.getPassword());
+        verify(lifeSphereService).createDefaultLifeSpheres(result);
+    }
+
+    @Test
+    void registerUser_ConcurrentDuplicateUsername_ShouldThrowIllegalArgument() {
+        // Arrange
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "Unique index or primary key violation: \"PUBLIC.UK_USERS_USERNAME_INDEX_4 ON PUBLIC.USERS(USERNAME)\""));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> userService.registerUser("newuser", "new@example.com", "$2a$10$hash"));
+        assertEquals("User with username 'newuser' already exists", exception.getMessage());
+        verifyNoInteractions(lifeSphereService);
+    }
+
+    @Test
+    void delete_ShouldPurgeUserWithoutLoadingChildren() {
         // Act
         userService.delete(testUser);
 
         // Assert
-        verify(userRepository).delete(testUser);
+        verify(userPurgeJob).purge(1L);
+        verify(userRepository, never()).delete(any(User.class));
     }
 
     @Test